@@ -0,0 +1,145 @@
+package com.org.booklibrary.benchmark;
+
+import com.org.booklibrary.BookLibraryApplication;
+import com.org.booklibrary.entity.User;
+import com.org.booklibrary.repository.UserRepository;
+import com.org.booklibrary.service.BookImportService;
+import org.springframework.boot.Banner;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Boots the application without a web server, against a fresh in-memory H2 database or a durable one, and seeds it.
+ */
+final class BenchmarkContext {
+
+    private static final String[] ADJECTIVES = {"Silent", "Crimson", "Hidden", "Last", "Golden", "Broken", "Distant", "Wild"};
+    private static final String[] NOUNS = {"Garden", "River", "Empire", "Voyage", "Library", "Winter", "Machine", "Kingdom"};
+    private static final String[] AUTHORS = {"Ada Hart", "Ben Okafor", "Chloe Lindqvist", "Dmitri Volkov", "Elena Ruiz",
+            "Farid Haddad", "Grace Liu", "Hiro Tanaka"};
+
+    static final int VOLUME_USERS = 10_000;
+    static final int VOLUME_BOOKS = 10_000;
+    static final int VOLUME_OPEN_EVERY = 50;
+
+    private BenchmarkContext() {
+    }
+
+    static ConfigurableApplicationContext start(String... extraArgs) {
+        String database = "bench-" + UUID.randomUUID();
+        List<String> args = new ArrayList<>(List.of(
+                "--spring.datasource.url=jdbc:h2:mem:" + database + ";DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE",
+                "--library.reactive.url=r2dbc:h2:mem:///" + database));
+        args.addAll(List.of(extraArgs));
+        return run(args);
+    }
+
+    /**
+     * Boots the {@code durable} profile on the given storage directory, which is kept between runs.
+     */
+    static ConfigurableApplicationContext startDurable(Path storageDir, String... extraArgs) {
+        List<String> args = new ArrayList<>(List.of(
+                "--spring.profiles.active=durable",
+                "--library.storage.dir=" + storageDir.toAbsolutePath()));
+        args.addAll(List.of(extraArgs));
+        return run(args);
+    }
+
+    private static ConfigurableApplicationContext run(List<String> args) {
+        System.setProperty("spring.devtools.restart.enabled", "false");
+        SpringApplication application = new SpringApplication(BookLibraryApplication.class);
+        application.setWebApplicationType(WebApplicationType.NONE);
+        application.setBannerMode(Banner.Mode.OFF);
+        List<String> allArgs = new ArrayList<>(List.of(
+                "--spring.jpa.show-sql=false",
+                "--logging.level.root=WARN",
+                "--logging.level.com.org.booklibrary=WARN"));
+        allArgs.addAll(args);
+        return application.run(allArgs.toArray(String[]::new));
+    }
+
+    static void seedBooks(ConfigurableApplicationContext context, int count, int copies) {
+        StringBuilder csv = new StringBuilder("title,author,isbn,publicationYear,totalCopies\n");
+        for (int i = 0; i < count; i++) {
+            csv.append("The ").append(ADJECTIVES[i % ADJECTIVES.length]).append(' ')
+                    .append(NOUNS[(i / ADJECTIVES.length) % NOUNS.length]).append(' ').append(i).append(',')
+                    .append(AUTHORS[(i / 7) % AUTHORS.length]).append(',')
+                    .append(isbn13(i)).append(',')
+                    .append(1900 + i % 120).append(',')
+                    .append(copies).append('\n');
+        }
+        try {
+            context.getBean(BookImportService.class).importCsv(new StringReader(csv.toString()));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    static List<Long> seedUsers(ConfigurableApplicationContext context, int count) {
+        List<User> users = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            users.add(new User("bench_user_" + i, "bench" + i + "@example.com"));
+        }
+        return context.getBean(UserRepository.class).saveAll(users).stream().map(User::getId).toList();
+    }
+
+    /**
+     * A durable store under {@code target/benchmark-data} holding {@code loans} borrowing records spread over
+     * {@link #VOLUME_USERS} users and {@link #VOLUME_BOOKS} books, one in {@link #VOLUME_OPEN_EVERY} still open.
+     * It is built once with set-based inserts and reused by later runs.
+     */
+    static Path loanVolumeStore(long loans) {
+        Path dir = Path.of("target", "benchmark-data", "loans-" + loans);
+        try (ConfigurableApplicationContext context = startDurable(dir)) {
+            JdbcTemplate jdbc = context.getBean(JdbcTemplate.class);
+            Long existing = jdbc.queryForObject("select count(*) from borrowing_record", Long.class);
+            if (existing != null && existing >= loans) {
+                return dir;
+            }
+            jdbc.update("delete from borrowing_record");
+            jdbc.update("delete from library_user");
+            jdbc.update("delete from book");
+            jdbc.execute("alter table library_user alter column id restart with 1");
+            jdbc.execute("alter sequence book_seq restart with 1");
+            seedBooks(context, VOLUME_BOOKS, 1_000_000);
+            seedUsers(context, VOLUME_USERS);
+            // Consecutive x walk every (user, book) pair once before repeating, so open keys stay unique.
+            String insert = """
+                    insert into borrowing_record (user_id, book_id, borrow_date, return_date, open_loan_key)
+                    select u, b, dateadd('DAY', -d, current_date),
+                           case when mod(x, %3$d) = 0 then null else dateadd('DAY', 14 - d, current_date) end,
+                           case when mod(x, %3$d) = 0 then concat(u, ':', b) end
+                      from (select x, mod(x, %1$d) + 1 u, mod(x / %1$d, %2$d) + 1 b, mod(x, 3650) d
+                              from system_range(?, ?))
+                    """.formatted(VOLUME_USERS, VOLUME_BOOKS, VOLUME_OPEN_EVERY);
+            long chunk = 1_000_000;
+            for (long from = 0; from < loans; from += chunk) {
+                jdbc.update(insert, from, Math.min(from + chunk, loans) - 1);
+            }
+            jdbc.execute("analyze");
+        }
+        return dir;
+    }
+
+    /**
+     * A valid ISBN-13 in the 978 range derived from {@code n}.
+     */
+    static String isbn13(long n) {
+        String digits = "978" + String.format("%09d", n % 1_000_000_000L);
+        int sum = 0;
+        for (int i = 0; i < 12; i++) {
+            sum += (digits.charAt(i) - '0') * (i % 2 == 0 ? 1 : 3);
+        }
+        return digits + (10 - sum % 10) % 10;
+    }
+}
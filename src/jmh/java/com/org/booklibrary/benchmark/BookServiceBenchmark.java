@@ -0,0 +1,71 @@
+package com.org.booklibrary.benchmark;
+
+import com.org.booklibrary.dto.BookView;
+import com.org.booklibrary.entity.Book;
+import com.org.booklibrary.service.BookService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Read paths of {@link BookService} at different catalog sizes.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class BookServiceBenchmark {
+
+    @Param({"1000", "10000", "100000"})
+    public int catalogSize;
+
+    private ConfigurableApplicationContext context;
+    private BookService bookService;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkContext.start();
+        BenchmarkContext.seedBooks(context, catalogSize, 5);
+        bookService = context.getBean(BookService.class);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public List<BookView> searchByTitle() {
+        return bookService.searchBooks("crimson garden", null, null);
+    }
+
+    @Benchmark
+    public List<BookView> searchByTitleAndAuthor() {
+        return bookService.searchBooks("kingdom", "grace", null);
+    }
+
+    @Benchmark
+    public List<BookView> searchByIsbn() {
+        return bookService.searchBooks(null, null, BenchmarkContext.isbn13(catalogSize / 2));
+    }
+
+    @Benchmark
+    public Book getBookById() {
+        return bookService.getBookById((long) (catalogSize / 2));
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public List<BookView> getAllBooks() {
+        return bookService.getAllBooks();
+    }
+
+    @Benchmark
+    public List<BookView> getBooksPage() {
+        return bookService.getBooksPage((long) (catalogSize / 2), 50).items();
+    }
+}
@@ -0,0 +1,64 @@
+package com.org.booklibrary.benchmark;
+
+import com.org.booklibrary.entity.BorrowingRecord;
+import com.org.booklibrary.service.BookService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Borrow/return round trips where every thread hammers the same hot title.
+ * Run with {@code -t} to vary the thread count, e.g. {@code -Djmh.args="BorrowContention -t 16"}.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@Threads(8)
+public class BorrowContentionBenchmark {
+
+    private static final int USERS = 256;
+
+    @State(Scope.Benchmark)
+    public static class Library {
+        ConfigurableApplicationContext context;
+        BookService bookService;
+        List<Long> userIds;
+        long hotBookId;
+        final AtomicInteger nextUser = new AtomicInteger();
+
+        @Setup(Level.Trial)
+        public void setUp() {
+            context = BenchmarkContext.start();
+            BenchmarkContext.seedBooks(context, 10, USERS);
+            userIds = BenchmarkContext.seedUsers(context, USERS);
+            bookService = context.getBean(BookService.class);
+            hotBookId = bookService.getBooksPage(null, 1).items().get(0).id();
+        }
+
+        @TearDown(Level.Trial)
+        public void tearDown() {
+            context.close();
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class Borrower {
+        long userId;
+
+        @Setup(Level.Trial)
+        public void setUp(Library library) {
+            userId = library.userIds.get(library.nextUser.getAndIncrement() % USERS);
+        }
+    }
+
+    @Benchmark
+    public BorrowingRecord borrowAndReturn(Library library, Borrower borrower) {
+        BorrowingRecord record = library.bookService.borrowBook(library.hotBookId, borrower.userId);
+        return library.bookService.returnBook(record.getId());
+    }
+}
@@ -0,0 +1,227 @@
+package com.org.booklibrary.benchmark;
+
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.listener.QueryExecutionListener;
+import net.ttddyy.dsproxy.support.ProxyDataSourceBuilder;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.Banner;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.support.GenericApplicationContext;
+
+import javax.sql.DataSource;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Closed-loop HTTP load test comparing the default platform-thread server with the
+ * {@code virtual-threads} profile under a slow database.
+ * <p>
+ * For each mode it boots the application on a random port, seeds books and users, adds an artificial
+ * delay to every JDBC statement and drives {@code GET /api/v1/books/{id}} and
+ * {@code POST /api/v1/books/{bookId}/borrow/{userId}} (followed by the matching return) at increasing
+ * numbers of concurrent clients, printing throughput and latency percentiles. The entity caches are off, so
+ * every read reaches the database.
+ * <pre>
+ * ./mvnw -Pjmh test-compile exec:exec -Dbenchmark.main=com.org.booklibrary.benchmark.HttpLoadTest \
+ *     -Djmh.args="--concurrency=50,200,800 --seconds=10 --db-latency-ms=20"
+ * </pre>
+ * Virtual threads need Java 21; on older JVMs the virtual-threads run is skipped.
+ */
+public final class HttpLoadTest {
+
+    private static final Pattern ID = Pattern.compile("^\\{\"id\":(\\d+)");
+
+    private HttpLoadTest() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        int[] concurrency = {50, 200, 800};
+        int seconds = 10;
+        long dbLatencyMillis = 20;
+        for (String arg : args) {
+            if (arg.startsWith("--concurrency=")) {
+                concurrency = Arrays.stream(arg.substring("--concurrency=".length()).split(",")).mapToInt(Integer::parseInt).toArray();
+            } else if (arg.startsWith("--seconds=")) {
+                seconds = Integer.parseInt(arg.substring("--seconds=".length()));
+            } else if (arg.startsWith("--db-latency-ms=")) {
+                dbLatencyMillis = Long.parseLong(arg.substring("--db-latency-ms=".length()));
+            }
+        }
+        int maxClients = Arrays.stream(concurrency).max().orElse(1);
+
+        run("platform threads", false, concurrency, seconds, dbLatencyMillis, maxClients);
+        if (Runtime.version().feature() >= 21) {
+            run("virtual threads", true, concurrency, seconds, dbLatencyMillis, maxClients);
+        } else {
+            System.out.println("Skipping virtual threads: running on Java " + Runtime.version().feature() + ", need 21+.");
+        }
+    }
+
+    private static void run(String label, boolean virtualThreads, int[] concurrency, int seconds,
+                            long dbLatencyMillis, int maxClients) throws Exception {
+        System.setProperty("spring.devtools.restart.enabled", "false");
+        SpringApplication application = new SpringApplication(com.org.booklibrary.BookLibraryApplication.class);
+        application.setWebApplicationType(WebApplicationType.SERVLET);
+        application.setBannerMode(Banner.Mode.OFF);
+        application.addInitializers(context -> ((GenericApplicationContext) context)
+                .registerBean("slowDatabase", BeanPostProcessor.class, () -> slowDatabase(dbLatencyMillis)));
+        String database = "load-" + UUID.randomUUID();
+        List<String> appArgs = new ArrayList<>(List.of(
+                "--server.port=0",
+                "--spring.datasource.url=jdbc:h2:mem:" + database + ";DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE",
+                "--library.reactive.url=r2dbc:h2:mem:///" + database,
+                // The load test measures the server, not the limiter.
+                "--library.rate-limit.enabled=false",
+                // Nor the entity cache, which would serve every read of the 100 books without a statement.
+                "--spring.cache.type=none",
+                "--logging.level.root=WARN",
+                "--logging.level.com.org.booklibrary=WARN"));
+        if (virtualThreads) {
+            appArgs.add("--spring.profiles.active=virtual-threads");
+        }
+
+        try (ConfigurableApplicationContext context = application.run(appArgs.toArray(String[]::new))) {
+            BenchmarkContext.seedBooks(context, 100, maxClients);
+            List<Long> users = BenchmarkContext.seedUsers(context, maxClients);
+            int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+            String base = "http://localhost:" + port + "/api/v1/books";
+
+            System.out.printf("%n== %s (db latency %d ms) ==%n", label, dbLatencyMillis);
+            System.out.printf("%-28s %8s %10s %9s %9s %9s %7s%n", "scenario", "clients", "req/s", "p50 ms", "p99 ms", "max ms", "errors");
+            for (int clients : concurrency) {
+                report("GET /books/{id}", clients, drive(clients, seconds, (client, worker) ->
+                        send(client, HttpRequest.newBuilder(URI.create(base + "/" + (1 + worker % 100))).GET().build())));
+                report("POST borrow + return", clients, drive(clients, seconds, (client, worker) -> {
+                    long bookId = 1 + worker % 100;
+                    long userId = users.get(worker);
+                    HttpResponse<String> borrow = client.send(HttpRequest.newBuilder(URI.create(base + "/" + bookId + "/borrow/" + userId))
+                            .POST(HttpRequest.BodyPublishers.noBody()).build(), HttpResponse.BodyHandlers.ofString());
+                    Matcher matcher = ID.matcher(borrow.body());
+                    if (borrow.statusCode() != 201 || !matcher.find()) {
+                        return false;
+                    }
+                    return send(client, HttpRequest.newBuilder(URI.create(base + "/" + matcher.group(1) + "/return"))
+                            .POST(HttpRequest.BodyPublishers.noBody()).build());
+                }));
+            }
+        }
+    }
+
+    interface Scenario {
+        boolean call(HttpClient client, int worker) throws Exception;
+    }
+
+    record Result(long requests, long errors, double seconds, long[] latenciesMicros) {
+    }
+
+    static Result drive(int clients, int seconds, Scenario scenario) throws InterruptedException {
+        ExecutorService io = Executors.newFixedThreadPool(Math.min(clients, 64));
+        HttpClient client = HttpClient.newBuilder()
+                .connectTimeout(Duration.ofSeconds(5))
+                .executor(io)
+                .build();
+        ExecutorService workers = Executors.newFixedThreadPool(clients);
+        AtomicBoolean running = new AtomicBoolean(true);
+        LongAdder errors = new LongAdder();
+        AtomicLong count = new AtomicLong();
+        long[][] samples = new long[clients][];
+        long start = System.nanoTime();
+        for (int w = 0; w < clients; w++) {
+            int worker = w;
+            workers.submit(() -> {
+                long[] latencies = new long[1024];
+                int n = 0;
+                while (running.get()) {
+                    long t0 = System.nanoTime();
+                    boolean ok;
+                    try {
+                        ok = scenario.call(client, worker);
+                    } catch (Exception e) {
+                        ok = false;
+                    }
+                    if (!ok) {
+                        errors.increment();
+                    }
+                    if (n == latencies.length) {
+                        latencies = Arrays.copyOf(latencies, n * 2);
+                    }
+                    latencies[n++] = (System.nanoTime() - t0) / 1000;
+                    count.incrementAndGet();
+                }
+                samples[worker] = Arrays.copyOf(latencies, n);
+            });
+        }
+        Thread.sleep(TimeUnit.SECONDS.toMillis(seconds));
+        running.set(false);
+        workers.shutdown();
+        workers.awaitTermination(1, TimeUnit.MINUTES);
+        io.shutdown();
+        double elapsed = (System.nanoTime() - start) / 1e9;
+        long[] all = Arrays.stream(samples).filter(s -> s != null).flatMapToLong(Arrays::stream).sorted().toArray();
+        return new Result(count.get(), errors.sum(), elapsed, all);
+    }
+
+    static boolean send(HttpClient client, HttpRequest request) throws Exception {
+        int status = client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+        return status >= 200 && status < 300;
+    }
+
+    static void report(String scenario, int clients, Result result) {
+        long[] l = result.latenciesMicros();
+        System.out.printf("%-28s %8d %10.0f %9.1f %9.1f %9.1f %7d%n", scenario, clients,
+                result.requests() / result.seconds(),
+                percentile(l, 0.50) / 1000.0, percentile(l, 0.99) / 1000.0,
+                (l.length == 0 ? 0 : l[l.length - 1]) / 1000.0, result.errors());
+    }
+
+    private static long percentile(long[] sorted, double p) {
+        return sorted.length == 0 ? 0 : sorted[(int) Math.min(sorted.length - 1, Math.floor(p * sorted.length))];
+    }
+
+    /**
+     * Wraps the DataSource so every statement takes at least {@code latencyMillis}, emulating a remote, busy database.
+     */
+    private static BeanPostProcessor slowDatabase(long latencyMillis) {
+        QueryExecutionListener delay = new QueryExecutionListener() {
+            @Override
+            public void beforeQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+                try {
+                    Thread.sleep(latencyMillis);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+
+            @Override
+            public void afterQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+            }
+        };
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                return bean instanceof DataSource dataSource && latencyMillis > 0
+                        ? ProxyDataSourceBuilder.create(dataSource).listener(delay).build()
+                        : bean;
+            }
+        };
+    }
+}
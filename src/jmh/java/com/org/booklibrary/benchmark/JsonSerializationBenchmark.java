@@ -0,0 +1,83 @@
+package com.org.booklibrary.benchmark;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.org.booklibrary.dto.BookView;
+import com.org.booklibrary.dto.BorrowingRecordView;
+import com.org.booklibrary.entity.Book;
+import com.org.booklibrary.entity.BorrowingRecord;
+import com.org.booklibrary.entity.User;
+import org.openjdk.jmh.annotations.*;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Jackson serialization cost of the response payloads, entities against their read-side views,
+ * without Spring or a database.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JsonSerializationBenchmark {
+
+    @Param({"1", "1000"})
+    public int listSize;
+
+    private ObjectMapper objectMapper;
+    private List<Book> books;
+    private List<BorrowingRecord> records;
+    private List<BookView> bookViews;
+    private List<BorrowingRecordView> recordViews;
+
+    @Setup
+    public void setUp() {
+        objectMapper = new ObjectMapper()
+                .registerModule(new JavaTimeModule())
+                .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+        books = new ArrayList<>();
+        records = new ArrayList<>();
+        bookViews = new ArrayList<>();
+        recordViews = new ArrayList<>();
+        User user = new User("bench_user", "bench@example.com");
+        user.setId(1L);
+        for (int i = 0; i < listSize; i++) {
+            Book book = new Book("The Silent Garden " + i, "Ada Hart", BenchmarkContext.isbn13(i), 1990, 5, 4);
+            book.setId((long) i);
+            books.add(book);
+            BorrowingRecord record = new BorrowingRecord(book, user, LocalDate.of(2024, 1, 1).plusDays(i % 365));
+            record.setId((long) i);
+            records.add(record);
+            bookViews.add(BookView.of(book));
+            recordViews.add(new BorrowingRecordView(record.getId(), book.getId(), book.getTitle(), user.getId(),
+                    user.getUsername(), record.getBorrowDate(), record.getReturnDate()));
+        }
+    }
+
+    @Benchmark
+    public String books() throws JsonProcessingException {
+        return objectMapper.writeValueAsString(books);
+    }
+
+    @Benchmark
+    public String borrowingRecords() throws JsonProcessingException {
+        return objectMapper.writeValueAsString(records);
+    }
+
+    @Benchmark
+    public String bookViews() throws JsonProcessingException {
+        return objectMapper.writeValueAsString(bookViews);
+    }
+
+    @Benchmark
+    public String borrowingRecordViews() throws JsonProcessingException {
+        return objectMapper.writeValueAsString(recordViews);
+    }
+}
@@ -0,0 +1,72 @@
+package com.org.booklibrary.benchmark;
+
+import com.org.booklibrary.dto.BorrowingRecordView;
+import com.org.booklibrary.entity.BorrowingRecord;
+import com.org.booklibrary.repository.BorrowingRecordRepository;
+import com.org.booklibrary.service.BookService;
+import com.org.booklibrary.service.BorrowingRecordService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Query latency of the durable profile with a large loan history (10M borrowing records by default).
+ * The store is built on the first run and reused; use {@code -p loanCount=1000000} for a quicker pass.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class LoanVolumeBenchmark {
+
+    @Param({"10000000"})
+    public long loanCount;
+
+    private ConfigurableApplicationContext context;
+    private BookService bookService;
+    private BorrowingRecordRepository borrowingRecordRepository;
+    private BorrowingRecordService borrowingRecordService;
+    private long borrowerId;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkContext.startDurable(BenchmarkContext.loanVolumeStore(loanCount));
+        bookService = context.getBean(BookService.class);
+        borrowingRecordRepository = context.getBean(BorrowingRecordRepository.class);
+        borrowingRecordService = context.getBean(BorrowingRecordService.class);
+        // A user without history, so borrowAndReturn never trips over an open loan from the seed data
+        borrowerId = BenchmarkContext.seedUsers(context, 1).get(0);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public boolean openLoanCheck() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        return borrowingRecordRepository.existsByOpenLoanKey(BorrowingRecord.openLoanKey(
+                1L + random.nextInt(BenchmarkContext.VOLUME_USERS), 1L + random.nextInt(BenchmarkContext.VOLUME_BOOKS)));
+    }
+
+    @Benchmark
+    public BorrowingRecord borrowAndReturn() {
+        long bookId = 1L + ThreadLocalRandom.current().nextInt(BenchmarkContext.VOLUME_BOOKS);
+        BorrowingRecord record = bookService.borrowBook(bookId, borrowerId);
+        return bookService.returnBook(record.getId());
+    }
+
+    @Benchmark
+    @Warmup(iterations = 2, time = 5)
+    @Measurement(iterations = 3, time = 5)
+    public List<BorrowingRecordView> userHistory() {
+        long userId = 1L + ThreadLocalRandom.current().nextInt(BenchmarkContext.VOLUME_USERS);
+        return borrowingRecordService.getBorrowingRecordsByUser(userId);
+    }
+}
@@ -0,0 +1,87 @@
+package com.org.booklibrary.benchmark;
+
+import org.springframework.boot.Banner;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.net.URI;
+import java.net.http.HttpRequest;
+import java.util.Arrays;
+import java.util.UUID;
+
+/**
+ * Closed-loop HTTP load test comparing the blocking read endpoints ({@code /api/v1/books}) with their reactive
+ * twins ({@code /api/v1/reactive/books}) on the same server and data.
+ * <p>
+ * Boots the application once on a random port with a capped Tomcat worker pool, seeds the catalog and, at increasing
+ * numbers of concurrent clients, drives a book by id, a keyset page of 50 and a full NDJSON export through both paths,
+ * printing throughput and latency percentiles.
+ * <pre>
+ * ./mvnw -Pjmh test-compile exec:exec -Dbenchmark.main=com.org.booklibrary.benchmark.ReactiveReadLoadTest \
+ *     -Djmh.args="--concurrency=50,200,800 --seconds=10 --books=10000 --tomcat-threads=200"
+ * </pre>
+ */
+public final class ReactiveReadLoadTest {
+
+    private ReactiveReadLoadTest() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        int[] concurrency = {50, 200, 800};
+        int seconds = 10;
+        int books = 10_000;
+        int tomcatThreads = 200;
+        for (String arg : args) {
+            if (arg.startsWith("--concurrency=")) {
+                concurrency = Arrays.stream(arg.substring("--concurrency=".length()).split(",")).mapToInt(Integer::parseInt).toArray();
+            } else if (arg.startsWith("--seconds=")) {
+                seconds = Integer.parseInt(arg.substring("--seconds=".length()));
+            } else if (arg.startsWith("--books=")) {
+                books = Integer.parseInt(arg.substring("--books=".length()));
+            } else if (arg.startsWith("--tomcat-threads=")) {
+                tomcatThreads = Integer.parseInt(arg.substring("--tomcat-threads=".length()));
+            }
+        }
+
+        System.setProperty("spring.devtools.restart.enabled", "false");
+        SpringApplication application = new SpringApplication(com.org.booklibrary.BookLibraryApplication.class);
+        application.setWebApplicationType(WebApplicationType.SERVLET);
+        application.setBannerMode(Banner.Mode.OFF);
+        String database = "reactive-load-" + UUID.randomUUID();
+        String[] appArgs = {
+                "--server.port=0",
+                "--server.tomcat.threads.max=" + tomcatThreads,
+                "--spring.datasource.url=jdbc:h2:mem:" + database + ";DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE",
+                "--library.reactive.url=r2dbc:h2:mem:///" + database,
+                "--library.rate-limit.enabled=false",
+                "--logging.level.root=WARN",
+                "--logging.level.com.org.booklibrary=WARN"};
+
+        try (ConfigurableApplicationContext context = application.run(appArgs)) {
+            BenchmarkContext.seedBooks(context, books, 1);
+            int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+            int catalog = books;
+
+            System.out.printf("%n== blocking vs reactive reads (%d books, %d Tomcat threads) ==%n", books, tomcatThreads);
+            System.out.printf("%-28s %8s %10s %9s %9s %9s %7s%n", "scenario", "clients", "req/s", "p50 ms", "p99 ms", "max ms", "errors");
+            for (int clients : concurrency) {
+                for (String path : new String[]{"/api/v1/books", "/api/v1/reactive/books"}) {
+                    String base = "http://localhost:" + port + path;
+                    String label = path.contains("reactive") ? "reactive" : "blocking";
+                    HttpLoadTest.report(label + " GET /{id}", clients, HttpLoadTest.drive(clients, seconds, (client, worker) ->
+                            HttpLoadTest.send(client, get(base + "/" + (1 + (worker * 31L) % catalog)))));
+                    HttpLoadTest.report(label + " GET page of 50", clients, HttpLoadTest.drive(clients, seconds, (client, worker) ->
+                            HttpLoadTest.send(client, get(base + "?afterId=" + (worker * 97L) % catalog + "&limit=50"))));
+                    HttpLoadTest.report(label + " GET /export", clients, HttpLoadTest.drive(clients, seconds, (client, worker) ->
+                            HttpLoadTest.send(client, get(base + "/export"))));
+                }
+            }
+        }
+    }
+
+    private static HttpRequest get(String uri) {
+        return HttpRequest.newBuilder(URI.create(uri)).GET().build();
+    }
+}
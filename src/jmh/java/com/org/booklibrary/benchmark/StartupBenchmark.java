@@ -0,0 +1,48 @@
+package com.org.booklibrary.benchmark;
+
+import com.org.booklibrary.dto.BookView;
+import com.org.booklibrary.dto.KeysetPage;
+import com.org.booklibrary.service.BookService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Restart time of the application up to its first answered query: the in-memory default, which creates
+ * its schema through Hibernate on every start, against the durable profile reopening a store that holds
+ * {@code loanCount} borrowing records.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 1)
+@Measurement(iterations = 5)
+@Fork(3)
+public class StartupBenchmark {
+
+    @Param({"memory", "durable"})
+    public String storage;
+
+    @Param({"10000000"})
+    public long loanCount;
+
+    private Path store;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        if (storage.equals("durable")) {
+            store = BenchmarkContext.loanVolumeStore(loanCount);
+        }
+    }
+
+    @Benchmark
+    public KeysetPage<BookView> restart() {
+        try (ConfigurableApplicationContext context = store == null
+                ? BenchmarkContext.start()
+                : BenchmarkContext.startDurable(store)) {
+            return context.getBean(BookService.class).getBooksPage(null, 1);
+        }
+    }
+}
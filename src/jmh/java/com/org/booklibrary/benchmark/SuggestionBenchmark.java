@@ -0,0 +1,60 @@
+package com.org.booklibrary.benchmark;
+
+import com.org.booklibrary.dto.BookView;
+import com.org.booklibrary.dto.Suggestion;
+import com.org.booklibrary.search.SuggestionIndex;
+import com.org.booklibrary.service.BookService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Autocomplete from {@link SuggestionIndex} against the title "contains" search a search box used before,
+ * for a short and a longer prefix. The index size is logged when it is built.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SuggestionBenchmark {
+
+    @Param({"10000", "100000", "1000000"})
+    public int catalogSize;
+
+    private ConfigurableApplicationContext context;
+    private SuggestionIndex suggestionIndex;
+    private BookService bookService;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkContext.start("--logging.level.com.org.booklibrary.search=INFO");
+        BenchmarkContext.seedBooks(context, catalogSize, 5);
+        suggestionIndex = context.getBean(SuggestionIndex.class);
+        suggestionIndex.rebuild();
+        bookService = context.getBean(BookService.class);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public List<Suggestion> suggestShortPrefix() {
+        return suggestionIndex.suggest("the c", null, 10);
+    }
+
+    @Benchmark
+    public List<Suggestion> suggestLongPrefix() {
+        return suggestionIndex.suggest("the crimson gard", null, 10);
+    }
+
+    @Benchmark
+    public List<BookView> searchTitleContains() {
+        return bookService.searchBooks("the crimson gard", null, null);
+    }
+}
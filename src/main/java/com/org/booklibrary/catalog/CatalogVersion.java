@@ -0,0 +1,49 @@
+package com.org.booklibrary.catalog;
+
+import com.org.booklibrary.event.BookChangedEvent;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A version number for the whole catalog, bumped on every change a book list response can show:
+ * book rows written, and available copies changed in {@link com.org.booklibrary.inventory.BookInventory}.
+ * List endpoints use it as their ETag, so an unchanged catalog is answered with 304 before any query.
+ * The ETag carries a per-start epoch, so counters from an earlier run never match.
+ * <p>
+ * Readers must take the ETag before loading the data: a change in between then only makes the
+ * client fetch again, never keep stale data under a current tag.
+ */
+@Component
+public class CatalogVersion {
+
+    private final String epoch = Long.toString(System.currentTimeMillis(), Character.MAX_RADIX);
+    private final AtomicLong version = new AtomicLong();
+    private volatile long lastModified = System.currentTimeMillis();
+
+    public void bump() {
+        version.incrementAndGet();
+        lastModified = System.currentTimeMillis();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onBookChanged(BookChangedEvent event) {
+        bump();
+    }
+
+    public String etag() {
+        return "\"catalog-" + epoch + "-" + version.get() + "\"";
+    }
+
+    /**
+     * Time of the last change in epoch milliseconds, truncated to seconds as {@code Last-Modified} carries no more,
+     * or -1 while that second is still running: a later change in the same second would get the same date, so
+     * until it has passed only the ETag can tell the two apart.
+     */
+    public long lastModified() {
+        long changed = lastModified;
+        long second = changed - Math.floorMod(changed, 1000L);
+        return System.currentTimeMillis() >= second + 1000 ? second : -1;
+    }
+}
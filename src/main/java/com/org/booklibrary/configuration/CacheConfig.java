@@ -0,0 +1,42 @@
+package com.org.booklibrary.configuration;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.CachingConfigurer;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.transaction.TransactionAwareCacheManagerProxy;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Enables the entity caches declared on the repositories.
+ * The provider and eviction policy come from {@code spring.cache.*}; with Caffeine
+ * the per-cache hit/miss/eviction counters are published under {@code /actuator/metrics/cache.*}.
+ * <p>
+ * The annotations go through a transaction-aware view of that cache manager: inside a transaction, evictions and
+ * puts wait for the commit, so a reader cannot cache the old row again between the eviction and the commit.
+ */
+@Configuration
+@EnableCaching
+public class CacheConfig implements CachingConfigurer {
+
+    public static final String BOOKS = "books";
+    public static final String USERS = "users";
+
+    /**
+     * Keeps misses out of the entity caches, and rows read from a replica, which may predate a write another
+     * client is entitled to see.
+     */
+    public static final String UNLESS_MISS_OR_REPLICA = "#result == null or "
+            + "T(com.org.booklibrary.replica.ReadWriteRoutingDataSource).lastConnectionToReplica()";
+
+    private final ObjectProvider<CacheManager> cacheManager;
+
+    public CacheConfig(ObjectProvider<CacheManager> cacheManager) {
+        this.cacheManager = cacheManager;
+    }
+
+    @Override
+    public CacheManager cacheManager() {
+        return new TransactionAwareCacheManagerProxy(cacheManager.getObject());
+    }
+}
@@ -0,0 +1,30 @@
+package com.org.booklibrary.configuration;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.org.booklibrary.idempotency.IdempotencyFilter;
+import com.org.booklibrary.idempotency.IdempotencyStore;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+
+import java.util.List;
+
+@Configuration
+public class IdempotencyConfig {
+
+    /**
+     * Runs after the JDBC request metrics filter, so replayed requests are recorded with zero statements.
+     */
+    @Bean
+    public FilterRegistrationBean<IdempotencyFilter> idempotencyFilter(
+            IdempotencyStore store, ObjectMapper objectMapper,
+            @Value("${library.idempotency.paths:/api/v1/books/*/borrow/*,/api/v1/books/*/return}") List<String> paths) {
+        FilterRegistrationBean<IdempotencyFilter> registration =
+                new FilterRegistrationBean<>(new IdempotencyFilter(store, objectMapper, paths));
+        registration.addUrlPatterns("/api/*");
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE + 20);
+        return registration;
+    }
+}
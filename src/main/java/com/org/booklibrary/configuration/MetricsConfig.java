@@ -0,0 +1,48 @@
+package com.org.booklibrary.configuration;
+
+import com.org.booklibrary.metrics.JdbcMetrics;
+import io.micrometer.core.aop.TimedAspect;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+
+import javax.sql.DataSource;
+
+@Configuration
+public class MetricsConfig {
+
+    /**
+     * Backs the {@code @Timed} annotations on the service classes.
+     */
+    @Bean
+    public TimedAspect timedAspect(MeterRegistry meterRegistry) {
+        return new TimedAspect(meterRegistry);
+    }
+
+    @Bean
+    public static JdbcMetrics jdbcMetrics(ObjectProvider<MeterRegistry> meterRegistry) {
+        return new JdbcMetrics(meterRegistry);
+    }
+
+    @Bean
+    public static BeanPostProcessor jdbcMetricsDataSourcePostProcessor(ObjectProvider<JdbcMetrics> jdbcMetrics) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                return bean instanceof DataSource dataSource ? jdbcMetrics.getObject().wrap(dataSource) : bean;
+            }
+        };
+    }
+
+    @Bean
+    public FilterRegistrationBean<?> jdbcMetricsFilter(JdbcMetrics jdbcMetrics) {
+        FilterRegistrationBean<?> registration = new FilterRegistrationBean<>(jdbcMetrics.requestFilter());
+        registration.addUrlPatterns("/api/*");
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE + 10);
+        return registration;
+    }
+}
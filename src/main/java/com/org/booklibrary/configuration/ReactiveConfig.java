@@ -0,0 +1,56 @@
+package com.org.booklibrary.configuration;
+
+import com.org.booklibrary.repository.ReactiveBookRepository;
+import io.r2dbc.pool.ConnectionPool;
+import io.r2dbc.pool.ConnectionPoolConfiguration;
+import io.r2dbc.spi.ConnectionFactories;
+import io.r2dbc.spi.ConnectionFactoryOptions;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.ComponentScan;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.FilterType;
+import org.springframework.data.r2dbc.core.R2dbcEntityTemplate;
+import org.springframework.data.r2dbc.repository.R2dbcRepository;
+import org.springframework.data.r2dbc.repository.config.EnableR2dbcRepositories;
+
+/**
+ * R2DBC for the reactive read path. The connection pool is deliberately not a bean: Spring Boot backs off the
+ * JDBC DataSource as soon as a ConnectionFactory bean exists, and JPA, Flyway and every write need that DataSource.
+ * Boot's own R2dbcAutoConfiguration is excluded in application.yml for the same reason.
+ */
+@Configuration
+@EnableR2dbcRepositories(basePackageClasses = ReactiveBookRepository.class, entityOperationsRef = "reactiveEntityOperations",
+        includeFilters = @ComponentScan.Filter(type = FilterType.ASSIGNABLE_TYPE, classes = R2dbcRepository.class))
+public class ReactiveConfig implements DisposableBean {
+
+    private final ConnectionPool connectionPool;
+
+    /**
+     * Logs in with the JDBC DataSource credentials, as both open the same database.
+     */
+    public ReactiveConfig(@Value("${library.reactive.url:r2dbc:h2:mem:///bookLibrary}") String url,
+                          @Value("${library.reactive.max-pool-size:10}") int maxPoolSize,
+                          @Value("${spring.datasource.username:sa}") String username,
+                          @Value("${spring.datasource.password:}") String password) {
+        ConnectionFactoryOptions options = ConnectionFactoryOptions.parse(url).mutate()
+                .option(ConnectionFactoryOptions.USER, username)
+                .option(ConnectionFactoryOptions.PASSWORD, password)
+                .build();
+        this.connectionPool = new ConnectionPool(ConnectionPoolConfiguration.builder(ConnectionFactories.get(options))
+                .initialSize(0)
+                .maxSize(maxPoolSize)
+                .build());
+    }
+
+    @Bean
+    public R2dbcEntityTemplate reactiveEntityOperations() {
+        return new R2dbcEntityTemplate(connectionPool);
+    }
+
+    @Override
+    public void destroy() {
+        connectionPool.dispose();
+    }
+}
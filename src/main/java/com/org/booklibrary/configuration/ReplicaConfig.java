@@ -0,0 +1,116 @@
+package com.org.booklibrary.configuration;
+
+import com.org.booklibrary.replica.ReadWriteRoutingDataSource;
+import com.org.booklibrary.replica.ReadYourWritesFilter;
+import com.org.booklibrary.replica.ReplicaPositions;
+import com.org.booklibrary.replica.ReplicaProperties;
+import com.org.booklibrary.replica.ReplicationStandIn;
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+import org.springframework.core.env.Environment;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.jdbc.datasource.SimpleDriverDataSource;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Read/write splitting over {@code library.replicas.urls}, on with {@code library.replicas.enabled}. Replaces
+ * Boot's single pooled DataSource with one Hikari pool per database behind a {@link ReadWriteRoutingDataSource}.
+ * The pools are not beans themselves, so JDBC metrics wrap only the DataSource the application uses.
+ * The reactive read path keeps reading the primary through {@code library.reactive.url}.
+ */
+@Configuration
+@ConditionalOnProperty(name = "library.replicas.enabled", havingValue = "true")
+@EnableConfigurationProperties(ReplicaProperties.class)
+public class ReplicaConfig {
+
+    @Bean(destroyMethod = "close")
+    public Pools replicaPools(DataSourceProperties dataSource, ReplicaProperties replicas, Environment environment) {
+        Binder binder = Binder.get(environment);
+        HikariDataSource primary = pool(dataSource, dataSource.determineUrl(), binder);
+        String name = primary.getPoolName() != null ? primary.getPoolName() : "library";
+        List<HikariDataSource> pools = new ArrayList<>();
+        for (String url : replicas.urls()) {
+            HikariDataSource replica = pool(dataSource, url, binder);
+            replica.setPoolName(name + "-replica-" + pools.size());
+            replica.setReadOnly(true);
+            pools.add(replica);
+        }
+        return new Pools(primary, pools);
+    }
+
+    @Bean
+    public DataSource dataSource(Pools replicaPools, ReplicaPositions replicaPositions, ReplicaProperties replicas,
+                                 ObjectProvider<MeterRegistry> meterRegistry) {
+        ReadWriteRoutingDataSource routing = new ReadWriteRoutingDataSource(replicaPools.primary(), replicaPools.replicas(),
+                replicaPositions, replicas.maxLagMs(), meterRegistry);
+        routing.afterPropertiesSet();
+        return new LazyConnectionDataSourceProxy(routing);
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "library.replicas.stand-in.enabled", havingValue = "true")
+    public ReplicationStandIn replicationStandIn(DataSourceProperties dataSource, ReplicaProperties replicas) {
+        List<DataSource> targets = replicas.urls().stream().map(url -> unpooled(dataSource, url)).toList();
+        return new ReplicationStandIn(unpooled(dataSource, dataSource.determineUrl()), targets);
+    }
+
+    /**
+     * Without a stand-in nothing reports replica positions, so every replica is taken to be {@code assumed-lag-ms} behind.
+     */
+    @Bean
+    @ConditionalOnProperty(name = "library.replicas.stand-in.enabled", havingValue = "false", matchIfMissing = true)
+    public ReplicaPositions assumedReplicaPositions(ReplicaProperties replicas) {
+        long assumedLagMs = replicas.assumedLagMs();
+        return replica -> System.currentTimeMillis() - assumedLagMs;
+    }
+
+    /**
+     * Runs after the idempotency filter, so a replayed write is not taken for a new one.
+     */
+    @Bean
+    public FilterRegistrationBean<ReadYourWritesFilter> readYourWritesFilter(ReplicaProperties replicas) {
+        FilterRegistrationBean<ReadYourWritesFilter> registration = new FilterRegistrationBean<>(new ReadYourWritesFilter(replicas));
+        registration.addUrlPatterns("/api/*");
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE + 25);
+        return registration;
+    }
+
+    private static HikariDataSource pool(DataSourceProperties dataSource, String url, Binder binder) {
+        HikariDataSource pool = dataSource.initializeDataSourceBuilder().type(HikariDataSource.class).url(url).build();
+        binder.bind("spring.datasource.hikari", Bindable.ofInstance(pool));
+        return pool;
+    }
+
+    private static DataSource unpooled(DataSourceProperties dataSource, String url) {
+        return DataSourceBuilder.create()
+                .type(SimpleDriverDataSource.class)
+                .driverClassName(dataSource.determineDriverClassName())
+                .url(url)
+                .username(dataSource.determineUsername())
+                .password(dataSource.determinePassword())
+                .build();
+    }
+
+    public record Pools(HikariDataSource primary, List<HikariDataSource> replicas) implements AutoCloseable {
+
+        @Override
+        public void close() {
+            replicas.forEach(HikariDataSource::close);
+            primary.close();
+        }
+    }
+}
@@ -1,14 +1,26 @@
 package com.org.booklibrary.controller;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.org.booklibrary.catalog.CatalogVersion;
+import com.org.booklibrary.dto.BookView;
+import com.org.booklibrary.dto.KeysetPage;
 import com.org.booklibrary.entity.Book;
 import com.org.booklibrary.entity.BorrowingRecord;
 import com.org.booklibrary.service.BookService;
+import com.org.booklibrary.service.BorrowCommandPipeline;
 import io.swagger.v3.oas.annotations.Operation;
 import jakarta.validation.Valid;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
+import org.springframework.web.util.UriComponentsBuilder;
 
 import java.util.List;
 
@@ -20,36 +32,127 @@ import java.util.List;
 @RequestMapping("/api/v1/books")
 public class BookController {
 
+    static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+
     private final BookService bookService;
+    private final CatalogVersion catalogVersion;
+    private final ObjectMapper objectMapper;
+    private final BorrowCommandPipeline borrowPipeline;
 
     @Autowired
-    public BookController(BookService bookService) {
+    public BookController(BookService bookService, CatalogVersion catalogVersion, ObjectMapper objectMapper,
+                          ObjectProvider<BorrowCommandPipeline> borrowPipeline) {
         this.bookService = bookService;
+        this.catalogVersion = catalogVersion;
+        this.objectMapper = objectMapper;
+        this.borrowPipeline = borrowPipeline.getIfAvailable();
     }
 
     @GetMapping
     @Operation(summary = "Get all books or search books",
-            description = "Retrieves a list of all books or searches for books by title, author, or ISBN.")
-    public ResponseEntity<List<Book>> getBooks(
+            description = "Retrieves a list of all books or searches for books by title, author, and/or ISBN. Criteria are combined. "
+                    + "Passing afterId and/or limit returns one keyset page ordered by id; the cursor for the next page "
+                    + "is returned in the X-Next-Cursor header and a Link header. Responses carry a catalog-wide ETag and "
+                    + "Last-Modified; a matching If-None-Match or If-Modified-Since is answered with 304.")
+    public ResponseEntity<List<BookView>> getBooks(
             @RequestParam(required = false) String title,
             @RequestParam(required = false) String author,
-            @RequestParam(required = false) String isbn) {
+            @RequestParam(required = false) String isbn,
+            @RequestParam(required = false) Long afterId,
+            @RequestParam(required = false) Integer limit,
+            WebRequest request) {
 
+        // Taken before the query: a change in between only costs the client one more fetch.
+        String etag = catalogVersion.etag();
+        long lastModified = catalogVersion.lastModified();
+        if (request.checkNotModified(etag, lastModified)) {
+            return null;
+        }
+        return revalidated(listBooks(title, author, isbn, afterId, limit), etag, lastModified);
+    }
+
+    private ResponseEntity<List<BookView>> listBooks(String title, String author, String isbn, Long afterId, Integer limit) {
         if (title != null || author != null || isbn != null) {
-            List<Book> books = bookService.searchBooks(title, author, isbn);
+            List<BookView> books = bookService.searchBooks(title, author, isbn);
             return ResponseEntity.ok(books);
+        } else if (afterId != null || limit != null) {
+            return keysetResponse(bookService.getBooksPage(afterId, limit));
         } else {
-            List<Book> books = bookService.getAllBooks();
+            List<BookView> books = bookService.getAllBooks();
             return ResponseEntity.ok(books);
         }
     }
 
+    /**
+     * Adds the validators to the response and asks clients to revalidate before reusing it.
+     * Without a {@code lastModified} (-1) only the ETag is sent.
+     */
+    private static <T> ResponseEntity<T> revalidated(ResponseEntity<T> response, String etag, long lastModified) {
+        ResponseEntity.BodyBuilder builder = ResponseEntity.status(response.getStatusCode())
+                .headers(response.getHeaders())
+                .eTag(etag)
+                .cacheControl(CacheControl.noCache());
+        if (lastModified >= 0) {
+            builder.lastModified(lastModified);
+        }
+        return builder.body(response.getBody());
+    }
+
+    /**
+     * Responds with the page items, and the X-Next-Cursor and Link headers pointing at the next page if there is one.
+     * The link repeats the current query with {@code afterId} and {@code limit} replaced.
+     */
+    static <T> ResponseEntity<List<T>> keysetResponse(KeysetPage<T> page) {
+        return keysetResponse(page, ServletUriComponentsBuilder.fromCurrentRequest());
+    }
+
+    /**
+     * As {@link #keysetResponse(KeysetPage)} for callers that build the response off the request thread
+     * and captured the current request URI beforehand.
+     */
+    static <T> ResponseEntity<List<T>> keysetResponse(KeysetPage<T> page, UriComponentsBuilder currentRequest) {
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (page.nextCursor() != null) {
+            String next = currentRequest
+                    .replaceQueryParam("afterId", page.nextCursor())
+                    .replaceQueryParam("limit", page.items().size())
+                    .toUriString();
+            response.header(NEXT_CURSOR_HEADER, String.valueOf(page.nextCursor()))
+                    .header(HttpHeaders.LINK, "<" + next + ">; rel=\"next\"");
+        }
+        return response.body(page.items());
+    }
+
+    @GetMapping(value = "/export", produces = "application/x-ndjson")
+    @Operation(summary = "Export all books",
+            description = "Streams the whole catalog ordered by id as newline-delimited JSON, one book per line.")
+    public ResponseEntity<StreamingResponseBody> exportBooks() {
+        return NdjsonResponses.stream(objectMapper, bookService::exportBooks);
+    }
+
     @GetMapping("/{id}")
     @Operation(summary = "Get a book by ID",
-            description = "Retrieves a single book by its unique identifier.")
+            description = "Retrieves a single book by its unique identifier. The ETag is derived from the row version "
+                    + "and the available copies; a matching If-None-Match is answered with 304.")
     public ResponseEntity<Book> getBookById(@PathVariable Long id) {
+        long lastModified = catalogVersion.lastModified();
         Book book = bookService.getBookById(id);
-        return ResponseEntity.ok(book);
+        // Spring answers 304 itself when the request's validators match these headers.
+        return revalidated(ResponseEntity.ok(book), bookEtag(book), lastModified);
+    }
+
+    @GetMapping("/isbn/{isbn}")
+    @Operation(summary = "Get a book by ISBN",
+            description = "Retrieves the book with the ISBN-10 or ISBN-13, hyphens allowed. Answered from an in-memory "
+                    + "ISBN index; an invalid ISBN is rejected with 400.")
+    public ResponseEntity<Book> getBookByIsbn(@PathVariable String isbn) {
+        long lastModified = catalogVersion.lastModified();
+        Book book = bookService.getBookByIsbn(isbn);
+        return revalidated(ResponseEntity.ok(book), bookEtag(book), lastModified);
+    }
+
+    static String bookEtag(Book book) {
+        return "\"book-" + book.getId() + "-" + book.getVersion() + "-" + book.getAvailableCopies() + "\"";
     }
 
     @PostMapping
@@ -82,7 +185,9 @@ public class BookController {
     @Operation(summary = "Borrow a book",
             description = "Allows a user to borrow a specific book from the available copies.")
     public ResponseEntity<BorrowingRecord> borrowBook(@PathVariable Long bookId, @PathVariable Long userId) {
-        BorrowingRecord record = bookService.borrowBook(bookId, userId);
+        BorrowingRecord record = borrowPipeline != null
+                ? borrowPipeline.borrowBook(bookId, userId)
+                : bookService.borrowBook(bookId, userId);
         return new ResponseEntity<>(record, HttpStatus.CREATED);
     }
 
@@ -90,7 +195,9 @@ public class BookController {
     @Operation(summary = "Return a borrowed book",
             description = "Marks a borrowed book as returned using its borrowing record ID.")
     public ResponseEntity<BorrowingRecord> returnBook(@PathVariable Long recordId) {
-        BorrowingRecord updatedRecord = bookService.returnBook(recordId);
+        BorrowingRecord updatedRecord = borrowPipeline != null
+                ? borrowPipeline.returnBook(recordId)
+                : bookService.returnBook(recordId);
         return ResponseEntity.ok(updatedRecord);
     }
 }
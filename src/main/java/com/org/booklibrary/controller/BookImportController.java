@@ -0,0 +1,46 @@
+package com.org.booklibrary.controller;
+
+import com.org.booklibrary.dto.BookImportResult;
+import com.org.booklibrary.service.BookImportService;
+import io.swagger.v3.oas.annotations.Operation;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * REST Controller for bulk loading catalog feeds.
+ */
+@RestController
+@RequestMapping("/api/v1/books/import")
+public class BookImportController {
+
+    private final BookImportService bookImportService;
+
+    @Autowired
+    public BookImportController(BookImportService bookImportService) {
+        this.bookImportService = bookImportService;
+    }
+
+    @PostMapping(consumes = MediaType.APPLICATION_JSON_VALUE)
+    @Operation(summary = "Bulk import books from JSON",
+            description = "Imports a streamed JSON array of books. Invalid rows are reported and skipped without aborting the load.")
+    public ResponseEntity<BookImportResult> importJson(InputStream body) throws IOException {
+        return ResponseEntity.ok(bookImportService.importJson(body));
+    }
+
+    @PostMapping(consumes = "text/csv")
+    @Operation(summary = "Bulk import books from CSV",
+            description = "Imports CSV with a header row (title, author, isbn, publicationYear, totalCopies, availableCopies). "
+                    + "Invalid rows are reported and skipped without aborting the load.")
+    public ResponseEntity<BookImportResult> importCsv(InputStream body) throws IOException {
+        return ResponseEntity.ok(bookImportService.importCsv(new InputStreamReader(body, StandardCharsets.UTF_8)));
+    }
+}
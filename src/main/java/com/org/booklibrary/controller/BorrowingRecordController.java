@@ -0,0 +1,114 @@
+package com.org.booklibrary.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.org.booklibrary.dto.BorrowingRecordFilter;
+import com.org.booklibrary.dto.BorrowingRecordView;
+import com.org.booklibrary.dto.KeysetPage;
+import com.org.booklibrary.dto.OverdueLoan;
+import com.org.booklibrary.overdue.OverdueLoanTracker;
+import com.org.booklibrary.service.BorrowingRecordService;
+import io.swagger.v3.oas.annotations.Operation;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
+import org.springframework.web.util.UriComponentsBuilder;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * REST Controller for reading the loan history. Lists are always paged by id, and the export
+ * streams any number of records, so no request loads the whole loan table into memory.
+ */
+@RestController
+@RequestMapping("/api/v1/borrowing-records")
+public class BorrowingRecordController {
+
+    private final BorrowingRecordService borrowingRecordService;
+    private final OverdueLoanTracker overdueLoanTracker;
+    private final ObjectMapper objectMapper;
+
+    @Autowired
+    public BorrowingRecordController(BorrowingRecordService borrowingRecordService, OverdueLoanTracker overdueLoanTracker,
+                                     ObjectMapper objectMapper) {
+        this.borrowingRecordService = borrowingRecordService;
+        this.overdueLoanTracker = overdueLoanTracker;
+        this.objectMapper = objectMapper;
+    }
+
+    @GetMapping
+    @Operation(summary = "Get borrowing records",
+            description = "Returns one keyset page of borrowing records ordered by id, optionally filtered by user, book and "
+                    + "inclusive borrow/return date ranges (yyyy-MM-dd). The cursor for the next page is returned in the "
+                    + "X-Next-Cursor header and a Link header.")
+    public ResponseEntity<List<BorrowingRecordView>> getBorrowingRecords(
+            @RequestParam(required = false) Long userId,
+            @RequestParam(required = false) Long bookId,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate borrowedFrom,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate borrowedTo,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate returnedFrom,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate returnedTo,
+            @RequestParam(required = false) Long afterId,
+            @RequestParam(required = false) Integer limit) {
+
+        BorrowingRecordFilter filter = new BorrowingRecordFilter(userId, bookId, borrowedFrom, borrowedTo, returnedFrom, returnedTo);
+        return BookController.keysetResponse(borrowingRecordService.getBorrowingRecordsPage(filter, afterId, limit));
+    }
+
+    @GetMapping(value = "/export", produces = "application/x-ndjson")
+    @Operation(summary = "Export borrowing records",
+            description = "Streams every borrowing record matching the same filters as the list endpoint, ordered by id, "
+                    + "as newline-delimited JSON, one record per line.")
+    public ResponseEntity<StreamingResponseBody> exportBorrowingRecords(
+            @RequestParam(required = false) Long userId,
+            @RequestParam(required = false) Long bookId,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate borrowedFrom,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate borrowedTo,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate returnedFrom,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate returnedTo) {
+
+        BorrowingRecordFilter filter = new BorrowingRecordFilter(userId, bookId, borrowedFrom, borrowedTo, returnedFrom, returnedTo);
+        return NdjsonResponses.<BorrowingRecordView>stream(objectMapper,
+                sink -> borrowingRecordService.exportBorrowingRecords(filter, sink));
+    }
+
+    @GetMapping("/overdue")
+    @Operation(summary = "Get overdue loans",
+            description = "Returns one page of open loans past their due date, oldest first, up to limit (default 50, "
+                    + "at most 500). The next page starts after afterBorrowDate and afterId, the borrow date and record "
+                    + "id of the last loan of this page, as given in the Link header. Answered from the in-memory "
+                    + "open-loan index without querying the loan history.")
+    public ResponseEntity<List<OverdueLoan>> getOverdueLoans(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate afterBorrowDate,
+            @RequestParam(required = false) Long afterId,
+            @RequestParam(required = false) Integer limit) {
+        if ((afterBorrowDate == null) != (afterId == null)) {
+            throw new IllegalArgumentException("afterBorrowDate and afterId must be given together.");
+        }
+        int pageSize = KeysetPage.size(limit);
+        List<OverdueLoan> rows = overdueLoanTracker.overdue(LocalDate.now(), afterBorrowDate, afterId, pageSize + 1);
+        KeysetPage<OverdueLoan> page = KeysetPage.of(rows, pageSize, OverdueLoan::recordId);
+        UriComponentsBuilder next = ServletUriComponentsBuilder.fromCurrentRequest();
+        if (page.nextCursor() != null) {
+            next.replaceQueryParam("afterBorrowDate", page.items().get(page.items().size() - 1).borrowDate());
+        }
+        return BookController.keysetResponse(page, next);
+    }
+
+    @GetMapping("/users/{userId}")
+    @Operation(summary = "Get a user's loan history",
+            description = "Retrieves all borrowing records of a user ordered by id.")
+    public ResponseEntity<List<BorrowingRecordView>> getBorrowingRecordsByUser(@PathVariable Long userId) {
+        return ResponseEntity.ok(borrowingRecordService.getBorrowingRecordsByUser(userId));
+    }
+
+    @GetMapping("/books/{bookId}")
+    @Operation(summary = "Get a book's loan history",
+            description = "Retrieves all borrowing records of a book ordered by id.")
+    public ResponseEntity<List<BorrowingRecordView>> getBorrowingRecordsByBook(@PathVariable Long bookId) {
+        return ResponseEntity.ok(borrowingRecordService.getBorrowingRecordsByBook(bookId));
+    }
+}
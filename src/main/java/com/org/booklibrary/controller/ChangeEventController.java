@@ -0,0 +1,53 @@
+package com.org.booklibrary.controller;
+
+import com.org.booklibrary.dto.ChangeEvent;
+import com.org.booklibrary.dto.KeysetPage;
+import com.org.booklibrary.outbox.SseChangeEventSink;
+import com.org.booklibrary.repository.OutboxEventRepository;
+import io.swagger.v3.oas.annotations.Operation;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Limit;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.util.List;
+
+/**
+ * REST Controller for the change stream of books, loans and users.
+ */
+@RestController
+@RequestMapping("/api/v1/changes")
+public class ChangeEventController {
+
+    private final OutboxEventRepository outboxEventRepository;
+    private final SseChangeEventSink sseSink;
+
+    @Autowired
+    public ChangeEventController(OutboxEventRepository outboxEventRepository, SseChangeEventSink sseSink) {
+        this.outboxEventRepository = outboxEventRepository;
+        this.sseSink = sseSink;
+    }
+
+    @GetMapping
+    @Operation(summary = "Replay changes",
+            description = "Returns one page of relayed change events after the given sequence, in order. Events not "
+                    + "relayed yet are left out. Events are kept for the outbox retention period.")
+    public ResponseEntity<List<ChangeEvent>> getChanges(@RequestParam(required = false) Long afterId,
+                                                        @RequestParam(required = false) Integer limit) {
+        int pageSize = KeysetPage.size(limit);
+        List<ChangeEvent> rows = outboxEventRepository.findChangesAfter(afterId == null ? 0L : afterId, Limit.of(pageSize + 1));
+        return BookController.keysetResponse(KeysetPage.of(rows, pageSize, ChangeEvent::sequence));
+    }
+
+    @GetMapping(value = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @Operation(summary = "Stream changes",
+            description = "Server-sent events of every change as it is relayed from the outbox; the SSE id is the sequence.")
+    public SseEmitter streamChanges() {
+        return sseSink.subscribe();
+    }
+}
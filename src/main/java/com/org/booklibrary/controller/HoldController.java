@@ -0,0 +1,80 @@
+package com.org.booklibrary.controller;
+
+import com.org.booklibrary.dto.HoldView;
+import com.org.booklibrary.hold.HoldNotifier;
+import com.org.booklibrary.service.HoldService;
+import io.swagger.v3.oas.annotations.Operation;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.async.DeferredResult;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.util.List;
+
+/**
+ * REST Controller for book holds. A client whose borrow failed with 409 places a hold once and then waits
+ * on {@code /await} or the user's event stream until a returned copy has been lent to it.
+ */
+@RestController
+@RequestMapping("/api/v1")
+public class HoldController {
+
+    private final HoldService holdService;
+    private final HoldNotifier holdNotifier;
+
+    @Autowired
+    public HoldController(HoldService holdService, HoldNotifier holdNotifier) {
+        this.holdService = holdService;
+        this.holdNotifier = holdNotifier;
+    }
+
+    @PostMapping("/books/{bookId}/hold/{userId}")
+    @Operation(summary = "Place a hold on a book",
+            description = "Puts the user on the waitlist of the book; higher priorities are served first, equal ones in "
+                    + "order. If a copy is free the hold is fulfilled at once and recordId is the new loan. Placing a hold "
+                    + "the user already has returns that hold.")
+    public ResponseEntity<HoldView> placeHold(@PathVariable Long bookId, @PathVariable Long userId,
+                                              @RequestParam(defaultValue = "0") int priority) {
+        return new ResponseEntity<>(holdService.placeHold(bookId, userId, priority), HttpStatus.CREATED);
+    }
+
+    @GetMapping("/holds/{holdId}")
+    @Operation(summary = "Get a hold", description = "Returns the hold with its place in the waitlist while waiting.")
+    public ResponseEntity<HoldView> getHold(@PathVariable Long holdId) {
+        return ResponseEntity.ok(holdService.getHold(holdId));
+    }
+
+    @GetMapping("/holds/{holdId}/await")
+    @Operation(summary = "Wait for a hold",
+            description = "Long poll: answers as soon as the hold is fulfilled or cancelled, or after timeoutMs (at most "
+                    + "library.holds.max-await-ms) with the hold still waiting.")
+    public DeferredResult<HoldView> awaitHold(@PathVariable Long holdId,
+                                              @RequestParam(defaultValue = "30000") long timeoutMs) {
+        return holdNotifier.await(holdId, timeoutMs);
+    }
+
+    @GetMapping(value = "/holds/users/{userId}/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @Operation(summary = "Stream a user's holds",
+            description = "Server-sent events of every hold of the user as it is placed, fulfilled or cancelled; "
+                    + "the event name is the change and the SSE id the hold id.")
+    public SseEmitter streamHolds(@PathVariable Long userId) {
+        return holdNotifier.subscribe(userId);
+    }
+
+    @DeleteMapping("/holds/{holdId}")
+    @Operation(summary = "Cancel a hold", description = "Takes a waiting hold off the waitlist.")
+    public ResponseEntity<HoldView> cancelHold(@PathVariable Long holdId) {
+        return ResponseEntity.ok(holdService.cancelHold(holdId));
+    }
+
+    @GetMapping("/books/{bookId}/holds")
+    @Operation(summary = "Get the waitlist of a book",
+            description = "Returns the waiting holds of the book in the order they will be served (default 50, at most 500).")
+    public ResponseEntity<List<HoldView>> getWaitlist(@PathVariable Long bookId,
+                                                      @RequestParam(required = false) Integer limit) {
+        return ResponseEntity.ok(holdService.getWaitlist(bookId, limit));
+    }
+}
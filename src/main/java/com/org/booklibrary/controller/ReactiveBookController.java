@@ -0,0 +1,65 @@
+package com.org.booklibrary.controller;
+
+import com.org.booklibrary.dto.BookView;
+import com.org.booklibrary.service.ReactiveBookService;
+import io.swagger.v3.oas.annotations.Operation;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
+import org.springframework.web.util.UriComponentsBuilder;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+
+/**
+ * Reactive twin of the read endpoints of {@link BookController}. Handlers return {@link Mono}/{@link Flux},
+ * so the request thread goes back to the pool while R2DBC runs the query, and the NDJSON export writes
+ * each book as the client takes it.
+ */
+@RestController
+@RequestMapping("/api/v1/reactive/books")
+public class ReactiveBookController {
+
+    private final ReactiveBookService reactiveBookService;
+
+    @Autowired
+    public ReactiveBookController(ReactiveBookService reactiveBookService) {
+        this.reactiveBookService = reactiveBookService;
+    }
+
+    @GetMapping
+    @Operation(summary = "Get or search books (reactive)",
+            description = "Searches books by title, author and/or ISBN like GET /api/v1/books. Without criteria returns one "
+                    + "keyset page ordered by id (default 50, at most 500); the cursor for the next page is returned in the "
+                    + "X-Next-Cursor header and a Link header. Use /export to read the whole catalog.")
+    public Mono<ResponseEntity<List<BookView>>> getBooks(
+            @RequestParam(required = false) String title,
+            @RequestParam(required = false) String author,
+            @RequestParam(required = false) String isbn,
+            @RequestParam(required = false) Long afterId,
+            @RequestParam(required = false) Integer limit) {
+
+        if (title != null || author != null || isbn != null) {
+            return reactiveBookService.searchBooks(title, author, isbn).collectList().map(ResponseEntity::ok);
+        }
+        UriComponentsBuilder currentRequest = ServletUriComponentsBuilder.fromCurrentRequest();
+        return reactiveBookService.getBooksPage(afterId, limit)
+                .map(page -> BookController.keysetResponse(page, currentRequest));
+    }
+
+    @GetMapping(value = "/export", produces = "application/x-ndjson")
+    @Operation(summary = "Export all books (reactive)",
+            description = "Streams the whole catalog ordered by id as newline-delimited JSON, one book per line. "
+                    + "Rows are read from the database only as fast as the client consumes them.")
+    public Flux<BookView> exportBooks() {
+        return reactiveBookService.streamBooks();
+    }
+
+    @GetMapping("/{id}")
+    @Operation(summary = "Get a book by ID (reactive)", description = "Retrieves a specific book by its ID.")
+    public Mono<BookView> getBookById(@PathVariable Long id) {
+        return reactiveBookService.getBookById(id);
+    }
+}
@@ -0,0 +1,89 @@
+package com.org.booklibrary.controller;
+
+import com.org.booklibrary.dto.AuthorStats;
+import com.org.booklibrary.dto.DailyLoans;
+import com.org.booklibrary.dto.LibraryStats;
+import com.org.booklibrary.dto.LoanCount;
+import com.org.booklibrary.exception.ResourceNotFoundException;
+import com.org.booklibrary.stats.LibraryStatsTracker;
+import io.swagger.v3.oas.annotations.Operation;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+
+/**
+ * REST Controller for the availability dashboard. Every figure is read from {@link LibraryStatsTracker},
+ * so no request queries the database.
+ */
+@RestController
+@RequestMapping("/api/v1/stats")
+public class StatsController {
+
+    static final int DEFAULT_DAYS = 30;
+    static final int MAX_DAYS = 366;
+
+    private final LibraryStatsTracker statsTracker;
+
+    @Autowired
+    public StatsController(LibraryStatsTracker statsTracker) {
+        this.statsTracker = statsTracker;
+    }
+
+    @GetMapping
+    @Operation(summary = "Get library totals",
+            description = "Returns the number of books, total and available copies, and total and open loans.")
+    public ResponseEntity<LibraryStats> getStats() {
+        return ResponseEntity.ok(statsTracker.summary());
+    }
+
+    @GetMapping("/authors")
+    @Operation(summary = "Get copies per author",
+            description = "Returns the number of books and the total and available copies of every author, ordered by author.")
+    public ResponseEntity<List<AuthorStats>> getAuthorStats() {
+        return ResponseEntity.ok(statsTracker.authors());
+    }
+
+    @GetMapping("/authors/{author}")
+    @Operation(summary = "Get copies of one author",
+            description = "Returns the number of books and the total and available copies of the author, matched exactly.")
+    public ResponseEntity<AuthorStats> getAuthorStats(@PathVariable String author) {
+        return ResponseEntity.ok(statsTracker.author(author)
+                .orElseThrow(() -> new ResourceNotFoundException("No books found for author: " + author)));
+    }
+
+    @GetMapping("/loans/daily")
+    @Operation(summary = "Get loans per day",
+            description = "Returns the number of loans opened on each day of the inclusive range (yyyy-MM-dd), at most "
+                    + MAX_DAYS + " days. Defaults to the last " + DEFAULT_DAYS + " days up to today.")
+    public ResponseEntity<List<DailyLoans>> getDailyLoans(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+
+        LocalDate end = to != null ? to : LocalDate.now();
+        LocalDate start = from != null ? from : end.minusDays(DEFAULT_DAYS - 1);
+        if (start.isAfter(end)) {
+            throw new IllegalArgumentException("from must not be after to.");
+        }
+        if (ChronoUnit.DAYS.between(start, end) >= MAX_DAYS) {
+            throw new IllegalArgumentException("The range must not exceed " + MAX_DAYS + " days.");
+        }
+        return ResponseEntity.ok(statsTracker.loansPerDay(start, end));
+    }
+
+    @GetMapping("/loans/books/{bookId}")
+    @Operation(summary = "Get loans of a book", description = "Returns the number of loans ever opened for the book.")
+    public ResponseEntity<LoanCount> getBookLoans(@PathVariable Long bookId) {
+        return ResponseEntity.ok(statsTracker.loansForBook(bookId));
+    }
+
+    @GetMapping("/loans/users/{userId}")
+    @Operation(summary = "Get loans of a user", description = "Returns the number of loans ever opened by the user.")
+    public ResponseEntity<LoanCount> getUserLoans(@PathVariable Long userId) {
+        return ResponseEntity.ok(statsTracker.loansForUser(userId));
+    }
+}
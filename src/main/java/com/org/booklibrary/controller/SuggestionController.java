@@ -0,0 +1,47 @@
+package com.org.booklibrary.controller;
+
+import com.org.booklibrary.dto.KeysetPage;
+import com.org.booklibrary.dto.Suggestion;
+import com.org.booklibrary.search.SuggestionIndex;
+import io.swagger.v3.oas.annotations.Operation;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+/**
+ * REST Controller for search-box autocomplete. Answered from {@link SuggestionIndex} without a query.
+ */
+@RestController
+@RequestMapping("/api/v1/books/suggest")
+public class SuggestionController {
+
+    static final int DEFAULT_LIMIT = 10;
+    static final int MAX_LIMIT = 50;
+
+    private final SuggestionIndex suggestionIndex;
+
+    @Autowired
+    public SuggestionController(SuggestionIndex suggestionIndex) {
+        this.suggestionIndex = suggestionIndex;
+    }
+
+    @GetMapping
+    @Operation(summary = "Suggest titles and authors",
+            description = "Returns the titles and authors starting with the prefix, ignoring case, most borrowed first "
+                    + "(default " + DEFAULT_LIMIT + ", at most " + MAX_LIMIT + "). type=TITLE or type=AUTHOR restricts "
+                    + "the suggestions to one kind.")
+    public ResponseEntity<List<Suggestion>> suggest(@RequestParam(required = false) String prefix,
+                                                    @RequestParam(required = false) Suggestion.Type type,
+                                                    @RequestParam(required = false) Integer limit) {
+        if (prefix == null || prefix.isBlank()) {
+            throw new IllegalArgumentException("prefix must not be blank.");
+        }
+        int size = KeysetPage.size(limit, DEFAULT_LIMIT, MAX_LIMIT);
+        return ResponseEntity.ok(suggestionIndex.suggest(prefix.stripLeading(), type, size));
+    }
+}
@@ -0,0 +1,7 @@
+package com.org.booklibrary.dto;
+
+/**
+ * Number of books and copies of one author; {@code author} is the exact value stored on the books.
+ */
+public record AuthorStats(String author, long books, long totalCopies, long availableCopies) {
+}
@@ -0,0 +1,18 @@
+package com.org.booklibrary.dto;
+
+import java.util.List;
+
+/**
+ * Outcome of a bulk book import. Only the first {@code MAX_REPORTED_ERRORS} failed rows are listed,
+ * {@code failed} always counts all of them.
+ */
+public record BookImportResult(long received, long imported, long failed, List<RowError> errors) {
+
+    public static final int MAX_REPORTED_ERRORS = 1000;
+
+    /**
+     * @param row the 1-based position of the row in the uploaded array or CSV body (header excluded).
+     */
+    public record RowError(long row, List<String> messages) {
+    }
+}
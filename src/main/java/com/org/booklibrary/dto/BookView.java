@@ -0,0 +1,21 @@
+package com.org.booklibrary.dto;
+
+import com.org.booklibrary.entity.Book;
+
+/**
+ * Read-only view of a book for list responses. Built by JPQL constructor expressions, so listing
+ * books reads only these columns and never puts managed {@link Book} entities in the persistence context.
+ * Serializes to the same JSON as {@link Book}.
+ */
+public record BookView(Long id, String title, String author, String isbn, Integer publicationYear,
+                       Integer totalCopies, Integer availableCopies, Long version) {
+
+    public static BookView of(Book book) {
+        return new BookView(book.getId(), book.getTitle(), book.getAuthor(), book.getIsbn(), book.getPublicationYear(),
+                book.getTotalCopies(), book.getAvailableCopies(), book.getVersion());
+    }
+
+    public BookView withAvailableCopies(Integer availableCopies) {
+        return new BookView(id, title, author, isbn, publicationYear, totalCopies, availableCopies, version);
+    }
+}
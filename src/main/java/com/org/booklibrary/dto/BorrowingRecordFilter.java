@@ -0,0 +1,23 @@
+package com.org.booklibrary.dto;
+
+import java.time.LocalDate;
+
+/**
+ * Optional criteria for loan history queries. Every {@code null} component matches all records;
+ * date ranges are inclusive on both ends and a return-date range only matches returned loans.
+ */
+public record BorrowingRecordFilter(Long userId, Long bookId,
+                                    LocalDate borrowedFrom, LocalDate borrowedTo,
+                                    LocalDate returnedFrom, LocalDate returnedTo) {
+
+    public static final BorrowingRecordFilter NONE = new BorrowingRecordFilter(null, null, null, null, null, null);
+
+    public BorrowingRecordFilter {
+        if (borrowedFrom != null && borrowedTo != null && borrowedFrom.isAfter(borrowedTo)) {
+            throw new IllegalArgumentException("borrowedFrom must not be after borrowedTo.");
+        }
+        if (returnedFrom != null && returnedTo != null && returnedFrom.isAfter(returnedTo)) {
+            throw new IllegalArgumentException("returnedFrom must not be after returnedTo.");
+        }
+    }
+}
@@ -0,0 +1,11 @@
+package com.org.booklibrary.dto;
+
+import java.time.LocalDate;
+
+/**
+ * Flat read-only view of a borrowing record for list responses: the book and user are reduced to
+ * their id and display name, read through a join instead of loading both entities per record.
+ */
+public record BorrowingRecordView(Long id, Long bookId, String bookTitle, Long userId, String username,
+                                  LocalDate borrowDate, LocalDate returnDate) {
+}
@@ -0,0 +1,15 @@
+package com.org.booklibrary.dto;
+
+import com.fasterxml.jackson.annotation.JsonRawValue;
+
+import java.time.Instant;
+
+/**
+ * One entry of the change stream. {@code sequence} is given by the relay when it first delivers the event, so it
+ * follows delivery order and is the cursor for replaying: no event gets a sequence below one already handed out.
+ * {@code payload} is the JSON state written with the change (the book, the loan keys or the user).
+ * Delivery is at least once, so consumers should skip sequences they have already applied.
+ */
+public record ChangeEvent(Long sequence, String aggregateType, Long aggregateId, String type, Instant occurredAt,
+                          @JsonRawValue String payload) {
+}
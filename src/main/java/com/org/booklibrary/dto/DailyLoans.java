@@ -0,0 +1,9 @@
+package com.org.booklibrary.dto;
+
+import java.time.LocalDate;
+
+/**
+ * Number of loans opened on one day.
+ */
+public record DailyLoans(LocalDate day, long loans) {
+}
@@ -0,0 +1,26 @@
+package com.org.booklibrary.dto;
+
+import com.org.booklibrary.entity.Hold;
+
+import java.time.Instant;
+
+/**
+ * Read-only view of a hold. {@code position} is the 1-based place in the book's waitlist while the hold
+ * is waiting and {@code null} otherwise; {@code recordId} is the loan a fulfilled hold was turned into.
+ */
+public record HoldView(Long id, Long bookId, Long userId, int priority, Hold.Status status, Instant placedAt,
+                       Instant closedAt, Long recordId, Long position) {
+
+    public HoldView(Long id, Long bookId, Long userId, int priority, Hold.Status status, Instant placedAt,
+                    Instant closedAt, Long recordId) {
+        this(id, bookId, userId, priority, status, placedAt, closedAt, recordId, null);
+    }
+
+    public boolean waiting() {
+        return status == Hold.Status.WAITING;
+    }
+
+    public HoldView withPosition(Long position) {
+        return new HoldView(id, bookId, userId, priority, status, placedAt, closedAt, recordId, position);
+    }
+}
@@ -0,0 +1,40 @@
+package com.org.booklibrary.dto;
+
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * One page of a keyset (cursor) scan ordered by id.
+ * {@code nextCursor} is the id to pass as {@code afterId} for the next page, or {@code null} on the last page.
+ */
+public record KeysetPage<T>(List<T> items, Long nextCursor) {
+
+    public static final int DEFAULT_SIZE = 50;
+    public static final int MAX_SIZE = 500;
+
+    /**
+     * The page size for a requested {@code limit}: {@link #DEFAULT_SIZE} when it is missing or not positive,
+     * and at most {@link #MAX_SIZE}.
+     */
+    public static int size(Integer limit) {
+        return size(limit, DEFAULT_SIZE, MAX_SIZE);
+    }
+
+    public static int size(Integer limit, int defaultSize, int maxSize) {
+        if (limit == null || limit <= 0) {
+            return defaultSize;
+        }
+        return Math.min(limit, maxSize);
+    }
+
+    /**
+     * Builds the page from a query limited to {@code pageSize + 1} rows; the extra row only tells that another page exists.
+     */
+    public static <T> KeysetPage<T> of(List<T> rows, int pageSize, Function<T, Long> idOf) {
+        if (rows.size() <= pageSize) {
+            return new KeysetPage<>(rows, null);
+        }
+        List<T> items = rows.subList(0, pageSize);
+        return new KeysetPage<>(items, idOf.apply(items.get(pageSize - 1)));
+    }
+}
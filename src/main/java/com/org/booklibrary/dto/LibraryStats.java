@@ -0,0 +1,11 @@
+package com.org.booklibrary.dto;
+
+import java.time.Instant;
+
+/**
+ * Catalog and loan totals. {@code reconciledAt} is when the figures were last recomputed from the database;
+ * changes since then are applied incrementally.
+ */
+public record LibraryStats(long books, long totalCopies, long availableCopies, long loans, long openLoans,
+                           Instant reconciledAt) {
+}
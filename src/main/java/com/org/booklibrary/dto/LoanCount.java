@@ -0,0 +1,7 @@
+package com.org.booklibrary.dto;
+
+/**
+ * Number of loans ever opened for one book or by one user, {@code id} being the book or user id.
+ */
+public record LoanCount(Long id, long loans) {
+}
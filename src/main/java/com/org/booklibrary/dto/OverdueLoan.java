@@ -0,0 +1,9 @@
+package com.org.booklibrary.dto;
+
+import java.time.LocalDate;
+
+/**
+ * An open loan past its due date, {@code dueDate} being the borrow date plus the loan period.
+ */
+public record OverdueLoan(Long recordId, Long bookId, Long userId, LocalDate borrowDate, LocalDate dueDate) {
+}
@@ -0,0 +1,13 @@
+package com.org.booklibrary.dto;
+
+/**
+ * One autocomplete entry: a book title (with its {@code bookId}) or an author (with all their books' loans).
+ * {@code loans} is the number of loans ever opened, by which suggestions are ranked.
+ */
+public record Suggestion(Type type, String text, Long bookId, long loans) {
+
+    public enum Type {
+        TITLE,
+        AUTHOR
+    }
+}
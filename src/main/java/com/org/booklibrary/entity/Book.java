@@ -1,9 +1,17 @@
 package com.org.booklibrary.entity;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.org.booklibrary.isbn.Isbn;
+import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.PrePersist;
+import jakarta.persistence.SequenceGenerator;
+import jakarta.persistence.Table;
+import jakarta.persistence.UniqueConstraint;
+import jakarta.persistence.Version;
 import jakarta.validation.constraints.Min;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
@@ -15,11 +23,13 @@ import lombok.NoArgsConstructor;
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
-@Builder
+@Builder(toBuilder = true)
 @Entity
+@Table(uniqueConstraints = @UniqueConstraint(name = "uk_book_isbn_key", columnNames = "isbn_key"))
 public class Book {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "book_seq")
+    @SequenceGenerator(name = "book_seq", sequenceName = "book_seq", allocationSize = 50)
     private Long id;
 
     @NotBlank(message = "Title is mandatory")
@@ -43,6 +53,16 @@ public class Book {
     @Min(value = 0, message = "Available copies cannot be negative")
     private Integer availableCopies;
 
+    @Version
+    private Long version;
+
+    /**
+     * The ISBN as a number, see {@link Isbn}. Its unique index makes an ISBN identify one book.
+     */
+    @JsonIgnore
+    @Column(name = "isbn_key")
+    private Long isbnKey;
+
     public Book(String s, String author, String s1, int i, int i1, int i2) {
         this.title=s;
         this.author=author;
@@ -51,4 +71,20 @@ public class Book {
         this.totalCopies=i1;
         this.availableCopies=i2;
     }
+
+    /**
+     * Stores a valid ISBN as its ISBN-13 digits with the matching key. {@code BookService} rejects invalid ISBNs
+     * and sets both itself when it changes the ISBN of a stored book; rows written before ISBNs were validated
+     * keep their text and have no key.
+     */
+    @PrePersist
+    void normalizeIsbn() {
+        long key = Isbn.tryParse(isbn);
+        if (key < 0) {
+            isbnKey = null;
+        } else {
+            isbnKey = key;
+            isbn = Isbn.format(key);
+        }
+    }
 }
@@ -1,11 +1,14 @@
 package com.org.booklibrary.entity;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.NotNull;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
+import lombok.EqualsAndHashCode;
 import lombok.NoArgsConstructor;
+import lombok.ToString;
 
 import java.time.LocalDate;
 
@@ -14,18 +17,37 @@ import java.time.LocalDate;
 @AllArgsConstructor
 @Builder
 @Entity
+@NamedEntityGraph(name = BorrowingRecord.WITH_BOOK_AND_USER,
+        attributeNodes = {@NamedAttributeNode("book"), @NamedAttributeNode("user")})
+@Table(name = "borrowing_record",
+        indexes = {
+                @Index(name = "idx_borrowing_record_user_book_return", columnList = "user_id, book_id, return_date"),
+                @Index(name = "idx_borrowing_record_book", columnList = "book_id")
+        },
+        uniqueConstraints = @UniqueConstraint(name = "uk_borrowing_record_open_loan", columnNames = "open_loan_key"))
 public class BorrowingRecord {
+
+    /**
+     * Fetch plan that joins the book and user into the record query. The associations are lazy by default,
+     * so repository methods whose callers read them declare this graph instead of paying one select per row.
+     */
+    public static final String WITH_BOOK_AND_USER = "BorrowingRecord.withBookAndUser";
+
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "book_id", nullable = false)
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
     @NotNull(message = "Book is mandatory for borrowing record")
     private Book book;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "user_id", nullable = false)
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
     @NotNull(message = "User is mandatory for borrowing record")
     private User user;
 
@@ -34,10 +56,29 @@ public class BorrowingRecord {
 
     private LocalDate returnDate;
 
+    /**
+     * "userId:bookId" while the loan is open, {@code null} once returned. The unique index on this column
+     * only holds open loans (NULLs are not indexed as duplicates), standing in for a partial index
+     * {@code WHERE return_date IS NULL}: it answers the duplicate-borrow check and enforces it in the database.
+     */
+    @JsonIgnore
+    @Column(name = "open_loan_key", length = 41)
+    private String openLoanKey;
+
     public BorrowingRecord(Book book, User user, LocalDate borrowDate) {
         this.book = book;
         this.user = user;
         this.borrowDate = borrowDate;
     }
 
+    public static String openLoanKey(Long userId, Long bookId) {
+        return userId + ":" + bookId;
+    }
+
+    @PrePersist
+    @PreUpdate
+    void syncOpenLoanKey() {
+        openLoanKey = returnDate == null ? openLoanKey(user.getId(), book.getId()) : null;
+    }
+
 }
@@ -0,0 +1,81 @@
+package com.org.booklibrary.entity;
+
+import jakarta.persistence.*;
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.NoArgsConstructor;
+import lombok.ToString;
+import org.hibernate.annotations.JdbcTypeCode;
+import org.hibernate.type.SqlTypes;
+
+import java.time.Instant;
+
+/**
+ * A user's place in the waitlist of a book. Waiting holds are served by descending priority, then in the
+ * order they were placed (id); a fulfilled hold points at the loan it was turned into.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@Entity
+@Table(name = "book_hold",
+        indexes = @Index(name = "idx_book_hold_queue", columnList = "book_id, status, priority, id"),
+        uniqueConstraints = @UniqueConstraint(name = "uk_book_hold_waiting", columnNames = "waiting_key"))
+public class Hold {
+
+    public enum Status {
+        WAITING,
+        FULFILLED,
+        CANCELLED
+    }
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "book_id", nullable = false)
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
+    @NotNull(message = "Book is mandatory for a hold")
+    private Book book;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "user_id", nullable = false)
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
+    @NotNull(message = "User is mandatory for a hold")
+    private User user;
+
+    @Column(nullable = false)
+    private int priority;
+
+    @Enumerated(EnumType.STRING)
+    @JdbcTypeCode(SqlTypes.VARCHAR)
+    @Column(nullable = false, length = 16)
+    private Status status;
+
+    @Column(name = "placed_at", nullable = false)
+    private Instant placedAt;
+
+    @Column(name = "closed_at")
+    private Instant closedAt;
+
+    @Column(name = "borrowing_record_id")
+    private Long borrowingRecordId;
+
+    /**
+     * "userId:bookId" while the hold is waiting, {@code null} once closed. Like
+     * {@link BorrowingRecord#getOpenLoanKey()}, the unique index allows one waiting hold per user and book.
+     */
+    @Column(name = "waiting_key", length = 41)
+    private String waitingKey;
+
+    public static String waitingKey(Long userId, Long bookId) {
+        return userId + ":" + bookId;
+    }
+}
@@ -0,0 +1,41 @@
+package com.org.booklibrary.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+/**
+ * A completed response stored under its {@code Idempotency-Key}, so a retry can be answered
+ * from the table after a restart or once the in-memory entry was evicted.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@Entity
+@Table(name = "idempotency_key", indexes = @Index(name = "idx_idempotency_key_created_at", columnList = "created_at"))
+public class IdempotencyRecord {
+
+    @Id
+    @Column(name = "idempotency_key", length = 255)
+    private String key;
+
+    @Column(nullable = false, length = 512)
+    private String fingerprint;
+
+    @Column(nullable = false)
+    private int status;
+
+    @Column(name = "content_type")
+    private String contentType;
+
+    @Column(length = 65536)
+    private byte[] body;
+
+    @Column(name = "created_at", nullable = false)
+    private Instant createdAt;
+}
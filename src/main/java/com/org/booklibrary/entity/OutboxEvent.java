@@ -0,0 +1,53 @@
+package com.org.booklibrary.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+/**
+ * A change written in the same transaction as the change itself (transactional outbox).
+ * Ids come from a pooled sequence so the rows of a bulk import are inserted in JDBC batches, which also means
+ * they are not in commit order. {@code deliverySequence} is the place the relay gave the event in the change stream
+ * when it first handed it to the sinks; {@code publishedAt} is set once all sinks took it.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@Entity
+@Table(name = "outbox_event", indexes = {
+        @Index(name = "idx_outbox_event_published", columnList = "published_at, id"),
+        @Index(name = "idx_outbox_event_delivery", columnList = "delivery_sequence", unique = true)
+})
+public class OutboxEvent {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "outbox_event_seq")
+    @SequenceGenerator(name = "outbox_event_seq", sequenceName = "outbox_event_seq", allocationSize = 50)
+    private Long id;
+
+    @Column(name = "aggregate_type", nullable = false, length = 32)
+    private String aggregateType;
+
+    @Column(name = "aggregate_id", nullable = false)
+    private Long aggregateId;
+
+    @Column(name = "event_type", nullable = false, length = 32)
+    private String eventType;
+
+    @Column(nullable = false, length = 8192)
+    private String payload;
+
+    @Column(name = "occurred_at", nullable = false)
+    private Instant occurredAt;
+
+    @Column(name = "published_at")
+    private Instant publishedAt;
+
+    @Column(name = "delivery_sequence")
+    private Long deliverySequence;
+}
@@ -0,0 +1,26 @@
+package com.org.booklibrary.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * The last delivery sequence given to an {@link OutboxEvent}. A single row, which the relay locks while it numbers
+ * a batch, so relays sharing a database number their batches one after another and in commit order.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Entity
+@Table(name = "outbox_sequence")
+public class OutboxSequence {
+
+    public static final long ID = 1L;
+
+    @Id
+    private Long id;
+
+    @Column(name = "last_sequence", nullable = false)
+    private Long lastSequence;
+}
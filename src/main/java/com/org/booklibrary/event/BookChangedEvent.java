@@ -0,0 +1,28 @@
+package com.org.booklibrary.event;
+
+import com.org.booklibrary.entity.Book;
+
+/**
+ * Published by {@link com.org.booklibrary.service.BookService} whenever a book row is written.
+ * The {@code book} is the saved state and is {@code null} for {@link Type#DELETED}.
+ */
+public record BookChangedEvent(Type type, Long bookId, Book book) {
+
+    public enum Type {
+        ADDED,
+        UPDATED,
+        DELETED
+    }
+
+    public static BookChangedEvent added(Book book) {
+        return new BookChangedEvent(Type.ADDED, book.getId(), book);
+    }
+
+    public static BookChangedEvent updated(Book book) {
+        return new BookChangedEvent(Type.UPDATED, book.getId(), book);
+    }
+
+    public static BookChangedEvent deleted(Long bookId) {
+        return new BookChangedEvent(Type.DELETED, bookId, null);
+    }
+}
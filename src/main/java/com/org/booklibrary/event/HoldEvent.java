@@ -0,0 +1,28 @@
+package com.org.booklibrary.event;
+
+import com.org.booklibrary.dto.HoldView;
+
+/**
+ * Published by {@link com.org.booklibrary.service.HoldService} when a hold is placed or closed.
+ * {@code recordId} is the loan opened for a {@link Type#FULFILLED} hold and {@code null} otherwise.
+ */
+public record HoldEvent(Type type, Long holdId, Long bookId, Long userId, Long recordId) {
+
+    public enum Type {
+        PLACED,
+        FULFILLED,
+        CANCELLED
+    }
+
+    public static HoldEvent placed(HoldView hold) {
+        return new HoldEvent(Type.PLACED, hold.id(), hold.bookId(), hold.userId(), null);
+    }
+
+    public static HoldEvent fulfilled(HoldView hold, Long recordId) {
+        return new HoldEvent(Type.FULFILLED, hold.id(), hold.bookId(), hold.userId(), recordId);
+    }
+
+    public static HoldEvent cancelled(HoldView hold) {
+        return new HoldEvent(Type.CANCELLED, hold.id(), hold.bookId(), hold.userId(), null);
+    }
+}
@@ -0,0 +1,29 @@
+package com.org.booklibrary.event;
+
+import com.org.booklibrary.entity.BorrowingRecord;
+
+import java.time.LocalDate;
+
+/**
+ * Published by {@link com.org.booklibrary.service.BookService} when a loan is opened or closed.
+ * Carries the keys and borrow date only, so listeners never touch the record's lazy associations.
+ */
+public record LoanEvent(Type type, Long recordId, Long bookId, Long userId, LocalDate borrowDate) {
+
+    public enum Type {
+        BORROWED,
+        RETURNED
+    }
+
+    public static LoanEvent borrowed(BorrowingRecord record) {
+        return of(Type.BORROWED, record);
+    }
+
+    public static LoanEvent returned(BorrowingRecord record) {
+        return of(Type.RETURNED, record);
+    }
+
+    private static LoanEvent of(Type type, BorrowingRecord record) {
+        return new LoanEvent(type, record.getId(), record.getBook().getId(), record.getUser().getId(), record.getBorrowDate());
+    }
+}
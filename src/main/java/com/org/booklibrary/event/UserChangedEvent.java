@@ -0,0 +1,17 @@
+package com.org.booklibrary.event;
+
+import com.org.booklibrary.entity.User;
+
+/**
+ * Published by {@link com.org.booklibrary.service.UserService} when a user row is written.
+ */
+public record UserChangedEvent(Type type, Long userId, User user) {
+
+    public enum Type {
+        ADDED
+    }
+
+    public static UserChangedEvent added(User user) {
+        return new UserChangedEvent(Type.ADDED, user.getId(), user);
+    }
+}
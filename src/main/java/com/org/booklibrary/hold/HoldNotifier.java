@@ -0,0 +1,148 @@
+package com.org.booklibrary.hold;
+
+import com.org.booklibrary.dto.HoldView;
+import com.org.booklibrary.event.HoldEvent;
+import com.org.booklibrary.service.HoldService;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.context.request.async.DeferredResult;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+
+/**
+ * Tells holders when their hold is fulfilled or cancelled, so they wait on one open request instead of
+ * retrying the borrow. A long poll completes as soon as the hold closes, or with the hold still waiting when
+ * it times out; a user's event stream gets every change of the user's holds. Neither costs a query while waiting.
+ * <p>
+ * The notifications are written by one {@code hold-notifier} thread, in the order of the events, so a slow
+ * subscriber never holds up the thread that committed the change.
+ */
+@Slf4j
+@Component
+public class HoldNotifier {
+
+    private final HoldService holdService;
+    private final long maxAwaitMillis;
+    private final long sseTimeoutMillis;
+
+    private final Map<Long, List<DeferredResult<HoldView>>> waiters = new ConcurrentHashMap<>();
+    private final Map<Long, List<SseEmitter>> streams = new ConcurrentHashMap<>();
+    private final ExecutorService sender = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "hold-notifier");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    @Autowired
+    public HoldNotifier(HoldService holdService,
+                        @Value("${library.holds.max-await-ms:60000}") long maxAwaitMillis,
+                        @Value("${library.holds.sse-timeout-ms:600000}") long sseTimeoutMillis) {
+        this.holdService = holdService;
+        this.maxAwaitMillis = maxAwaitMillis;
+        this.sseTimeoutMillis = sseTimeoutMillis;
+    }
+
+    /**
+     * Completes when the hold is no longer waiting, or after {@code timeoutMillis} (capped) with its current state.
+     */
+    public DeferredResult<HoldView> await(Long holdId, long timeoutMillis) {
+        HoldView current = holdService.getHold(holdId);
+        long timeout = Math.max(1, Math.min(timeoutMillis, maxAwaitMillis));
+        DeferredResult<HoldView> result = new DeferredResult<>(timeout, () -> holdService.getHold(holdId));
+        if (!current.waiting()) {
+            result.setResult(current);
+            return result;
+        }
+        add(waiters, holdId, result);
+        result.onCompletion(() -> remove(waiters, holdId, result));
+        // The hold may have closed between the first read and the registration
+        HoldView registered = holdService.getHold(holdId);
+        if (!registered.waiting()) {
+            result.setResult(registered);
+        }
+        return result;
+    }
+
+    public SseEmitter subscribe(Long userId) {
+        SseEmitter emitter = new SseEmitter(sseTimeoutMillis);
+        add(streams, userId, emitter);
+        emitter.onCompletion(() -> remove(streams, userId, emitter));
+        emitter.onTimeout(() -> remove(streams, userId, emitter));
+        emitter.onError(e -> remove(streams, userId, emitter));
+        return emitter;
+    }
+
+    public int waiting() {
+        return waiters.values().stream().mapToInt(List::size).sum();
+    }
+
+    @PreDestroy
+    public void stop() {
+        sender.shutdown();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onHoldEvent(HoldEvent event) {
+        boolean closed = event.type() != HoldEvent.Type.PLACED;
+        List<DeferredResult<HoldView>> forHold = closed ? waiters.remove(event.holdId()) : null;
+        List<SseEmitter> forUser = streams.get(event.userId());
+        if (forHold == null && (forUser == null || forUser.isEmpty())) {
+            return;
+        }
+        // Read here, on the thread that made the change and sees it
+        HoldView hold = holdService.getHold(event.holdId());
+        try {
+            sender.execute(() -> notify(event, hold, forHold, forUser));
+        } catch (RejectedExecutionException e) {
+            log.debug("Hold notifier stopped, not sending the change of hold ID: {}", event.holdId());
+        }
+    }
+
+    private void notify(HoldEvent event, HoldView hold, List<DeferredResult<HoldView>> forHold, List<SseEmitter> forUser) {
+        if (forHold != null) {
+            forHold.forEach(result -> result.setResult(hold));
+        }
+        if (forUser != null) {
+            for (SseEmitter emitter : forUser) {
+                try {
+                    emitter.send(SseEmitter.event()
+                            .id(String.valueOf(hold.id()))
+                            .name(event.type().name())
+                            .data(hold, MediaType.APPLICATION_JSON));
+                } catch (IOException | IllegalStateException e) {
+                    log.debug("Dropping hold stream subscriber of user (ID: {}): {}", event.userId(), e.getMessage());
+                    remove(streams, event.userId(), emitter);
+                    emitter.completeWithError(e);
+                }
+            }
+        }
+    }
+
+    private static <T> void add(Map<Long, List<T>> registry, Long key, T value) {
+        registry.compute(key, (k, list) -> {
+            List<T> values = list != null ? list : new CopyOnWriteArrayList<>();
+            values.add(value);
+            return values;
+        });
+    }
+
+    private static <T> void remove(Map<Long, List<T>> registry, Long key, T value) {
+        registry.computeIfPresent(key, (k, list) -> {
+            list.remove(value);
+            return list.isEmpty() ? null : list;
+        });
+    }
+}
@@ -0,0 +1,110 @@
+package com.org.booklibrary.idempotency;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.org.booklibrary.exception.GlobalExceptionHandler;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.util.AntPathMatcher;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.ContentCachingResponseWrapper;
+
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * Answers a retried POST that carries an {@code Idempotency-Key} header with the response of the first
+ * attempt, without running it again. Only requests matching the configured path patterns take part.
+ * <ul>
+ *     <li>the same key on a different method or path is rejected with 422</li>
+ *     <li>a retry while the first attempt is still running is rejected with 409</li>
+ *     <li>5xx responses are not kept, so the key can be retried</li>
+ * </ul>
+ * Replayed responses carry {@code Idempotent-Replayed: true}.
+ */
+public class IdempotencyFilter extends OncePerRequestFilter {
+
+    public static final String KEY_HEADER = "Idempotency-Key";
+    public static final String REPLAYED_HEADER = "Idempotent-Replayed";
+    private static final int MAX_KEY_LENGTH = 255;
+
+    private final IdempotencyStore store;
+    private final ObjectMapper objectMapper;
+    private final List<String> pathPatterns;
+    private final AntPathMatcher pathMatcher = new AntPathMatcher();
+
+    public IdempotencyFilter(IdempotencyStore store, ObjectMapper objectMapper, List<String> pathPatterns) {
+        this.store = store;
+        this.objectMapper = objectMapper;
+        this.pathPatterns = pathPatterns;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        if (!HttpMethod.POST.matches(request.getMethod()) || request.getHeader(KEY_HEADER) == null) {
+            return true;
+        }
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+        return pathPatterns.stream().noneMatch(pattern -> pathMatcher.match(pattern, path));
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        String key = request.getHeader(KEY_HEADER).strip();
+        if (key.isEmpty() || key.length() > MAX_KEY_LENGTH) {
+            reject(response, HttpStatus.BAD_REQUEST, KEY_HEADER + " must be 1 to " + MAX_KEY_LENGTH + " characters.");
+            return;
+        }
+        String fingerprint = request.getMethod() + " " + request.getRequestURI();
+        StoredResponse existing = store.claim(key, fingerprint);
+        if (existing != null) {
+            if (!existing.fingerprint().equals(fingerprint)) {
+                reject(response, HttpStatus.UNPROCESSABLE_ENTITY, KEY_HEADER + " was already used for a different request.");
+            } else if (existing.isInProgress()) {
+                reject(response, HttpStatus.CONFLICT, "A request with this " + KEY_HEADER + " is still being processed.");
+            } else {
+                replay(response, existing);
+            }
+            return;
+        }
+
+        ContentCachingResponseWrapper wrapper = new ContentCachingResponseWrapper(response);
+        boolean kept = false;
+        try {
+            chain.doFilter(request, wrapper);
+            if (wrapper.getStatus() < 500) {
+                store.complete(key, new StoredResponse(fingerprint, wrapper.getStatus(), wrapper.getContentType(),
+                        wrapper.getContentAsByteArray()));
+                kept = true;
+            }
+        } finally {
+            if (!kept) {
+                store.release(key);
+            }
+            wrapper.copyBodyToResponse();
+        }
+    }
+
+    private static void replay(HttpServletResponse response, StoredResponse stored) throws IOException {
+        response.setStatus(stored.status());
+        response.setHeader(REPLAYED_HEADER, "true");
+        if (stored.contentType() != null) {
+            response.setContentType(stored.contentType());
+        }
+        if (stored.body() != null) {
+            response.setContentLength(stored.body().length);
+            response.getOutputStream().write(stored.body());
+        }
+    }
+
+    private void reject(HttpServletResponse response, HttpStatus status, String message) throws IOException {
+        response.setStatus(status.value());
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        objectMapper.writeValue(response.getOutputStream(), GlobalExceptionHandler.errorBody(status, message));
+    }
+}
@@ -0,0 +1,84 @@
+package com.org.booklibrary.idempotency;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.org.booklibrary.entity.IdempotencyRecord;
+import com.org.booklibrary.repository.IdempotencyRecordRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Optional;
+
+/**
+ * Responses by {@code Idempotency-Key}: a bounded Caffeine cache with a TTL, and optionally the
+ * {@code idempotency_key} table behind it ({@code library.idempotency.persist}) so keys survive
+ * restarts and evictions. Claiming a key is atomic within this process.
+ */
+@Slf4j
+@Component
+public class IdempotencyStore {
+
+    private final Cache<String, StoredResponse> cache;
+    private final IdempotencyRecordRepository repository;
+    private final Duration ttl;
+    private final boolean persist;
+
+    @Autowired
+    public IdempotencyStore(IdempotencyRecordRepository repository,
+                            @Value("${library.idempotency.max-entries:100000}") long maxEntries,
+                            @Value("${library.idempotency.ttl-minutes:1440}") long ttlMinutes,
+                            @Value("${library.idempotency.persist:false}") boolean persist) {
+        this.repository = repository;
+        this.ttl = Duration.ofMinutes(ttlMinutes);
+        this.persist = persist;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxEntries)
+                .expireAfterWrite(ttl)
+                .build();
+    }
+
+    /**
+     * Claims the key for a new request.
+     * @return {@code null} if the caller now owns the key, otherwise what is stored under it:
+     * a completed response or the marker of a request still in progress.
+     */
+    StoredResponse claim(String key, String fingerprint) {
+        StoredResponse existing = cache.asMap().putIfAbsent(key, StoredResponse.inProgress(fingerprint));
+        if (existing != null || !persist) {
+            return existing;
+        }
+        Optional<StoredResponse> persisted = repository.findById(key)
+                .filter(record -> record.getCreatedAt().isAfter(Instant.now().minus(ttl)))
+                .map(record -> new StoredResponse(record.getFingerprint(), record.getStatus(), record.getContentType(), record.getBody()));
+        persisted.ifPresent(response -> cache.put(key, response));
+        return persisted.orElse(null);
+    }
+
+    void complete(String key, StoredResponse response) {
+        cache.put(key, response);
+        if (persist) {
+            repository.save(new IdempotencyRecord(key, response.fingerprint(), response.status(),
+                    response.contentType(), response.body(), Instant.now()));
+        }
+    }
+
+    /**
+     * Gives up a claimed key so the request can be retried, for example after a server error.
+     */
+    void release(String key) {
+        cache.asMap().computeIfPresent(key, (k, response) -> response.isInProgress() ? null : response);
+    }
+
+    @Scheduled(fixedDelayString = "${library.idempotency.purge-interval-ms:600000}")
+    public void purgeExpired() {
+        if (persist) {
+            int purged = repository.deleteCreatedBefore(Instant.now().minus(ttl));
+            log.debug("Purged {} expired idempotency keys.", purged);
+        }
+    }
+}
@@ -0,0 +1,16 @@
+package com.org.booklibrary.idempotency;
+
+/**
+ * The response recorded for an {@code Idempotency-Key}. A status of {@code 0} marks a request
+ * that claimed the key and is still running.
+ */
+record StoredResponse(String fingerprint, int status, String contentType, byte[] body) {
+
+    static StoredResponse inProgress(String fingerprint) {
+        return new StoredResponse(fingerprint, 0, null, null);
+    }
+
+    boolean isInProgress() {
+        return status == 0;
+    }
+}
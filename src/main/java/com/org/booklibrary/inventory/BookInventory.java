@@ -0,0 +1,300 @@
+package com.org.booklibrary.inventory;
+
+import com.org.booklibrary.catalog.CatalogVersion;
+import com.org.booklibrary.configuration.CacheConfig;
+import com.org.booklibrary.dto.BookView;
+import com.org.booklibrary.entity.Book;
+import com.org.booklibrary.repository.BookRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+/**
+ * Keeps the available-copies count of every book touched since startup in memory.
+ * Borrow and return reserve/release a copy with a CAS on the counter instead of a read-modify-write
+ * of the {@code Book} row; the counters are written back to the database in batches by {@link #flush()}.
+ * While a counter exists it is the authoritative value and reads overlay it onto the loaded entity.
+ * <p>
+ * Counts not flushed when the process stops are lost, so at startup, before any counter is seeded from a row,
+ * every book's available copies are recomputed from its open loans.
+ */
+@Slf4j
+@Component
+public class BookInventory {
+
+    private final BookRepository bookRepository;
+    private final CatalogVersion catalogVersion;
+    private final TransactionTemplate transactionTemplate;
+    private final Cache bookCache;
+    private final int flushBatchSize;
+
+    private final Map<Long, Counter> counters = new ConcurrentHashMap<>();
+    private final Set<Long> dirty = ConcurrentHashMap.newKeySet();
+    /** Books whose row is being rewritten by a transaction that will {@link #reset} their counter, with how many. */
+    private final Map<Long, Integer> pendingResets = new ConcurrentHashMap<>();
+
+    @Autowired
+    public BookInventory(BookRepository bookRepository, CatalogVersion catalogVersion, PlatformTransactionManager transactionManager,
+                         CacheManager cacheManager, @Value("${library.inventory.flush-batch-size:200}") int flushBatchSize) {
+        this.bookRepository = bookRepository;
+        this.catalogVersion = catalogVersion;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.bookCache = cacheManager.getCache(CacheConfig.BOOKS);
+        this.flushBatchSize = flushBatchSize;
+    }
+
+    /**
+     * Takes one copy of the book. If the surrounding transaction rolls back the copy is given back.
+     * @return {@code false} if no copy is available.
+     */
+    public boolean tryReserve(Book book) {
+        Counter counter = counterFor(book);
+        int current;
+        do {
+            current = counter.available.get();
+            if (current <= 0) {
+                return false;
+            }
+        } while (!counter.available.compareAndSet(current, current - 1));
+        dirty.add(book.getId());
+        catalogVersion.bump();
+        onRollback(() -> increment(book.getId(), counter));
+        return true;
+    }
+
+    /**
+     * Gives one copy of the book back, never exceeding its total copies.
+     */
+    public void release(Book book) {
+        Counter counter = counterFor(book);
+        if (increment(book.getId(), counter)) {
+            onRollback(() -> {
+                counter.available.decrementAndGet();
+                dirty.add(book.getId());
+                catalogVersion.bump();
+            });
+        }
+    }
+
+    /**
+     * Replaces the counter after the book row itself was written with new copy counts,
+     * once the surrounding transaction (if any) has committed them. Until then {@link #flush()} leaves the row alone,
+     * so the old counter cannot overwrite the new counts between the commit and the swap.
+     */
+    public void reset(Book book) {
+        Long bookId = book.getId();
+        Counter counter = new Counter(book.getAvailableCopies(), book.getTotalCopies());
+        pendingResets.merge(bookId, 1, Integer::sum);
+        afterCompletion(committed -> {
+            if (committed) {
+                counters.put(bookId, counter);
+                dirty.remove(bookId);
+            }
+            pendingResets.computeIfPresent(bookId, (id, count) -> count == 1 ? null : count - 1);
+        });
+    }
+
+    public void evict(Long bookId) {
+        counters.remove(bookId);
+        dirty.remove(bookId);
+    }
+
+    /**
+     * Returns a copy of the book with the in-memory count, if the book has a counter and it differs.
+     * The loaded book is never changed: it may be the instance the entity cache hands to every thread.
+     */
+    public Book overlay(Book book) {
+        Counter counter = counters.get(book.getId());
+        if (counter == null) {
+            return book;
+        }
+        int available = counter.available.get();
+        return book.getAvailableCopies() != null && book.getAvailableCopies() == available ? book
+                : book.toBuilder().availableCopies(available).build();
+    }
+
+    /**
+     * Returns the view with the in-memory count, if the book has a counter and it differs.
+     */
+    public BookView overlay(BookView view) {
+        Counter counter = counters.get(view.id());
+        if (counter == null) {
+            return view;
+        }
+        int available = counter.available.get();
+        return view.availableCopies() != null && view.availableCopies() == available ? view : view.withAvailableCopies(available);
+    }
+
+    /**
+     * Runs before the web server takes traffic, so no counter has been seeded from a row yet.
+     */
+    @PostConstruct
+    public void reconcileWithOpenLoans() {
+        Integer corrected = transactionTemplate.execute(status -> bookRepository.reconcileAvailableCopies());
+        if (corrected != null && corrected > 0) {
+            log.warn("Recomputed available copies of {} books from their open loans.", corrected);
+        }
+    }
+
+    public int pendingFlushes() {
+        return dirty.size();
+    }
+
+    /**
+     * Writes the dirty counters to the {@code Book} table in batches. A batch that hits an optimistic
+     * lock conflict (for example a concurrent {@code updateBook}) is retried book by book on fresh rows.
+     * Any other failure puts the batch back and ends the flush; the next one retries it.
+     */
+    @Scheduled(fixedDelayString = "${library.inventory.flush-interval-ms:500}")
+    public void flush() {
+        List<Long> batch = new ArrayList<>(flushBatchSize);
+        Iterator<Long> it = dirty.iterator();
+        while (it.hasNext()) {
+            batch.add(it.next());
+            it.remove();
+            if (batch.size() == flushBatchSize) {
+                if (!flushBatch(batch)) {
+                    return;
+                }
+                batch = new ArrayList<>(flushBatchSize);
+            }
+        }
+        if (!batch.isEmpty()) {
+            flushBatch(batch);
+        }
+    }
+
+    @PreDestroy
+    public void flushOnShutdown() {
+        flush();
+    }
+
+    /**
+     * @return {@code false} if the batch could not be written for a reason other than a lock conflict.
+     */
+    private boolean flushBatch(List<Long> bookIds) {
+        try {
+            transactionTemplate.executeWithoutResult(status -> write(bookIds));
+            // Writing the rows bumps their @Version, which the list responses show; saveAll does not evict.
+            bookIds.forEach(bookCache::evict);
+            catalogVersion.bump();
+            log.debug("Flushed available copies for {} books.", bookIds.size());
+        } catch (ObjectOptimisticLockingFailureException e) {
+            log.info("Optimistic lock conflict while flushing {} books, reconciling one by one.", bookIds.size());
+            for (Long bookId : bookIds) {
+                reconcile(bookId);
+            }
+        } catch (RuntimeException e) {
+            dirty.addAll(bookIds);
+            log.warn("Flushing available copies for {} books failed, will retry: {}", bookIds.size(), e.getMessage());
+            return false;
+        }
+        return true;
+    }
+
+    private void reconcile(Long bookId) {
+        try {
+            transactionTemplate.executeWithoutResult(status -> write(List.of(bookId)));
+            bookCache.evict(bookId);
+            catalogVersion.bump();
+        } catch (ObjectOptimisticLockingFailureException e) {
+            log.warn("Book (ID: {}) changed while flushing available copies, will retry.", bookId);
+            dirty.add(bookId);
+        } catch (RuntimeException e) {
+            log.warn("Flushing available copies for book (ID: {}) failed, will retry: {}", bookId, e.getMessage());
+            dirty.add(bookId);
+        }
+    }
+
+    private void write(List<Long> bookIds) {
+        List<Book> books = new ArrayList<>();
+        for (Book book : bookRepository.findAllById(bookIds)) {
+            // Checked after loading: a row read after an update committed waits for the update's reset
+            if (pendingResets.containsKey(book.getId())) {
+                dirty.add(book.getId());
+                continue;
+            }
+            Counter counter = counters.get(book.getId());
+            if (counter != null) {
+                book.setAvailableCopies(counter.available.get());
+            }
+            books.add(book);
+        }
+        bookRepository.saveAll(books);
+    }
+
+    private Counter counterFor(Book book) {
+        return counters.computeIfAbsent(book.getId(),
+                id -> new Counter(book.getAvailableCopies(), book.getTotalCopies()));
+    }
+
+    private boolean increment(Long bookId, Counter counter) {
+        int current;
+        do {
+            current = counter.available.get();
+            if (current >= counter.total) {
+                return false;
+            }
+        } while (!counter.available.compareAndSet(current, current + 1));
+        dirty.add(bookId);
+        catalogVersion.bump();
+        return true;
+    }
+
+    private static void afterCompletion(Consumer<Boolean> action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.accept(true);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                action.accept(status == STATUS_COMMITTED);
+            }
+        });
+    }
+
+    private static void onRollback(Runnable compensation) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                if (status == STATUS_ROLLED_BACK) {
+                    compensation.run();
+                }
+            }
+        });
+    }
+
+    private static final class Counter {
+        private final AtomicInteger available;
+        private final int total;
+
+        private Counter(int available, int total) {
+            this.available = new AtomicInteger(available);
+            this.total = total;
+        }
+    }
+}
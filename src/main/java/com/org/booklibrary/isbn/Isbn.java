@@ -0,0 +1,99 @@
+package com.org.booklibrary.isbn;
+
+/**
+ * ISBN normalization. Hyphens and spaces are ignored, an ISBN-10 is converted to its ISBN-13, and the check digit
+ * is verified. The result is the 13-digit ISBN as a {@code long} key, always positive: books store it in
+ * {@code isbn_key} and {@link IsbnIndex} looks it up without boxing.
+ */
+public final class Isbn {
+
+    private Isbn() {
+    }
+
+    /**
+     * @throws IllegalArgumentException if the value is not a valid ISBN-10 or ISBN-13.
+     */
+    public static long parse(String value) {
+        long key = tryParse(value);
+        if (key < 0) {
+            throw new IllegalArgumentException("Invalid ISBN: '" + value + "'. Expected 10 or 13 digits with a valid check digit.");
+        }
+        return key;
+    }
+
+    /**
+     * As {@link #parse(String)}, returning -1 for an invalid value.
+     */
+    public static long tryParse(String value) {
+        if (value == null) {
+            return -1;
+        }
+        int[] digits = new int[13];
+        int count = 0;
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '-' || c == ' ') {
+                continue;
+            }
+            if (count == 13) {
+                return -1;
+            }
+            if (c >= '0' && c <= '9') {
+                digits[count++] = c - '0';
+            } else if ((c == 'X' || c == 'x') && count == 9) {
+                // Only the check digit of an ISBN-10 may be X (10)
+                digits[count++] = 10;
+            } else {
+                return -1;
+            }
+        }
+        if (count == 10) {
+            return isbn10(digits);
+        }
+        if (count == 13 && digits[9] != 10 && digits[0] == 9 && digits[1] == 7 && (digits[2] == 8 || digits[2] == 9)) {
+            long key = 0;
+            for (int i = 0; i < 12; i++) {
+                key = key * 10 + digits[i];
+            }
+            return checkDigit13(key) == digits[12] ? key * 10 + digits[12] : -1;
+        }
+        return -1;
+    }
+
+    public static boolean isValid(String value) {
+        return tryParse(value) >= 0;
+    }
+
+    /**
+     * The 13 digits of the key, without hyphens.
+     */
+    public static String format(long key) {
+        return Long.toString(key);
+    }
+
+    private static long isbn10(int[] digits) {
+        int sum = 0;
+        for (int i = 0; i < 10; i++) {
+            sum += (10 - i) * digits[i];
+        }
+        if (sum % 11 != 0) {
+            return -1;
+        }
+        long key = 978;
+        for (int i = 0; i < 9; i++) {
+            key = key * 10 + digits[i];
+        }
+        return key * 10 + checkDigit13(key);
+    }
+
+    private static int checkDigit13(long first12) {
+        int sum = 0;
+        for (int i = 0; i < 12; i++) {
+            int digit = (int) (first12 % 10);
+            first12 /= 10;
+            // Counted from the right, the 12th digit has weight 3 and the weights alternate 3, 1, 3, ...
+            sum += (i % 2 == 0 ? 3 : 1) * digit;
+        }
+        return (10 - sum % 10) % 10;
+    }
+}
@@ -0,0 +1,115 @@
+package com.org.booklibrary.isbn;
+
+import com.org.booklibrary.entity.Book;
+import com.org.booklibrary.event.BookChangedEvent;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Maps the ISBN key of every book to its id in memory, so ISBN lookups and the duplicate check of
+ * {@link com.org.booklibrary.service.BookService} need no query. Loaded at startup and kept current from committed
+ * {@link BookChangedEvent}s; the unique index on {@code book.isbn_key} still rejects a duplicate that two
+ * transactions write before either event arrives.
+ */
+@Slf4j
+@Component
+public class IsbnIndex {
+
+    /** Returned by {@link #find(long)} for an unknown ISBN. */
+    public static final long NONE = LongLongMap.MISSING;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final LongLongMap idByIsbn = new LongLongMap(1024);
+    private final LongLongMap isbnById = new LongLongMap(1024);
+
+    @Autowired
+    public IsbnIndex(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        lock.writeLock().lock();
+        try {
+            idByIsbn.clear();
+            isbnById.clear();
+            // Read row by row so a large catalog is never materialized as boxed values
+            jdbcTemplate.query("select id, isbn_key from book where isbn_key is not null",
+                    (RowCallbackHandler) rs -> put(rs.getLong(1), rs.getLong(2)));
+            log.info("ISBN index built with {} books.", idByIsbn.size());
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onBookChanged(BookChangedEvent event) {
+        lock.writeLock().lock();
+        try {
+            remove(event.bookId());
+            Book book = event.book();
+            if (book != null && book.getIsbnKey() != null) {
+                put(book.getId(), book.getIsbnKey());
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * The id of the book with the ISBN key, or {@link #NONE}.
+     */
+    public long find(long isbnKey) {
+        lock.readLock().lock();
+        try {
+            return idByIsbn.get(isbnKey);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * @throws IllegalStateException if a book other than {@code bookId} (which may be {@code null}) has the ISBN.
+     */
+    public void checkAvailable(long isbnKey, Long bookId) {
+        long owner = find(isbnKey);
+        if (owner != NONE && (bookId == null || owner != bookId)) {
+            throw new IllegalStateException("A book with ISBN " + Isbn.format(isbnKey) + " already exists with id: " + owner);
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return idByIsbn.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void put(long bookId, long isbnKey) {
+        long previousOwner = idByIsbn.put(isbnKey, bookId);
+        if (previousOwner != NONE && previousOwner != bookId) {
+            isbnById.remove(previousOwner);
+        }
+        isbnById.put(bookId, isbnKey);
+    }
+
+    private void remove(long bookId) {
+        long isbnKey = isbnById.remove(bookId);
+        if (isbnKey != NONE && idByIsbn.get(isbnKey) == bookId) {
+            idByIsbn.remove(isbnKey);
+        }
+    }
+}
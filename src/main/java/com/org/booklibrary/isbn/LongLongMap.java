@@ -0,0 +1,135 @@
+package com.org.booklibrary.isbn;
+
+import java.util.Arrays;
+
+/**
+ * Open-addressing hash map from {@code long} to {@code long} with linear probing, for positive keys and values.
+ * Keys and values sit in two parallel arrays, so neither lookups nor updates box; 0 marks an empty slot and is
+ * returned for a missing key. Removal shifts the following entries back instead of leaving tombstones.
+ * Not thread-safe.
+ */
+final class LongLongMap {
+
+    static final long MISSING = 0;
+
+    private static final float LOAD_FACTOR = 0.6f;
+
+    private long[] keys;
+    private long[] values;
+    private int mask;
+    private int size;
+    private int resizeAt;
+
+    LongLongMap(int expectedSize) {
+        int capacity = Integer.highestOneBit(Math.max(16, (int) (expectedSize / LOAD_FACTOR)) - 1) << 1;
+        allocate(capacity);
+    }
+
+    long get(long key) {
+        for (int slot = slot(key); ; slot = (slot + 1) & mask) {
+            long current = keys[slot];
+            if (current == key) {
+                return values[slot];
+            }
+            if (current == MISSING) {
+                return MISSING;
+            }
+        }
+    }
+
+    /**
+     * @return the previous value, or {@link #MISSING}.
+     */
+    long put(long key, long value) {
+        if (key <= 0 || value <= 0) {
+            throw new IllegalArgumentException("Keys and values must be positive.");
+        }
+        int slot = slot(key);
+        while (keys[slot] != MISSING) {
+            if (keys[slot] == key) {
+                long previous = values[slot];
+                values[slot] = value;
+                return previous;
+            }
+            slot = (slot + 1) & mask;
+        }
+        keys[slot] = key;
+        values[slot] = value;
+        if (++size > resizeAt) {
+            resize();
+        }
+        return MISSING;
+    }
+
+    /**
+     * @return the removed value, or {@link #MISSING}.
+     */
+    long remove(long key) {
+        int slot = slot(key);
+        while (keys[slot] != key) {
+            if (keys[slot] == MISSING) {
+                return MISSING;
+            }
+            slot = (slot + 1) & mask;
+        }
+        long removed = values[slot];
+        size--;
+        // Move back every following entry of the run that probed past the freed slot
+        int free = slot;
+        for (int next = (free + 1) & mask; keys[next] != MISSING; next = (next + 1) & mask) {
+            int home = slot(keys[next]);
+            if (((next - home) & mask) >= ((next - free) & mask)) {
+                keys[free] = keys[next];
+                values[free] = values[next];
+                free = next;
+            }
+        }
+        keys[free] = MISSING;
+        values[free] = MISSING;
+        return removed;
+    }
+
+    int size() {
+        return size;
+    }
+
+    void clear() {
+        Arrays.fill(keys, MISSING);
+        Arrays.fill(values, MISSING);
+        size = 0;
+    }
+
+    private int slot(long key) {
+        // Murmur3 finalizer: ISBNs and ids are sequential, so their low bits alone would cluster
+        long h = key;
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        h ^= h >>> 33;
+        return (int) h & mask;
+    }
+
+    private void resize() {
+        long[] oldKeys = keys;
+        long[] oldValues = values;
+        allocate(keys.length << 1);
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldKeys[i] != MISSING) {
+                int slot = slot(oldKeys[i]);
+                while (keys[slot] != MISSING) {
+                    slot = (slot + 1) & mask;
+                }
+                keys[slot] = oldKeys[i];
+                values[slot] = oldValues[i];
+            }
+        }
+    }
+
+    private void allocate(int capacity) {
+        keys = new long[capacity];
+        values = new long[capacity];
+        mask = capacity - 1;
+        resizeAt = (int) (capacity * LOAD_FACTOR);
+    }
+}
@@ -0,0 +1,137 @@
+package com.org.booklibrary.metrics;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.listener.QueryExecutionListener;
+import net.ttddyy.dsproxy.listener.QueryUtils;
+import net.ttddyy.dsproxy.support.ProxyDataSourceBuilder;
+import org.springframework.beans.BeansException;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Counts and times every JDBC statement through a datasource-proxy listener, and rolls the
+ * statements issued while serving one HTTP request up into per-request meters.
+ * <ul>
+ *     <li>{@code library.jdbc.query} - timer per statement, tagged by statement type</li>
+ *     <li>{@code library.jdbc.request.queries} - statements per request, tagged by URI pattern</li>
+ *     <li>{@code library.jdbc.request.time} - time spent in JDBC per request, tagged by URI pattern</li>
+ * </ul>
+ */
+public class JdbcMetrics implements QueryExecutionListener {
+
+    private static final ThreadLocal<RequestStats> CURRENT_REQUEST = new ThreadLocal<>();
+
+    private final ObjectProvider<MeterRegistry> meterRegistry;
+    private volatile MeterRegistry registry;
+
+    public JdbcMetrics(ObjectProvider<MeterRegistry> meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    public DataSource wrap(DataSource dataSource) {
+        return ProxyDataSourceBuilder.create(dataSource)
+                .name("library")
+                .listener(this)
+                .build();
+    }
+
+    public OncePerRequestFilter requestFilter() {
+        return new OncePerRequestFilter() {
+            @Override
+            protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+                    throws ServletException, IOException {
+                RequestStats stats = new RequestStats();
+                CURRENT_REQUEST.set(stats);
+                try {
+                    chain.doFilter(request, response);
+                } finally {
+                    CURRENT_REQUEST.remove();
+                    record(request, stats);
+                }
+            }
+        };
+    }
+
+    @Override
+    public void beforeQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+    }
+
+    @Override
+    public void afterQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+        MeterRegistry registry = registry();
+        if (registry == null) {
+            return;
+        }
+        String type = queryInfoList.isEmpty() ? "other"
+                : QueryUtils.getQueryType(queryInfoList.get(0).getQuery()).name().toLowerCase(Locale.ROOT);
+        Timer.builder("library.jdbc.query")
+                .description("JDBC statement execution time")
+                .tag("type", type)
+                .tag("batch", String.valueOf(execInfo.isBatch()))
+                .register(registry)
+                .record(execInfo.getElapsedTime(), TimeUnit.MILLISECONDS);
+
+        RequestStats stats = CURRENT_REQUEST.get();
+        if (stats != null) {
+            stats.queries++;
+            stats.elapsedMillis += execInfo.getElapsedTime();
+        }
+    }
+
+    private void record(HttpServletRequest request, RequestStats stats) {
+        MeterRegistry registry = registry();
+        if (registry == null) {
+            return;
+        }
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        String uri = pattern != null ? pattern.toString() : "UNKNOWN";
+        DistributionSummary.builder("library.jdbc.request.queries")
+                .description("JDBC statements issued per HTTP request")
+                .tag("uri", uri)
+                .publishPercentileHistogram()
+                .register(registry)
+                .record(stats.queries);
+        Timer.builder("library.jdbc.request.time")
+                .description("Time spent in JDBC per HTTP request")
+                .tag("uri", uri)
+                .register(registry)
+                .record(stats.elapsedMillis, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Resolves the registry once. Statements can still run while the context is shutting down
+     * (for example the embedded database shutdown), when the registry can no longer be looked up.
+     */
+    private MeterRegistry registry() {
+        MeterRegistry resolved = registry;
+        if (resolved == null) {
+            try {
+                resolved = meterRegistry.getIfAvailable();
+            } catch (BeansException e) {
+                return null;
+            }
+            registry = resolved;
+        }
+        return resolved;
+    }
+
+    private static final class RequestStats {
+        private int queries;
+        private long elapsedMillis;
+    }
+}
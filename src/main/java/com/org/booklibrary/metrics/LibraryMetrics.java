@@ -0,0 +1,60 @@
+package com.org.booklibrary.metrics;
+
+import com.org.booklibrary.event.LoanEvent;
+import com.org.booklibrary.exception.BookUnavailableException;
+import com.org.booklibrary.exception.ResourceNotFoundException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.aspectj.lang.JoinPoint;
+import org.aspectj.lang.annotation.AfterThrowing;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+/**
+ * Business counters for the service layer: successful borrows and the expected failures
+ * ({@link BookUnavailableException} conflicts and {@link ResourceNotFoundException}s), tagged by operation.
+ * Borrows are counted from committed {@link LoanEvent}s, holds fulfilled included, so a pipeline batch that rolls
+ * back and is replayed counts each loan once. The borrow pipeline only forwards to {@code BookService} and is left
+ * out of the failure count, which {@code BookService} already made.
+ * Latency is recorded separately by the {@code @Timed} annotations on the services.
+ */
+@Aspect
+@Component
+public class LibraryMetrics {
+
+    private final MeterRegistry meterRegistry;
+    private final Counter borrowSuccesses;
+
+    @Autowired
+    public LibraryMetrics(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+        this.borrowSuccesses = Counter.builder("library.borrows")
+                .description("Books successfully borrowed")
+                .register(meterRegistry);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onLoan(LoanEvent event) {
+        if (event.type() == LoanEvent.Type.BORROWED) {
+            borrowSuccesses.increment();
+        }
+    }
+
+    @AfterThrowing(pointcut = "within(com.org.booklibrary.service..*) "
+            + "&& !within(com.org.booklibrary.service.BorrowCommandPipeline)", throwing = "ex")
+    public void serviceFailed(JoinPoint joinPoint, RuntimeException ex) {
+        String type;
+        if (ex instanceof BookUnavailableException) {
+            type = "conflict";
+        } else if (ex instanceof ResourceNotFoundException) {
+            type = "not_found";
+        } else {
+            return;
+        }
+        meterRegistry.counter("library.errors",
+                "type", type,
+                "operation", joinPoint.getSignature().getName()).increment();
+    }
+}
@@ -0,0 +1,14 @@
+package com.org.booklibrary.outbox;
+
+import com.org.booklibrary.dto.ChangeEvent;
+
+import java.util.List;
+
+/**
+ * A destination of the change stream. {@link OutboxRelay} hands every sink bean each batch in sequence order.
+ * A sink that throws gets the same batch again on the next poll (and so do the other sinks).
+ */
+public interface ChangeEventSink {
+
+    void deliver(List<ChangeEvent> batch) throws Exception;
+}
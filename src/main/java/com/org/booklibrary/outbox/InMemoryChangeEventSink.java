@@ -0,0 +1,44 @@
+package com.org.booklibrary.outbox;
+
+import com.org.booklibrary.dto.ChangeEvent;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.List;
+
+/**
+ * Keeps the last {@code library.outbox.local-sink.capacity} relayed events in memory, for tests and
+ * local development. Enabled with {@code library.outbox.local-sink.enabled}.
+ */
+@Component
+@ConditionalOnProperty(name = "library.outbox.local-sink.enabled", havingValue = "true")
+public class InMemoryChangeEventSink implements ChangeEventSink {
+
+    private final int capacity;
+    private final Deque<ChangeEvent> events = new ArrayDeque<>();
+
+    public InMemoryChangeEventSink(@Value("${library.outbox.local-sink.capacity:10000}") int capacity) {
+        this.capacity = capacity;
+    }
+
+    @Override
+    public synchronized void deliver(List<ChangeEvent> batch) {
+        for (ChangeEvent event : batch) {
+            if (events.size() == capacity) {
+                events.removeFirst();
+            }
+            events.addLast(event);
+        }
+    }
+
+    public synchronized List<ChangeEvent> events() {
+        return List.copyOf(events);
+    }
+
+    public synchronized void clear() {
+        events.clear();
+    }
+}
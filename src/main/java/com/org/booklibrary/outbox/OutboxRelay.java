@@ -0,0 +1,129 @@
+package com.org.booklibrary.outbox;
+
+import com.org.booklibrary.dto.ChangeEvent;
+import com.org.booklibrary.entity.OutboxEvent;
+import com.org.booklibrary.entity.OutboxSequence;
+import com.org.booklibrary.repository.OutboxEventRepository;
+import com.org.booklibrary.repository.OutboxSequenceRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Delivers unpublished outbox rows to every {@link ChangeEventSink} in batches and marks them published.
+ * Delivery is at least once: a batch is marked only after all sinks took it.
+ * <p>
+ * Outbox ids are allocated before the writing transactions commit, so a row can commit after one with a higher id
+ * was relayed. The relay therefore gives every row the next delivery sequence before its first delivery, taken from
+ * the {@link OutboxSequence} row it holds locked until the numbers are committed, and the stream is ordered and
+ * replayed by that sequence. Relays of several instances on one database take turns on that row.
+ * Published rows are kept for {@code library.outbox.retention-hours} so consumers can replay them.
+ */
+@Slf4j
+@Component
+public class OutboxRelay {
+
+    private final OutboxEventRepository outboxEventRepository;
+    private final OutboxSequenceRepository outboxSequenceRepository;
+    private final ObjectProvider<ChangeEventSink> sinks;
+    private final int batchSize;
+    private final Duration retention;
+    private final TransactionTemplate transactionTemplate;
+
+    @Autowired
+    public OutboxRelay(OutboxEventRepository outboxEventRepository, OutboxSequenceRepository outboxSequenceRepository,
+                       ObjectProvider<ChangeEventSink> sinks,
+                       PlatformTransactionManager transactionManager,
+                       @Value("${library.outbox.batch-size:500}") int batchSize,
+                       @Value("${library.outbox.retention-hours:24}") long retentionHours) {
+        this.outboxEventRepository = outboxEventRepository;
+        this.outboxSequenceRepository = outboxSequenceRepository;
+        this.sinks = sinks;
+        this.batchSize = batchSize;
+        this.retention = Duration.ofHours(retentionHours);
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    /**
+     * Delivers batches until no unpublished rows are left, numbering them fails or a sink fails.
+     * @return the number of events delivered.
+     */
+    @Scheduled(initialDelayString = "${library.outbox.poll-interval-ms:200}",
+            fixedDelayString = "${library.outbox.poll-interval-ms:200}")
+    public synchronized int relay() {
+        int delivered = 0;
+        List<OutboxEvent> rows;
+        do {
+            try {
+                rows = transactionTemplate.execute(status -> sequenced());
+            } catch (RuntimeException e) {
+                log.warn("Numbering change events failed, will retry: {}", e.getMessage());
+                break;
+            }
+            if (rows.isEmpty()) {
+                break;
+            }
+            List<ChangeEvent> batch = rows.stream().map(OutboxRelay::change).toList();
+            try {
+                for (ChangeEventSink sink : sinks.orderedStream().toList()) {
+                    sink.deliver(batch);
+                }
+            } catch (Exception e) {
+                log.warn("Delivering {} change events failed, will retry: {}", batch.size(), e.getMessage());
+                break;
+            }
+            outboxEventRepository.markPublished(rows.stream().map(OutboxEvent::getId).toList(), Instant.now());
+            delivered += batch.size();
+        } while (rows.size() == batchSize);
+        if (delivered > 0) {
+            log.debug("Relayed {} change events.", delivered);
+        }
+        return delivered;
+    }
+
+    /**
+     * Reads the next batch with the sequence row locked and gives its rows without a delivery sequence the next ones,
+     * in id order. The numbers and the counter are written on commit, or not at all.
+     */
+    private List<OutboxEvent> sequenced() {
+        OutboxSequence sequence = outboxSequenceRepository.findForUpdate(OutboxSequence.ID).orElseGet(this::firstSequence);
+        List<OutboxEvent> rows = outboxEventRepository.findUnpublished(Limit.of(batchSize));
+        long last = sequence.getLastSequence();
+        for (OutboxEvent row : rows) {
+            if (row.getDeliverySequence() == null) {
+                row.setDeliverySequence(++last);
+            }
+        }
+        sequence.setLastSequence(last);
+        return rows;
+    }
+
+    /**
+     * Creates the sequence row on a schema Hibernate generated; a relay that loses the race to insert it retries.
+     */
+    private OutboxSequence firstSequence() {
+        Long last = outboxEventRepository.findLastDeliverySequence();
+        return outboxSequenceRepository.saveAndFlush(new OutboxSequence(OutboxSequence.ID, last == null ? 0 : last));
+    }
+
+    private static ChangeEvent change(OutboxEvent row) {
+        return new ChangeEvent(row.getDeliverySequence(), row.getAggregateType(), row.getAggregateId(),
+                row.getEventType(), row.getOccurredAt(), row.getPayload());
+    }
+
+    @Scheduled(fixedDelayString = "${library.outbox.purge-interval-ms:3600000}")
+    public void purgePublished() {
+        int purged = outboxEventRepository.deletePublishedBefore(Instant.now().minus(retention));
+        log.debug("Purged {} published change events.", purged);
+    }
+}
@@ -0,0 +1,69 @@
+package com.org.booklibrary.outbox;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.org.booklibrary.dto.BookView;
+import com.org.booklibrary.entity.OutboxEvent;
+import com.org.booklibrary.event.BookChangedEvent;
+import com.org.booklibrary.event.LoanEvent;
+import com.org.booklibrary.event.UserChangedEvent;
+import com.org.booklibrary.repository.OutboxEventRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.io.UncheckedIOException;
+import java.time.Instant;
+import java.util.Map;
+
+/**
+ * Turns the domain events into outbox rows just before the publishing transaction commits,
+ * so a change and its event are committed or rolled back together.
+ */
+@Component
+public class OutboxWriter {
+
+    public static final String BOOK = "BOOK";
+    public static final String LOAN = "LOAN";
+    public static final String USER = "USER";
+
+    private final OutboxEventRepository outboxEventRepository;
+    private final ObjectMapper objectMapper;
+
+    @Autowired
+    public OutboxWriter(OutboxEventRepository outboxEventRepository, ObjectMapper objectMapper) {
+        this.outboxEventRepository = outboxEventRepository;
+        this.objectMapper = objectMapper;
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.BEFORE_COMMIT, fallbackExecution = true)
+    public void onBookChanged(BookChangedEvent event) {
+        Object payload = event.book() != null ? BookView.of(event.book()) : Map.of("id", event.bookId());
+        write(BOOK, event.bookId(), "BOOK_" + event.type(), payload);
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.BEFORE_COMMIT, fallbackExecution = true)
+    public void onLoan(LoanEvent event) {
+        write(LOAN, event.recordId(), "LOAN_" + event.type(), event);
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.BEFORE_COMMIT, fallbackExecution = true)
+    public void onUserChanged(UserChangedEvent event) {
+        write(USER, event.userId(), "USER_" + event.type(), event.user());
+    }
+
+    private void write(String aggregateType, Long aggregateId, String eventType, Object payload) {
+        try {
+            outboxEventRepository.save(OutboxEvent.builder()
+                    .aggregateType(aggregateType)
+                    .aggregateId(aggregateId)
+                    .eventType(eventType)
+                    .payload(objectMapper.writeValueAsString(payload))
+                    .occurredAt(Instant.now())
+                    .build());
+        } catch (JsonProcessingException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
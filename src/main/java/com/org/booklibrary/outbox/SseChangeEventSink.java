@@ -0,0 +1,60 @@
+package com.org.booklibrary.outbox;
+
+import com.org.booklibrary.dto.ChangeEvent;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Pushes every relayed batch to the connected server-sent-event clients. Each event is sent with its
+ * sequence as the SSE id and its type as the event name; a client that cannot be written to is dropped.
+ * Clients that reconnect catch up from {@code GET /api/v1/changes?afterId=}.
+ */
+@Slf4j
+@Component
+public class SseChangeEventSink implements ChangeEventSink {
+
+    private final long timeoutMillis;
+    private final List<SseEmitter> emitters = new CopyOnWriteArrayList<>();
+
+    public SseChangeEventSink(@Value("${library.outbox.sse-timeout-ms:600000}") long timeoutMillis) {
+        this.timeoutMillis = timeoutMillis;
+    }
+
+    public SseEmitter subscribe() {
+        SseEmitter emitter = new SseEmitter(timeoutMillis);
+        emitter.onCompletion(() -> emitters.remove(emitter));
+        emitter.onTimeout(() -> emitters.remove(emitter));
+        emitter.onError(e -> emitters.remove(emitter));
+        emitters.add(emitter);
+        return emitter;
+    }
+
+    public int subscribers() {
+        return emitters.size();
+    }
+
+    @Override
+    public void deliver(List<ChangeEvent> batch) {
+        for (SseEmitter emitter : emitters) {
+            try {
+                for (ChangeEvent event : batch) {
+                    emitter.send(SseEmitter.event()
+                            .id(String.valueOf(event.sequence()))
+                            .name(event.type())
+                            .data(event, MediaType.APPLICATION_JSON));
+                }
+            } catch (IOException | IllegalStateException e) {
+                log.debug("Dropping change stream subscriber: {}", e.getMessage());
+                emitters.remove(emitter);
+                emitter.completeWithError(e);
+            }
+        }
+    }
+}
@@ -0,0 +1,128 @@
+package com.org.booklibrary.overdue;
+
+import com.org.booklibrary.dto.BorrowingRecordView;
+import com.org.booklibrary.dto.OverdueLoan;
+import com.org.booklibrary.event.LoanEvent;
+import com.org.booklibrary.repository.BorrowingRecordRepository;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.NavigableSet;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Keeps every open loan in memory ordered by borrow date, so overdue loans are the head of the set
+ * and a scan costs O(overdue) instead of reading the loan history.
+ * The set is loaded at startup and kept current from committed {@link LoanEvent}s. Clients page through the
+ * overdue loans by (borrow date, id); a scheduled scan counts them for the {@code library.loans.overdue} gauge.
+ */
+@Slf4j
+@Component
+public class OverdueLoanTracker {
+
+    private static final Comparator<OpenLoan> BY_BORROW_DATE =
+            Comparator.comparing(OpenLoan::borrowDate).thenComparing(OpenLoan::recordId);
+
+    private final BorrowingRecordRepository borrowingRecordRepository;
+    private final int loanPeriodDays;
+
+    private final NavigableSet<OpenLoan> openLoans = new ConcurrentSkipListSet<>(BY_BORROW_DATE);
+    private final AtomicInteger lastOverdueCount = new AtomicInteger();
+
+    @Autowired
+    public OverdueLoanTracker(BorrowingRecordRepository borrowingRecordRepository, MeterRegistry meterRegistry,
+                              @Value("${library.overdue.loan-period-days:14}") int loanPeriodDays) {
+        this.borrowingRecordRepository = borrowingRecordRepository;
+        this.loanPeriodDays = loanPeriodDays;
+        Gauge.builder("library.loans.overdue", lastOverdueCount, AtomicInteger::get)
+                .description("Overdue loans found by the last scan")
+                .register(meterRegistry);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        List<BorrowingRecordView> open = borrowingRecordRepository.findOpenViews();
+        openLoans.clear();
+        open.forEach(record -> openLoans.add(new OpenLoan(record.id(), record.bookId(), record.userId(), record.borrowDate())));
+        log.info("Overdue loan tracker loaded {} open loans.", open.size());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onLoanEvent(LoanEvent event) {
+        OpenLoan loan = new OpenLoan(event.recordId(), event.bookId(), event.userId(), event.borrowDate());
+        if (event.type() == LoanEvent.Type.BORROWED) {
+            openLoans.add(loan);
+        } else {
+            openLoans.remove(loan);
+        }
+    }
+
+    /**
+     * Returns up to {@code limit} loans that are overdue on {@code today}, oldest first.
+     */
+    public List<OverdueLoan> overdue(LocalDate today, int limit) {
+        return overdue(today, null, null, limit);
+    }
+
+    /**
+     * As {@link #overdue(LocalDate, int)}, starting after the loan with {@code afterId} borrowed on
+     * {@code afterBorrowDate}, the last of the previous page, when those are given.
+     */
+    public List<OverdueLoan> overdue(LocalDate today, LocalDate afterBorrowDate, Long afterId, int limit) {
+        NavigableSet<OpenLoan> loans = overdueHead(today);
+        if (afterBorrowDate != null) {
+            loans = loans.tailSet(new OpenLoan(afterId, null, null, afterBorrowDate), false);
+        }
+        List<OverdueLoan> result = new ArrayList<>(Math.min(limit, 64));
+        for (OpenLoan loan : loans) {
+            if (result.size() == limit) {
+                break;
+            }
+            result.add(loan.overdue(loanPeriodDays));
+        }
+        return result;
+    }
+
+    @Scheduled(initialDelayString = "${library.overdue.scan-interval-ms:60000}",
+            fixedDelayString = "${library.overdue.scan-interval-ms:60000}")
+    public void scan() {
+        scan(LocalDate.now());
+    }
+
+    /**
+     * Counts the loans overdue on {@code today}.
+     * @return the number of overdue loans.
+     */
+    public int scan(LocalDate today) {
+        int count = overdueHead(today).size();
+        lastOverdueCount.set(count);
+        log.info("Overdue loan scan for {} found {} overdue loans.", today, count);
+        return count;
+    }
+
+    private NavigableSet<OpenLoan> overdueHead(LocalDate today) {
+        // A loan is overdue once borrowDate + period < today; the probe sorts before every loan of the cutoff day.
+        LocalDate cutoff = today.minusDays(loanPeriodDays);
+        return openLoans.headSet(new OpenLoan(Long.MIN_VALUE, null, null, cutoff), false);
+    }
+
+    private record OpenLoan(Long recordId, Long bookId, Long userId, LocalDate borrowDate) {
+
+        OverdueLoan overdue(int loanPeriodDays) {
+            return new OverdueLoan(recordId, bookId, userId, borrowDate, borrowDate.plusDays(loanPeriodDays));
+        }
+    }
+}
@@ -0,0 +1,118 @@
+package com.org.booklibrary.ratelimit;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.org.booklibrary.exception.GlobalExceptionHandler;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.util.AntPathMatcher;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Applies the {@link RateLimitProperties} tiers before a request reaches a controller, answering
+ * 429 with a {@code Retry-After} (seconds) when a bucket is empty. A request takes a token from every tier it
+ * matches or from none: when one tier rejects it, the tokens already taken from the others are given back.
+ * Per-client and per-user buckets are created on first use and dropped after ten idle minutes.
+ * Outcomes are counted in {@code library.ratelimit.requests}, tagged by tier and outcome.
+ */
+public class RateLimitFilter extends OncePerRequestFilter {
+
+    private static final Duration IDLE_BUCKET_EXPIRY = Duration.ofMinutes(10);
+
+    private final String clientHeader;
+    private final List<CompiledTier> tiers;
+    private final ObjectMapper objectMapper;
+    private final AntPathMatcher pathMatcher = new AntPathMatcher();
+    private final Cache<String, TokenBucket> buckets;
+
+    public RateLimitFilter(RateLimitProperties properties, ObjectMapper objectMapper, MeterRegistry meterRegistry) {
+        this.clientHeader = properties.clientHeader();
+        this.objectMapper = objectMapper;
+        this.tiers = properties.tiers().stream()
+                .map(tier -> new CompiledTier(tier,
+                        counter(meterRegistry, tier, "allowed"),
+                        counter(meterRegistry, tier, "rejected")))
+                .toList();
+        this.buckets = Caffeine.newBuilder()
+                .maximumSize(properties.maxBuckets())
+                .expireAfterAccess(IDLE_BUCKET_EXPIRY)
+                .build();
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+        long now = System.nanoTime();
+        List<CompiledTier> matched = new ArrayList<>(2);
+        List<TokenBucket> taken = new ArrayList<>(2);
+        for (CompiledTier compiled : tiers) {
+            RateLimitProperties.Tier tier = compiled.tier();
+            if (!tier.method().equalsIgnoreCase(request.getMethod()) || !pathMatcher.match(tier.path(), path)) {
+                continue;
+            }
+            String bucketKey = tier.name() + '|' + key(tier, request, path);
+            TokenBucket bucket = buckets.get(bucketKey, k -> new TokenBucket(tier.capacity(), tier.refillPerSecond(), now));
+            long waitNanos = bucket.tryConsume(now);
+            if (waitNanos > 0) {
+                taken.forEach(TokenBucket::refund);
+                compiled.rejected().increment();
+                reject(response, waitNanos);
+                return;
+            }
+            matched.add(compiled);
+            taken.add(bucket);
+        }
+        matched.forEach(compiled -> compiled.allowed().increment());
+        chain.doFilter(request, response);
+    }
+
+    private String key(RateLimitProperties.Tier tier, HttpServletRequest request, String path) {
+        return switch (tier.scope()) {
+            case GLOBAL -> "*";
+            case USER -> {
+                String userId = pathMatcher.extractUriTemplateVariables(tier.path(), path).get("userId");
+                yield userId != null ? "user:" + userId : client(request);
+            }
+            case CLIENT -> client(request);
+        };
+    }
+
+    private String client(HttpServletRequest request) {
+        String client = request.getHeader(clientHeader);
+        return client != null && !client.isBlank() ? "client:" + client : "addr:" + request.getRemoteAddr();
+    }
+
+    private void reject(HttpServletResponse response, long waitNanos) throws IOException {
+        long retryAfterSeconds = Math.max(1, (waitNanos + 999_999_999L) / 1_000_000_000L);
+        response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfterSeconds));
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        objectMapper.writeValue(response.getOutputStream(), GlobalExceptionHandler.errorBody(HttpStatus.TOO_MANY_REQUESTS,
+                "Rate limit exceeded. Retry after " + retryAfterSeconds + " seconds."));
+    }
+
+    private static Counter counter(MeterRegistry meterRegistry, RateLimitProperties.Tier tier, String outcome) {
+        return Counter.builder("library.ratelimit.requests")
+                .description("Requests checked against a rate limit tier")
+                .tag("tier", tier.name())
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+    }
+
+    private record CompiledTier(RateLimitProperties.Tier tier, Counter allowed, Counter rejected) {
+    }
+}
@@ -0,0 +1,40 @@
+package com.org.booklibrary.ratelimit;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.util.List;
+
+/**
+ * Rate limit tiers under {@code library.rate-limit}. Every tier whose method and Ant path pattern match
+ * a request takes a token from its bucket; the request is rejected if any bucket is empty.
+ * @param clientHeader header identifying the API client; requests without it are keyed by remote address.
+ * @param maxBuckets upper bound on the per-client and per-user buckets kept in memory.
+ */
+@ConfigurationProperties(prefix = "library.rate-limit")
+public record RateLimitProperties(@DefaultValue("false") boolean enabled,
+                                  @DefaultValue("X-Client-Id") String clientHeader,
+                                  @DefaultValue("100000") long maxBuckets,
+                                  List<Tier> tiers) {
+
+    public RateLimitProperties {
+        tiers = tiers == null ? List.of() : List.copyOf(tiers);
+    }
+
+    /**
+     * @param path Ant pattern; {@link Scope#USER} tiers key the bucket by its {@code {userId}} variable.
+     */
+    public record Tier(String name, String method, String path,
+                       @DefaultValue("CLIENT") Scope scope,
+                       int capacity, double refillPerSecond) {
+    }
+
+    public enum Scope {
+        /** One bucket shared by all callers. */
+        GLOBAL,
+        /** One bucket per API client. */
+        CLIENT,
+        /** One bucket per library user in the path. */
+        USER
+    }
+}
@@ -0,0 +1,56 @@
+package com.org.booklibrary.ratelimit;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Lock-free token bucket. Instead of a token count and a refill timestamp, the whole state is one
+ * long: the time at which the bucket would be full again (the generic cell rate algorithm).
+ * Taking a token pushes that time forward by one refill interval with a single CAS, and a request
+ * is rejected when that would put it more than {@code capacity} intervals ahead of now.
+ */
+public final class TokenBucket {
+
+    private final long intervalNanos;
+    private final long capacityNanos;
+    private final AtomicLong fullAt;
+
+    public TokenBucket(int capacity, double refillPerSecond, long nowNanos) {
+        if (capacity <= 0 || refillPerSecond <= 0) {
+            throw new IllegalArgumentException("Token bucket capacity and refill rate must be positive.");
+        }
+        this.intervalNanos = Math.max(1L, (long) (1_000_000_000L / refillPerSecond));
+        this.capacityNanos = intervalNanos * capacity;
+        this.fullAt = new AtomicLong(nowNanos);
+    }
+
+    /**
+     * Takes one token.
+     * @return {@code 0} if a token was taken, otherwise the nanoseconds until one will be available.
+     */
+    public long tryConsume(long nowNanos) {
+        while (true) {
+            long current = fullAt.get();
+            long next = Math.max(current, nowNanos) + intervalNanos;
+            long ahead = next - nowNanos;
+            if (ahead > capacityNanos) {
+                return ahead - capacityNanos;
+            }
+            if (fullAt.compareAndSet(current, next)) {
+                return 0;
+            }
+        }
+    }
+
+    /**
+     * Gives back a token taken by {@link #tryConsume(long)}, for a request that was turned away after all.
+     */
+    public void refund() {
+        // A time before now just means full, so giving back more than was taken never adds capacity
+        fullAt.addAndGet(-intervalNanos);
+    }
+
+    public int available(long nowNanos) {
+        long ahead = Math.max(0, fullAt.get() - nowNanos);
+        return (int) ((capacityNanos - ahead) / intervalNanos);
+    }
+}
@@ -0,0 +1,130 @@
+package com.org.booklibrary.replica;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Sends the connections of read-only transactions to a read replica and everything else to the primary.
+ * <p>
+ * A replica serves a read only if it is at most {@code maxLagMs} behind and, when the current thread has asked for
+ * it, has applied the position set by {@link #requireAppliedUpTo(long)}; replicas are tried round-robin and the
+ * read falls back to the primary when none qualifies. Work outside a read-only transaction, including the startup
+ * rebuilds of the in-memory indexes, always runs on the primary.
+ * <p>
+ * The transaction manager takes its connection before the transaction is marked read-only, so this has to sit
+ * behind a {@link LazyConnectionDataSourceProxy}, which defers the choice to the first statement.
+ * Reads are counted in {@code library.replica.reads}, tagged by target.
+ * <p>
+ * Rows read from a replica may be older than the caller's own writes, so they must not fill shared caches; those
+ * check {@link #lastConnectionToReplica()} before storing a result.
+ */
+public class ReadWriteRoutingDataSource extends AbstractRoutingDataSource {
+
+    static final String PRIMARY = "primary";
+
+    private static final ThreadLocal<Long> REQUIRED_POSITION = new ThreadLocal<>();
+    private static final ThreadLocal<Boolean> LAST_TO_REPLICA = new ThreadLocal<>();
+
+    private final int replicaCount;
+    private final String[] replicaKeys;
+    private final ReplicaPositions positions;
+    private final long maxLagMs;
+    private final AtomicInteger next = new AtomicInteger();
+    private final ObjectProvider<MeterRegistry> meterRegistry;
+    private volatile Counter replicaReads;
+    private volatile Counter primaryReads;
+
+    public ReadWriteRoutingDataSource(DataSource primary, List<? extends DataSource> replicas, ReplicaPositions positions,
+                                      long maxLagMs, ObjectProvider<MeterRegistry> meterRegistry) {
+        this.replicaCount = replicas.size();
+        this.replicaKeys = new String[replicaCount];
+        this.positions = positions;
+        this.maxLagMs = maxLagMs;
+        this.meterRegistry = meterRegistry;
+        Map<Object, Object> targets = new HashMap<>();
+        targets.put(PRIMARY, primary);
+        for (int i = 0; i < replicaCount; i++) {
+            replicaKeys[i] = "replica-" + i;
+            targets.put(replicaKeys[i], replicas.get(i));
+        }
+        setTargetDataSources(targets);
+        setDefaultTargetDataSource(primary);
+        setLenientFallback(false);
+    }
+
+    /**
+     * Read-only transactions of the current thread may only use replicas at or past the position,
+     * until {@link #clearRequiredPosition()}. {@link Long#MAX_VALUE} keeps them on the primary.
+     */
+    public static void requireAppliedUpTo(long position) {
+        REQUIRED_POSITION.set(position);
+    }
+
+    public static void clearRequiredPosition() {
+        REQUIRED_POSITION.remove();
+    }
+
+    /**
+     * Whether the last connection the current thread took, which is the one any query it just ran used, went to
+     * a replica.
+     */
+    public static boolean lastConnectionToReplica() {
+        return Boolean.TRUE.equals(LAST_TO_REPLICA.get());
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        Object key = lookupKey();
+        if (PRIMARY.equals(key)) {
+            LAST_TO_REPLICA.remove();
+        } else {
+            LAST_TO_REPLICA.set(Boolean.TRUE);
+        }
+        return key;
+    }
+
+    private Object lookupKey() {
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly() || replicaCount == 0) {
+            return PRIMARY;
+        }
+        Long required = REQUIRED_POSITION.get();
+        long position = System.currentTimeMillis() - maxLagMs;
+        if (required != null) {
+            position = Math.max(position, required);
+        }
+        int start = next.getAndIncrement();
+        for (int i = 0; i < replicaCount; i++) {
+            int replica = Math.floorMod(start + i, replicaCount);
+            if (positions.appliedUpTo(replica) >= position) {
+                count(true);
+                return replicaKeys[replica];
+            }
+        }
+        count(false);
+        return PRIMARY;
+    }
+
+    private void count(boolean replica) {
+        Counter counter = replica ? replicaReads : primaryReads;
+        if (counter == null) {
+            MeterRegistry registry = meterRegistry.getIfAvailable();
+            if (registry == null) {
+                return;
+            }
+            replicaReads = Counter.builder("library.replica.reads").tag("target", "replica").register(registry);
+            primaryReads = Counter.builder("library.replica.reads").tag("target", "primary").register(registry);
+            counter = replica ? replicaReads : primaryReads;
+        }
+        counter.increment();
+    }
+}
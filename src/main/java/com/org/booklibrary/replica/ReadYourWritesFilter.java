@@ -0,0 +1,72 @@
+package com.org.booklibrary.replica;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.time.Duration;
+
+/**
+ * Gives every API client read-your-writes on top of {@link ReadWriteRoutingDataSource}.
+ * <p>
+ * A request other than GET, HEAD or OPTIONS runs entirely on the primary, so a read right after its own write sees
+ * it, and its end time is remembered for the client. The client's later reads only use replicas past that time,
+ * so a borrow is visible in the next listing of the user's loans whatever the replica lag. Once the last write is
+ * older than the maximum lag, every replica that may serve reads at all is past it and the entry is dropped.
+ */
+public class ReadYourWritesFilter extends OncePerRequestFilter {
+
+    private final String clientHeader;
+    private final Cache<String, Long> lastWrites;
+
+    public ReadYourWritesFilter(ReplicaProperties properties) {
+        this.clientHeader = properties.clientHeader();
+        this.lastWrites = Caffeine.newBuilder()
+                .maximumSize(properties.maxClients())
+                .expireAfterWrite(Duration.ofMillis(properties.maxLagMs()))
+                .build();
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        String client = client(request);
+        if (!isRead(request.getMethod())) {
+            ReadWriteRoutingDataSource.requireAppliedUpTo(Long.MAX_VALUE);
+            try {
+                chain.doFilter(request, response);
+            } finally {
+                ReadWriteRoutingDataSource.clearRequiredPosition();
+                // Taken after the transactions of the request committed
+                lastWrites.put(client, System.currentTimeMillis());
+            }
+            return;
+        }
+        Long lastWrite = lastWrites.getIfPresent(client);
+        if (lastWrite == null) {
+            chain.doFilter(request, response);
+            return;
+        }
+        // Positions count commits that finished strictly before them
+        ReadWriteRoutingDataSource.requireAppliedUpTo(lastWrite + 1);
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            ReadWriteRoutingDataSource.clearRequiredPosition();
+        }
+    }
+
+    private static boolean isRead(String method) {
+        return "GET".equals(method) || "HEAD".equals(method) || "OPTIONS".equals(method);
+    }
+
+    private String client(HttpServletRequest request) {
+        String client = request.getHeader(clientHeader);
+        return client != null && !client.isBlank() ? "client:" + client : "addr:" + request.getRemoteAddr();
+    }
+}
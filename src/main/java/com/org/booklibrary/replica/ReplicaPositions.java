@@ -0,0 +1,15 @@
+package com.org.booklibrary.replica;
+
+/**
+ * How far each read replica has caught up with the primary, as a primary timestamp in epoch milliseconds:
+ * every transaction that had committed on the primary before that instant is visible on the replica.
+ * The lag of a replica is the time since its position.
+ */
+@FunctionalInterface
+public interface ReplicaPositions {
+
+    /**
+     * The position of the replica at {@code index} in {@code library.replicas.urls}, or -1 while unknown.
+     */
+    long appliedUpTo(int index);
+}
@@ -0,0 +1,38 @@
+package com.org.booklibrary.replica;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.util.List;
+
+/**
+ * Read replicas under {@code library.replicas}. They use the {@code spring.datasource} driver, credentials and
+ * Hikari settings of the primary.
+ * @param maxLagMs replicas further behind the primary than this serve no reads.
+ * @param assumedLagMs the lag taken for every replica when nothing reports real positions; a client's reads
+ *                     stay on the primary for this long after its last write.
+ * @param clientHeader header identifying the API client for read-your-writes; requests without it are keyed by
+ *                     remote address.
+ * @param maxClients upper bound on the clients whose last write is remembered.
+ */
+@ConfigurationProperties(prefix = "library.replicas")
+public record ReplicaProperties(@DefaultValue("false") boolean enabled,
+                                List<String> urls,
+                                @DefaultValue("5000") long maxLagMs,
+                                @DefaultValue("1000") long assumedLagMs,
+                                @DefaultValue("X-Client-Id") String clientHeader,
+                                @DefaultValue("100000") long maxClients,
+                                @DefaultValue StandIn standIn) {
+
+    public ReplicaProperties {
+        urls = urls == null ? List.of() : List.copyOf(urls);
+    }
+
+    /**
+     * In-process replication for local runs and tests, see {@link ReplicationStandIn}.
+     * @param intervalMs time between two copies, which bounds the lag of the replicas.
+     */
+    public record StandIn(@DefaultValue("false") boolean enabled,
+                          @DefaultValue("200") long intervalMs) {
+    }
+}
@@ -0,0 +1,160 @@
+package com.org.booklibrary.replica;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Stands in for database replication when the primary and the replicas are H2 databases in one JVM, so routing
+ * and read-your-writes can be run locally. Every {@code library.replicas.stand-in.interval-ms} it copies a
+ * consistent snapshot of the primary into each replica in one replica transaction, which readers on the replica
+ * see all at once. The position of a replica is the time the snapshot was taken.
+ * <p>
+ * The schema is copied with the first snapshot; foreign keys are not checked on the replicas, which only
+ * receive rows the primary already checked. An in-memory replica needs {@code DB_CLOSE_DELAY=-1} in its url, or it
+ * disappears between two copies. Every copy reads whole tables: this is for development data, not for production
+ * volumes.
+ */
+@Slf4j
+public class ReplicationStandIn implements ReplicaPositions {
+
+    private static final int BATCH_SIZE = 500;
+
+    private final DataSource primary;
+    private final List<DataSource> replicas;
+    private final AtomicLongArray appliedUpTo;
+    private final boolean[] schemaCopied;
+
+    /**
+     * @param primary and {@code replicas} should hand out unpooled connections: the copy changes their isolation level.
+     */
+    public ReplicationStandIn(DataSource primary, List<DataSource> replicas) {
+        this.primary = primary;
+        this.replicas = List.copyOf(replicas);
+        this.appliedUpTo = new AtomicLongArray(replicas.size());
+        this.schemaCopied = new boolean[replicas.size()];
+        for (int i = 0; i < replicas.size(); i++) {
+            appliedUpTo.set(i, -1);
+        }
+    }
+
+    @Override
+    public long appliedUpTo(int index) {
+        return appliedUpTo.get(index);
+    }
+
+    @Scheduled(fixedDelayString = "${library.replicas.stand-in.interval-ms:200}")
+    public synchronized void replicate() {
+        try {
+            for (int i = 0; i < replicas.size(); i++) {
+                if (!schemaCopied[i]) {
+                    copySchema(replicas.get(i));
+                    schemaCopied[i] = true;
+                }
+            }
+            // Taken before the snapshot, so it only counts commits that finished before the snapshot started
+            long position = System.currentTimeMillis();
+            try (Connection source = primary.getConnection()) {
+                try (Statement statement = source.createStatement()) {
+                    statement.execute("SET SESSION CHARACTERISTICS AS TRANSACTION ISOLATION LEVEL SNAPSHOT");
+                }
+                source.setAutoCommit(false);
+                List<String> tables = tables(source);
+                for (int i = 0; i < replicas.size(); i++) {
+                    copyData(source, tables, replicas.get(i));
+                    appliedUpTo.set(i, position);
+                }
+                source.commit();
+            }
+        } catch (SQLException e) {
+            log.warn("Replication stand-in failed; the replicas keep their last position.", e);
+        }
+    }
+
+    private void copySchema(DataSource replica) throws SQLException {
+        List<String> script = new ArrayList<>();
+        try (Connection source = primary.getConnection();
+             Statement statement = source.createStatement();
+             ResultSet rows = statement.executeQuery("SCRIPT NODATA")) {
+            while (rows.next()) {
+                String sql = rows.getString(1);
+                if (!sql.startsWith("--")) {
+                    script.add(sql);
+                }
+            }
+        }
+        try (Connection target = replica.getConnection();
+             Statement statement = target.createStatement()) {
+            statement.execute("DROP ALL OBJECTS");
+            for (String sql : script) {
+                statement.execute(sql);
+            }
+            statement.execute("SET REFERENTIAL_INTEGRITY FALSE");
+        }
+        log.info("Replication stand-in copied {} schema statements to a replica.", script.size());
+    }
+
+    private static List<String> tables(Connection source) throws SQLException {
+        List<String> tables = new ArrayList<>();
+        try (Statement statement = source.createStatement();
+             ResultSet rows = statement.executeQuery("select table_name from information_schema.tables "
+                     + "where table_schema = 'PUBLIC' and table_type = 'BASE TABLE'")) {
+            while (rows.next()) {
+                tables.add("\"PUBLIC\".\"" + rows.getString(1) + '"');
+            }
+        }
+        return tables;
+    }
+
+    private static void copyData(Connection source, List<String> tables, DataSource replica) throws SQLException {
+        try (Connection target = replica.getConnection()) {
+            target.setAutoCommit(false);
+            try {
+                for (String table : tables) {
+                    copyTable(source, target, table);
+                }
+                target.commit();
+            } catch (SQLException e) {
+                target.rollback();
+                throw e;
+            }
+        }
+    }
+
+    private static void copyTable(Connection source, Connection target, String table) throws SQLException {
+        try (Statement delete = target.createStatement()) {
+            delete.executeUpdate("delete from " + table);
+        }
+        try (Statement select = source.createStatement();
+             ResultSet rows = select.executeQuery("select * from " + table)) {
+            int columns = rows.getMetaData().getColumnCount();
+            String insert = "insert into " + table + " values (" + String.join(", ", Collections.nCopies(columns, "?")) + ")";
+            try (PreparedStatement statement = target.prepareStatement(insert)) {
+                int batched = 0;
+                while (rows.next()) {
+                    for (int column = 1; column <= columns; column++) {
+                        statement.setObject(column, rows.getObject(column));
+                    }
+                    statement.addBatch();
+                    if (++batched == BATCH_SIZE) {
+                        statement.executeBatch();
+                        batched = 0;
+                    }
+                }
+                if (batched > 0) {
+                    statement.executeBatch();
+                }
+            }
+        }
+    }
+}
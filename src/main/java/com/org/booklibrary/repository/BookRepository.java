@@ -1,17 +1,74 @@
 package com.org.booklibrary.repository;
 
+import com.org.booklibrary.configuration.CacheConfig;
+import com.org.booklibrary.dto.BookView;
 import com.org.booklibrary.entity.Book;
+import jakarta.persistence.QueryHint;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+import static org.hibernate.jpa.HibernateHints.HINT_FETCH_SIZE;
 
 @Repository
 public interface BookRepository extends JpaRepository<Book, Long> {
 
+    String OPEN_LOANS = "(select count(r) from BorrowingRecord r where r.book = b and r.returnDate is null)";
+
+    String SELECT_VIEW = "select new com.org.booklibrary.dto.BookView(b.id, b.title, b.author, b.isbn, "
+            + "b.publicationYear, b.totalCopies, b.availableCopies, b.version) from Book b";
+
+    @Override
+    @Cacheable(cacheNames = CacheConfig.BOOKS, unless = CacheConfig.UNLESS_MISS_OR_REPLICA)
+    Optional<Book> findById(Long id);
+
+    /**
+     * Loads the book bypassing the cache, for callers that modify and save it.
+     */
+    @Query("select b from Book b where b.id = :id")
+    Optional<Book> findFreshById(@Param("id") Long id);
+
+    @Override
+    @CacheEvict(cacheNames = CacheConfig.BOOKS, key = "#result.id")
+    <S extends Book> S save(S book);
+
+    @Override
+    @CacheEvict(cacheNames = CacheConfig.BOOKS)
+    void deleteById(Long id);
+
     List<Book> findByTitleContainingIgnoreCase(String title);
 
     List<Book> findByAuthorContainingIgnoreCase(String author);
 
-    List<Book> findByIsbn(String isbn);
+    Optional<Book> findByIsbnKey(Long isbnKey);
+
+    @Query(SELECT_VIEW + " order by b.id")
+    List<BookView> findAllViews();
+
+    @Query(SELECT_VIEW + " where b.id > :afterId order by b.id")
+    List<BookView> findViewsAfter(@Param("afterId") Long afterId, Limit limit);
+
+    @QueryHints(@QueryHint(name = HINT_FETCH_SIZE, value = "500"))
+    @Query(SELECT_VIEW + " order by b.id")
+    Stream<BookView> streamAllViews();
+
+    /**
+     * Sets the available copies of every book whose count disagrees with its open loans to total copies minus
+     * open loans, bumping the version. Bypasses the cache, so only for startup.
+     * @return the number of books corrected.
+     */
+    @Modifying
+    @Query("update versioned Book b set b.availableCopies = b.totalCopies - " + OPEN_LOANS
+            + " where b.availableCopies <> b.totalCopies - " + OPEN_LOANS + " and b.totalCopies >= " + OPEN_LOANS)
+    int reconcileAvailableCopies();
 }
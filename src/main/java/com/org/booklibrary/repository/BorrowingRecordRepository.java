@@ -1,20 +1,69 @@
 package com.org.booklibrary.repository;
 
+import com.org.booklibrary.dto.BorrowingRecordView;
+import com.org.booklibrary.dto.DailyLoans;
+import com.org.booklibrary.dto.LoanCount;
 import com.org.booklibrary.entity.Book;
 import com.org.booklibrary.entity.BorrowingRecord;
 import com.org.booklibrary.entity.User;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
 import java.util.Optional;
 
 @Repository
-public interface BorrowingRecordRepository extends JpaRepository<BorrowingRecord, Long> {
+public interface BorrowingRecordRepository extends JpaRepository<BorrowingRecord, Long>, BorrowingRecordViewQueries {
 
+    String SELECT_VIEW = "select new com.org.booklibrary.dto.BorrowingRecordView(r.id, b.id, b.title, u.id, u.username, "
+            + "r.borrowDate, r.returnDate) from BorrowingRecord r join r.book b join r.user u";
+
+    @Override
+    @EntityGraph(BorrowingRecord.WITH_BOOK_AND_USER)
+    Optional<BorrowingRecord> findById(Long id);
+
+    @Override
+    @EntityGraph(BorrowingRecord.WITH_BOOK_AND_USER)
+    List<BorrowingRecord> findAll();
+
+    @EntityGraph(BorrowingRecord.WITH_BOOK_AND_USER)
     List<BorrowingRecord> findByUser(User user);
 
+    @EntityGraph(BorrowingRecord.WITH_BOOK_AND_USER)
     List<BorrowingRecord> findByBook(Book book);
 
+    @EntityGraph(BorrowingRecord.WITH_BOOK_AND_USER)
     Optional<BorrowingRecord> findByUserAndBookAndReturnDateIsNull(User user, Book book);
+
+    /**
+     * Whether an open loan exists for the key built by {@link BorrowingRecord#openLoanKey(Long, Long)}.
+     * Answered from the open-loan unique index without loading a record.
+     */
+    boolean existsByOpenLoanKey(String openLoanKey);
+
+    @Query(SELECT_VIEW + " order by r.id")
+    List<BorrowingRecordView> findAllViews();
+
+    @Query(SELECT_VIEW + " where r.returnDate is null")
+    List<BorrowingRecordView> findOpenViews();
+
+    @Query("select new com.org.booklibrary.dto.DailyLoans(r.borrowDate, count(r)) from BorrowingRecord r group by r.borrowDate")
+    List<DailyLoans> countLoansPerDay();
+
+    @Query("select new com.org.booklibrary.dto.LoanCount(r.book.id, count(r)) from BorrowingRecord r group by r.book.id")
+    List<LoanCount> countLoansPerBook();
+
+    @Query("select new com.org.booklibrary.dto.LoanCount(r.user.id, count(r)) from BorrowingRecord r group by r.user.id")
+    List<LoanCount> countLoansPerUser();
+
+    long countByReturnDateIsNull();
+
+    @Query(SELECT_VIEW + " where u.id = :userId order by r.id")
+    List<BorrowingRecordView> findViewsByUserId(@Param("userId") Long userId);
+
+    @Query(SELECT_VIEW + " where b.id = :bookId order by r.id")
+    List<BorrowingRecordView> findViewsByBookId(@Param("bookId") Long bookId);
 }
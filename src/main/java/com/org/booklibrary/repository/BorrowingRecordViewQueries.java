@@ -0,0 +1,26 @@
+package com.org.booklibrary.repository;
+
+import com.org.booklibrary.dto.BorrowingRecordFilter;
+import com.org.booklibrary.dto.BorrowingRecordView;
+import org.springframework.data.domain.Limit;
+
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Loan history queries over a {@link BorrowingRecordFilter}. Each query holds a predicate for the criteria that are
+ * set only, so the database can use the index on those columns instead of evaluating a
+ * {@code (:x is null or ...)} predicate on every row.
+ */
+public interface BorrowingRecordViewQueries {
+
+    /**
+     * One keyset page of the records matching the filter, ordered by id.
+     */
+    List<BorrowingRecordView> findViewsAfter(Long afterId, BorrowingRecordFilter filter, Limit limit);
+
+    /**
+     * The records matching the filter, ordered by id; the caller closes the stream inside its transaction.
+     */
+    Stream<BorrowingRecordView> streamViews(BorrowingRecordFilter filter);
+}
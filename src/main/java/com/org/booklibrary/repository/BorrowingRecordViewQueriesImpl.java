@@ -0,0 +1,66 @@
+package com.org.booklibrary.repository;
+
+import com.org.booklibrary.dto.BorrowingRecordFilter;
+import com.org.booklibrary.dto.BorrowingRecordView;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.TypedQuery;
+import org.springframework.data.domain.Limit;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+import static org.hibernate.jpa.HibernateHints.HINT_FETCH_SIZE;
+
+class BorrowingRecordViewQueriesImpl implements BorrowingRecordViewQueries {
+
+    private final EntityManager entityManager;
+
+    BorrowingRecordViewQueriesImpl(EntityManager entityManager) {
+        this.entityManager = entityManager;
+    }
+
+    @Override
+    public List<BorrowingRecordView> findViewsAfter(Long afterId, BorrowingRecordFilter filter, Limit limit) {
+        TypedQuery<BorrowingRecordView> query = query(afterId, filter);
+        if (limit.isLimited()) {
+            query.setMaxResults(limit.max());
+        }
+        return query.getResultList();
+    }
+
+    @Override
+    public Stream<BorrowingRecordView> streamViews(BorrowingRecordFilter filter) {
+        return query(null, filter).setHint(HINT_FETCH_SIZE, 500).getResultStream();
+    }
+
+    private TypedQuery<BorrowingRecordView> query(Long afterId, BorrowingRecordFilter filter) {
+        List<String> conditions = new ArrayList<>();
+        Map<String, Object> parameters = new LinkedHashMap<>();
+        where(conditions, parameters, "r.id >", "afterId", afterId);
+        where(conditions, parameters, "u.id =", "userId", filter.userId());
+        where(conditions, parameters, "b.id =", "bookId", filter.bookId());
+        where(conditions, parameters, "r.borrowDate >=", "borrowedFrom", filter.borrowedFrom());
+        where(conditions, parameters, "r.borrowDate <=", "borrowedTo", filter.borrowedTo());
+        where(conditions, parameters, "r.returnDate >=", "returnedFrom", filter.returnedFrom());
+        where(conditions, parameters, "r.returnDate <=", "returnedTo", filter.returnedTo());
+
+        StringBuilder jpql = new StringBuilder(BorrowingRecordRepository.SELECT_VIEW);
+        if (!conditions.isEmpty()) {
+            jpql.append(" where ").append(String.join(" and ", conditions));
+        }
+        jpql.append(" order by r.id");
+        TypedQuery<BorrowingRecordView> query = entityManager.createQuery(jpql.toString(), BorrowingRecordView.class);
+        parameters.forEach(query::setParameter);
+        return query;
+    }
+
+    private static void where(List<String> conditions, Map<String, Object> parameters, String condition, String name, Object value) {
+        if (value != null) {
+            conditions.add(condition + " :" + name);
+            parameters.put(name, value);
+        }
+    }
+}
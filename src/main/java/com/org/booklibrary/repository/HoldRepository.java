@@ -0,0 +1,54 @@
+package com.org.booklibrary.repository;
+
+import com.org.booklibrary.dto.HoldView;
+import com.org.booklibrary.entity.Hold;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Holds are only read as {@link HoldView}s, so the status changes below can be bulk updates: there are no
+ * managed {@link Hold} entities they could leave stale. Each change is conditional on the hold still waiting,
+ * and its row count says whether this caller won the hold.
+ */
+@Repository
+public interface HoldRepository extends JpaRepository<Hold, Long> {
+
+    String SELECT_VIEW = "select new com.org.booklibrary.dto.HoldView(h.id, h.book.id, h.user.id, h.priority, h.status, "
+            + "h.placedAt, h.closedAt, h.borrowingRecordId) from Hold h";
+
+    @Query(SELECT_VIEW + " where h.id = :id")
+    Optional<HoldView> findViewById(@Param("id") Long id);
+
+    @Query(SELECT_VIEW + " where h.waitingKey = :waitingKey")
+    Optional<HoldView> findViewByWaitingKey(@Param("waitingKey") String waitingKey);
+
+    /**
+     * The waitlist of the book in serving order, read from {@code idx_book_hold_queue}.
+     */
+    @Query(SELECT_VIEW + " where h.book.id = :bookId and h.status = com.org.booklibrary.entity.Hold$Status.WAITING"
+            + " order by h.priority desc, h.id")
+    List<HoldView> findWaitingViews(@Param("bookId") Long bookId, Limit limit);
+
+    @Query("select count(h) from Hold h where h.book.id = :bookId and h.status = com.org.booklibrary.entity.Hold$Status.WAITING"
+            + " and (h.priority > :priority or (h.priority = :priority and h.id < :id))")
+    long countAhead(@Param("bookId") Long bookId, @Param("priority") int priority, @Param("id") Long id);
+
+    boolean existsByWaitingKey(String waitingKey);
+
+    @Modifying
+    @Query("update Hold h set h.status = :status, h.closedAt = :closedAt, h.waitingKey = null"
+            + " where h.id = :id and h.status = com.org.booklibrary.entity.Hold$Status.WAITING")
+    int close(@Param("id") Long id, @Param("status") Hold.Status status, @Param("closedAt") Instant closedAt);
+
+    @Modifying
+    @Query("update Hold h set h.borrowingRecordId = :recordId where h.id = :id")
+    int attachRecord(@Param("id") Long id, @Param("recordId") Long recordId);
+}
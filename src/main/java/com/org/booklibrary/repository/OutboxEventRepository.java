@@ -0,0 +1,44 @@
+package com.org.booklibrary.repository;
+
+import com.org.booklibrary.dto.ChangeEvent;
+import com.org.booklibrary.entity.OutboxEvent;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface OutboxEventRepository extends JpaRepository<OutboxEvent, Long> {
+
+    String SELECT_CHANGE = "select new com.org.booklibrary.dto.ChangeEvent(e.deliverySequence, e.aggregateType, e.aggregateId, "
+            + "e.eventType, e.occurredAt, e.payload) from OutboxEvent e";
+
+    /**
+     * Rows already given a delivery sequence come first, in that order, so a batch that failed is sent again as it was.
+     */
+    @Query("select e from OutboxEvent e where e.publishedAt is null order by e.deliverySequence nulls last, e.id")
+    List<OutboxEvent> findUnpublished(Limit limit);
+
+    @Query("select max(e.deliverySequence) from OutboxEvent e")
+    Long findLastDeliverySequence();
+
+    @Query(SELECT_CHANGE + " where e.deliverySequence > :afterSequence order by e.deliverySequence")
+    List<ChangeEvent> findChangesAfter(@Param("afterSequence") Long afterSequence, Limit limit);
+
+    @Transactional
+    @Modifying
+    @Query("update OutboxEvent e set e.publishedAt = :publishedAt where e.id in :ids")
+    int markPublished(@Param("ids") Collection<Long> ids, @Param("publishedAt") Instant publishedAt);
+
+    @Transactional
+    @Modifying
+    @Query("delete from OutboxEvent e where e.publishedAt < :cutoff")
+    int deletePublishedBefore(@Param("cutoff") Instant cutoff);
+}
@@ -0,0 +1,22 @@
+package com.org.booklibrary.repository;
+
+import com.org.booklibrary.entity.OutboxSequence;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Optional;
+
+@Repository
+public interface OutboxSequenceRepository extends JpaRepository<OutboxSequence, Long> {
+
+    /**
+     * Reads the row with a write lock held until the surrounding transaction ends.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select s from OutboxSequence s where s.id = :id")
+    Optional<OutboxSequence> findForUpdate(@Param("id") Long id);
+}
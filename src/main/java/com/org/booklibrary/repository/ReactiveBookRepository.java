@@ -0,0 +1,36 @@
+package com.org.booklibrary.repository;
+
+import com.org.booklibrary.dto.BookView;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.r2dbc.repository.Query;
+import org.springframework.data.r2dbc.repository.R2dbcRepository;
+import org.springframework.data.relational.core.mapping.Table;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+
+/**
+ * Non-blocking reads of the {@code book} table over R2DBC, for the reactive read path.
+ * Rows are emitted as the subscriber requests them, so a slow client holds back the query instead of
+ * the rows piling up in memory. Writes stay on {@link BookRepository}.
+ */
+@Repository
+public interface ReactiveBookRepository extends R2dbcRepository<ReactiveBookRepository.BookRow, Long> {
+
+    @Query("select * from book where id > :afterId order by id limit :limit")
+    Flux<BookRow> findPageAfter(long afterId, int limit);
+
+    @Query("select * from book order by id")
+    Flux<BookRow> streamAll();
+
+    /**
+     * The {@code book} columns as R2DBC maps them; only converted to {@link BookView} on the way out.
+     */
+    @Table("book")
+    record BookRow(@Id Long id, String title, String author, String isbn, Integer publicationYear,
+                   Integer totalCopies, Integer availableCopies, Long version) {
+
+        public BookView toView() {
+            return new BookView(id, title, author, isbn, publicationYear, totalCopies, availableCopies, version);
+        }
+    }
+}
@@ -1,9 +1,26 @@
 package com.org.booklibrary.repository;
 
+import com.org.booklibrary.configuration.CacheConfig;
 import com.org.booklibrary.entity.User;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.stereotype.Repository;
 
+import java.util.Optional;
+
 @Repository
 public interface UserRepository extends JpaRepository<User, Long> {
+
+    @Override
+    @Cacheable(cacheNames = CacheConfig.USERS, unless = CacheConfig.UNLESS_MISS_OR_REPLICA)
+    Optional<User> findById(Long id);
+
+    @Override
+    @CacheEvict(cacheNames = CacheConfig.USERS, key = "#result.id")
+    <S extends User> S save(S user);
+
+    @Override
+    @CacheEvict(cacheNames = CacheConfig.USERS)
+    void deleteById(Long id);
 }
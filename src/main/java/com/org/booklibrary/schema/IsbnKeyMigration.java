@@ -0,0 +1,62 @@
+package com.org.booklibrary.schema;
+
+import com.org.booklibrary.isbn.Isbn;
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManagerFactory;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Gives books written before ISBNs were normalized their {@code isbn_key}, and rewrites their ISBN as its 13 digits.
+ * Where several books share an ISBN only the oldest gets the key; those and books with an invalid ISBN are logged
+ * and keep working, but are not found by ISBN until they are corrected. Runs once at startup, after the schema
+ * is in place, and only reads the books that have no key yet.
+ */
+@Slf4j
+@Component
+public class IsbnKeyMigration {
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * Takes the {@link EntityManagerFactory} only to run after Hibernate or Flyway has updated the schema.
+     */
+    @Autowired
+    public IsbnKeyMigration(JdbcTemplate jdbcTemplate, EntityManagerFactory entityManagerFactory) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @PostConstruct
+    public void migrate() {
+        Integer pending = jdbcTemplate.queryForObject("select count(*) from book where isbn_key is null", Integer.class);
+        if (pending == null || pending == 0) {
+            return;
+        }
+        Set<Long> taken = new HashSet<>(jdbcTemplate.queryForList("select isbn_key from book where isbn_key is not null", Long.class));
+        List<Object[]> updates = new ArrayList<>();
+        int[] skipped = new int[1];
+        jdbcTemplate.query("select id, isbn from book where isbn_key is null order by id", (RowCallbackHandler) rs -> {
+            long key = Isbn.tryParse(rs.getString(2));
+            if (key < 0 || !taken.add(key)) {
+                skipped[0]++;
+            } else {
+                updates.add(new Object[]{key, Isbn.format(key), rs.getLong(1)});
+            }
+        });
+        if (!updates.isEmpty()) {
+            jdbcTemplate.batchUpdate("update book set isbn_key = ?, isbn = ? where id = ?", updates);
+            log.info("Normalized the ISBN of {} books.", updates.size());
+        }
+        if (skipped[0] > 0) {
+            log.warn("{} books have an invalid or duplicate ISBN and cannot be found by ISBN.", skipped[0]);
+        }
+    }
+}
@@ -0,0 +1,92 @@
+package com.org.booklibrary.schema;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManagerFactory;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.sql.DatabaseMetaData;
+import java.sql.ResultSet;
+import java.util.Locale;
+
+/**
+ * Brings borrowing records written before the open-loan key existed up to date.
+ * Hibernate's schema update adds the {@code open_loan_key} column and the indexes; this fills the key
+ * for records that are still open and then makes sure the unique index is in place (Hibernate skips it
+ * quietly when legacy data already violated it). Runs once at startup, before the web server takes traffic,
+ * and is a no-op on an up-to-date schema.
+ * <p>
+ * Where legacy data holds several open loans for the same user and book only the oldest gets the key;
+ * the others are logged and stay returnable, but no longer block the duplicate-borrow check.
+ * <p>
+ * Schemas managed by Flyway (the {@code durable} profile) have the key from their first migration,
+ * so this only runs when Hibernate owns the schema.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "spring.flyway.enabled", havingValue = "false")
+public class OpenLoanKeyMigration {
+
+    static final String TABLE = "borrowing_record";
+    static final String COLUMN = "open_loan_key";
+    static final String CONSTRAINT = "uk_borrowing_record_open_loan";
+
+    private static final String BACKFILL = """
+            update borrowing_record r
+               set open_loan_key = concat(r.user_id, ':', r.book_id)
+             where r.return_date is null
+               and r.open_loan_key is null
+               and r.id = (select min(o.id) from borrowing_record o
+                            where o.user_id = r.user_id and o.book_id = r.book_id and o.return_date is null)
+               and not exists (select 1 from borrowing_record k
+                                where k.open_loan_key = concat(r.user_id, ':', r.book_id))
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * Takes the {@link EntityManagerFactory} only to run after Hibernate has updated the schema.
+     */
+    @Autowired
+    public OpenLoanKeyMigration(JdbcTemplate jdbcTemplate, EntityManagerFactory entityManagerFactory) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @PostConstruct
+    public void migrate() {
+        int updated = jdbcTemplate.update(BACKFILL);
+        if (updated > 0) {
+            log.info("Backfilled the open-loan key of {} borrowing records.", updated);
+        }
+        Integer duplicates = jdbcTemplate.queryForObject(
+                "select count(*) from borrowing_record where return_date is null and open_loan_key is null", Integer.class);
+        if (duplicates != null && duplicates > 0) {
+            log.warn("{} open borrowing records duplicate another open loan of the same user and book.", duplicates);
+        }
+        if (!hasUniqueIndexOnOpenLoanKey()) {
+            jdbcTemplate.execute("alter table " + TABLE + " add constraint " + CONSTRAINT + " unique (" + COLUMN + ")");
+            log.info("Created unique index {} on {}.{}.", CONSTRAINT, TABLE, COLUMN);
+        }
+    }
+
+    private boolean hasUniqueIndexOnOpenLoanKey() {
+        Boolean found = jdbcTemplate.execute((ConnectionCallback<Boolean>) connection -> {
+            DatabaseMetaData metaData = connection.getMetaData();
+            for (String table : new String[]{TABLE, TABLE.toUpperCase(Locale.ROOT)}) {
+                try (ResultSet indexes = metaData.getIndexInfo(null, null, table, true, false)) {
+                    while (indexes.next()) {
+                        if (COLUMN.equalsIgnoreCase(indexes.getString("COLUMN_NAME"))) {
+                            return true;
+                        }
+                    }
+                }
+            }
+            return false;
+        });
+        return Boolean.TRUE.equals(found);
+    }
+}
@@ -0,0 +1,254 @@
+package com.org.booklibrary.search;
+
+import com.org.booklibrary.dto.BookView;
+import com.org.booklibrary.entity.Book;
+import com.org.booklibrary.event.BookChangedEvent;
+import com.org.booklibrary.isbn.Isbn;
+import com.org.booklibrary.repository.BookRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * In-memory trigram index over book title, author and ISBN.
+ * Title and author queries keep the case-insensitive "contains" semantics of the old LIKE queries:
+ * trigram postings narrow the candidates and each candidate is then verified against the stored text.
+ * ISBN queries are exact matches on the ISBN with hyphens and spaces removed; a valid ISBN-10 is compared as its ISBN-13.
+ * Entries hold immutable {@link BookView}s, so results are handed out without copying.
+ */
+@Slf4j
+@Component
+public class BookSearchIndex {
+
+    private static final int GRAM = 3;
+
+    private final BookRepository bookRepository;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<Long, Entry> entries = new TreeMap<>();
+    private final Map<String, Set<Long>> titleGrams = new HashMap<>();
+    private final Map<String, Set<Long>> authorGrams = new HashMap<>();
+    private final Map<String, Set<Long>> isbns = new HashMap<>();
+
+    @Autowired
+    public BookSearchIndex(BookRepository bookRepository) {
+        this.bookRepository = bookRepository;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        List<BookView> books;
+        // Queried under the lock: a change committed meanwhile waits for it and is applied on top, not wiped by the clear
+        lock.writeLock().lock();
+        try {
+            books = bookRepository.findAllViews();
+            entries.clear();
+            titleGrams.clear();
+            authorGrams.clear();
+            isbns.clear();
+            books.forEach(this::put);
+        } finally {
+            lock.writeLock().unlock();
+        }
+        log.info("Book search index built with {} books.", books.size());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onBookChanged(BookChangedEvent event) {
+        if (event.type() == BookChangedEvent.Type.DELETED) {
+            remove(event.bookId());
+        } else {
+            index(event.book());
+        }
+    }
+
+    public void index(Book book) {
+        BookView view = BookView.of(book);
+        lock.writeLock().lock();
+        try {
+            removeEntry(view.id());
+            put(view);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(Long bookId) {
+        lock.writeLock().lock();
+        try {
+            removeEntry(bookId);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return entries.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Returns the books matching every non-blank criterion, ordered by id.
+     * With no criteria at all every indexed book is returned.
+     */
+    public List<BookView> search(String title, String author, String isbn) {
+        String titleQuery = isBlank(title) ? null : normalizeText(title);
+        String authorQuery = isBlank(author) ? null : normalizeText(author);
+        String isbnQuery = isBlank(isbn) ? null : normalizeIsbn(isbn);
+
+        lock.readLock().lock();
+        try {
+            Collection<Long> candidates = null;
+            if (isbnQuery != null) {
+                candidates = isbns.getOrDefault(isbnQuery, Set.of());
+            }
+            if (titleQuery != null) {
+                candidates = narrow(candidates, titleGrams, titleQuery);
+            }
+            if (authorQuery != null) {
+                candidates = narrow(candidates, authorGrams, authorQuery);
+            }
+            if (candidates == null) {
+                candidates = entries.keySet();
+            }
+
+            List<BookView> result = new ArrayList<>();
+            for (Long id : candidates) {
+                Entry entry = entries.get(id);
+                if (entry != null && entry.matches(titleQuery, authorQuery, isbnQuery)) {
+                    result.add(entry.book);
+                }
+            }
+            result.sort((a, b) -> Long.compare(a.id(), b.id()));
+            return result;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private Collection<Long> narrow(Collection<Long> candidates, Map<String, Set<Long>> postings, String query) {
+        if (query.length() < GRAM) {
+            return candidates;
+        }
+        Set<Long> smallest = null;
+        for (String gram : grams(query)) {
+            Set<Long> ids = postings.get(gram);
+            if (ids == null) {
+                return Set.of();
+            }
+            if (smallest == null || ids.size() < smallest.size()) {
+                smallest = ids;
+            }
+        }
+        if (candidates == null) {
+            return smallest;
+        }
+        Collection<Long> outer = candidates.size() <= smallest.size() ? candidates : smallest;
+        Collection<Long> inner = outer == candidates ? smallest : candidates;
+        List<Long> intersection = new ArrayList<>();
+        for (Long id : outer) {
+            if (inner.contains(id)) {
+                intersection.add(id);
+            }
+        }
+        return intersection;
+    }
+
+    private void put(BookView book) {
+        Entry entry = new Entry(book, normalizeText(book.title()),
+                normalizeText(book.author()), normalizeIsbn(book.isbn()));
+        entries.put(book.id(), entry);
+        addPostings(titleGrams, entry.title, book.id());
+        addPostings(authorGrams, entry.author, book.id());
+        if (!entry.isbn.isEmpty()) {
+            isbns.computeIfAbsent(entry.isbn, k -> new HashSet<>()).add(book.id());
+        }
+    }
+
+    private void removeEntry(Long bookId) {
+        Entry entry = entries.remove(bookId);
+        if (entry == null) {
+            return;
+        }
+        removePostings(titleGrams, entry.title, bookId);
+        removePostings(authorGrams, entry.author, bookId);
+        Set<Long> ids = isbns.get(entry.isbn);
+        if (ids != null && ids.remove(bookId) && ids.isEmpty()) {
+            isbns.remove(entry.isbn);
+        }
+    }
+
+    private static void addPostings(Map<String, Set<Long>> postings, String text, Long id) {
+        for (String gram : grams(text)) {
+            postings.computeIfAbsent(gram, k -> new HashSet<>()).add(id);
+        }
+    }
+
+    private static void removePostings(Map<String, Set<Long>> postings, String text, Long id) {
+        for (String gram : grams(text)) {
+            Set<Long> ids = postings.get(gram);
+            if (ids != null && ids.remove(id) && ids.isEmpty()) {
+                postings.remove(gram);
+            }
+        }
+    }
+
+    private static Set<String> grams(String text) {
+        Set<String> grams = new HashSet<>();
+        for (int i = 0; i + GRAM <= text.length(); i++) {
+            grams.add(text.substring(i, i + GRAM));
+        }
+        return grams;
+    }
+
+    static String normalizeText(String value) {
+        return value == null ? "" : value.toLowerCase(Locale.ROOT);
+    }
+
+    static String normalizeIsbn(String value) {
+        if (value == null) {
+            return "";
+        }
+        StringBuilder sb = new StringBuilder(value.length());
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c != '-' && !Character.isWhitespace(c)) {
+                sb.append(Character.toUpperCase(c));
+            }
+        }
+        long key = Isbn.tryParse(sb.toString());
+        return key < 0 ? sb.toString() : Isbn.format(key);
+    }
+
+    private static boolean isBlank(String value) {
+        return value == null || value.isBlank();
+    }
+
+    private record Entry(BookView book, String title, String author, String isbn) {
+
+        boolean matches(String titleQuery, String authorQuery, String isbnQuery) {
+            return (titleQuery == null || title.contains(titleQuery))
+                    && (authorQuery == null || author.contains(authorQuery))
+                    && (isbnQuery == null || isbn.equals(isbnQuery));
+        }
+    }
+}
@@ -0,0 +1,394 @@
+package com.org.booklibrary.search;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.PriorityQueue;
+import java.util.TreeSet;
+
+/**
+ * Case-insensitive prefix lookup of the highest-scored entries, for autocomplete.
+ * <p>
+ * Entries live in a sorted table packed into a few arrays: the texts back to back in one {@code char[]} with
+ * an offset per entry, and the ref and score of every entry. A prefix selects a contiguous range by binary
+ * search, and a max segment tree over the scores yields the best entries of that range one by one, so a
+ * lookup costs O((log n + k) log n) whatever the range size. An entry costs 2 bytes per char plus 32 bytes,
+ * with no object per entry.
+ * <p>
+ * Scores are updated in place. New or renamed entries go to a small sorted delta that lookups merge in;
+ * removed ones are tombstoned, and {@link #compactIfNeeded()} folds both into a new table once the delta grows.
+ * Not thread-safe: callers guard it with a lock.
+ */
+final class PrefixTable {
+
+    private static final int MIN_DELTA = 1024;
+    private static final long REMOVED = -1;
+
+    private static final Comparator<Pending> PENDING_ORDER =
+            Comparator.comparing(Pending::key).thenComparingLong(Pending::ref);
+
+    /** Entry i's text is {@code chars[offsets[i], offsets[i + 1])}; entries are ordered by folded text, then ref. */
+    private char[] chars = new char[0];
+    private int[] offsets = {0};
+    private long[] refs = new long[0];
+    private long[] scores = new long[0];
+    /** Positions sorted by ref, to find an entry's position without a map. */
+    private int[] byRef = new int[0];
+    /** {@code tree[size + i] == i}; inner nodes hold the position with the best score below them. */
+    private int[] tree = new int[0];
+    private int size;
+    private int removed;
+
+    private final NavigableSet<Pending> pending = new TreeSet<>(PENDING_ORDER);
+    private final Map<Long, Pending> pendingByRef = new HashMap<>();
+
+    record Match(long ref, String text, long score) {
+    }
+
+    /**
+     * Adds the entry or changes its text, keeping its score. A blank text removes the entry.
+     */
+    void put(long ref, String text) {
+        if (text == null || text.isBlank()) {
+            remove(ref);
+            return;
+        }
+        Pending current = pendingByRef.get(ref);
+        if (current != null && current.text.equals(text)) {
+            return;
+        }
+        int position = current == null ? position(ref) : -1;
+        if (position >= 0 && textAt(position).equals(text)) {
+            return;
+        }
+        long score = Math.max(score(ref), 0);
+        remove(ref);
+        Pending entry = new Pending(fold(text), text, ref, score);
+        pending.add(entry);
+        pendingByRef.put(ref, entry);
+    }
+
+    boolean remove(long ref) {
+        Pending current = pendingByRef.remove(ref);
+        if (current != null) {
+            pending.remove(current);
+            return true;
+        }
+        int position = position(ref);
+        if (position < 0) {
+            return false;
+        }
+        setScore(position, REMOVED);
+        removed++;
+        return true;
+    }
+
+    void addScore(long ref, long delta) {
+        Pending current = pendingByRef.get(ref);
+        if (current != null) {
+            current.score += delta;
+            return;
+        }
+        int position = position(ref);
+        if (position >= 0) {
+            setScore(position, Math.max(scores[position] + delta, 0));
+        }
+    }
+
+    /**
+     * The score of the entry, or 0 if there is none.
+     */
+    long score(long ref) {
+        Pending current = pendingByRef.get(ref);
+        if (current != null) {
+            return current.score;
+        }
+        int position = position(ref);
+        return position < 0 ? 0 : scores[position];
+    }
+
+    int size() {
+        return size - removed + pending.size();
+    }
+
+    /**
+     * The entries whose text starts with the prefix, ignoring case, by descending score and then by text.
+     */
+    List<Match> top(String prefix, int limit) {
+        String folded = fold(prefix);
+        List<Match> matches = new ArrayList<>(limit * 2);
+
+        int lo = bound(folded, 0);
+        int hi = bound(folded, 1);
+        if (lo < hi) {
+            PriorityQueue<int[]> ranges = new PriorityQueue<>((a, b) -> a[0] == b[0] ? 0 : best(a[0], b[0]) == a[0] ? -1 : 1);
+            ranges.add(new int[]{bestIn(lo, hi), lo, hi});
+            while (!ranges.isEmpty() && matches.size() < limit) {
+                int[] range = ranges.poll();
+                int position = range[0];
+                if (scores[position] == REMOVED) {
+                    break;
+                }
+                matches.add(new Match(refs[position], textAt(position), scores[position]));
+                if (range[1] < position) {
+                    ranges.add(new int[]{bestIn(range[1], position), range[1], position});
+                }
+                if (position + 1 < range[2]) {
+                    ranges.add(new int[]{bestIn(position + 1, range[2]), position + 1, range[2]});
+                }
+            }
+        }
+
+        List<Match> delta = new ArrayList<>();
+        for (Pending entry : pending.tailSet(new Pending(folded, null, Long.MIN_VALUE, 0), true)) {
+            if (!entry.key.startsWith(folded)) {
+                break;
+            }
+            delta.add(new Match(entry.ref, entry.text, entry.score));
+        }
+        if (delta.isEmpty()) {
+            return matches;
+        }
+        matches.addAll(delta);
+        matches.sort(Comparator.comparingLong(Match::score).reversed()
+                .thenComparing(match -> fold(match.text()))
+                .thenComparingLong(Match::ref));
+        return matches.size() > limit ? new ArrayList<>(matches.subList(0, limit)) : matches;
+    }
+
+    void compactIfNeeded() {
+        if (pending.size() + removed > Math.max(MIN_DELTA, size / 64)) {
+            compact();
+        }
+    }
+
+    /**
+     * Merges the delta into the sorted table and drops the tombstones.
+     */
+    void compact() {
+        int live = size();
+        int length = 0;
+        for (int i = 0; i < size; i++) {
+            if (scores[i] != REMOVED) {
+                length += offsets[i + 1] - offsets[i];
+            }
+        }
+        for (Pending entry : pending) {
+            length += entry.text.length();
+        }
+
+        char[] newChars = new char[length];
+        int[] newOffsets = new int[live + 1];
+        long[] newRefs = new long[live];
+        long[] newScores = new long[live];
+        int position = 0;
+        int base = 0;
+        for (Pending entry : pending) {
+            for (; base < size; base++) {
+                if (scores[base] == REMOVED) {
+                    continue;
+                }
+                int order = compareFolded(base, entry.key);
+                if (order > 0 || order == 0 && refs[base] > entry.ref) {
+                    break;
+                }
+                position = copy(base, position, newChars, newOffsets, newRefs, newScores);
+            }
+            entry.text.getChars(0, entry.text.length(), newChars, newOffsets[position]);
+            newOffsets[position + 1] = newOffsets[position] + entry.text.length();
+            newRefs[position] = entry.ref;
+            newScores[position] = entry.score;
+            position++;
+        }
+        for (; base < size; base++) {
+            if (scores[base] != REMOVED) {
+                position = copy(base, position, newChars, newOffsets, newRefs, newScores);
+            }
+        }
+
+        chars = newChars;
+        offsets = newOffsets;
+        refs = newRefs;
+        scores = newScores;
+        size = live;
+        removed = 0;
+        pending.clear();
+        pendingByRef.clear();
+        byRef = sortedByRef();
+        tree = new int[2 * size];
+        for (int i = 0; i < size; i++) {
+            tree[size + i] = i;
+        }
+        for (int i = size - 1; i > 0; i--) {
+            tree[i] = best(tree[2 * i], tree[2 * i + 1]);
+        }
+    }
+
+    /**
+     * Bytes held by the sorted table, excluding the delta.
+     */
+    long tableBytes() {
+        return 2L * chars.length + 4L * (offsets.length + byRef.length + tree.length) + 8L * (refs.length + scores.length);
+    }
+
+    static String fold(String text) {
+        char[] folded = text.toCharArray();
+        for (int i = 0; i < folded.length; i++) {
+            folded[i] = Character.toLowerCase(folded[i]);
+        }
+        return new String(folded);
+    }
+
+    private int copy(int from, int to, char[] newChars, int[] newOffsets, long[] newRefs, long[] newScores) {
+        int length = offsets[from + 1] - offsets[from];
+        System.arraycopy(chars, offsets[from], newChars, newOffsets[to], length);
+        newOffsets[to + 1] = newOffsets[to] + length;
+        newRefs[to] = refs[from];
+        newScores[to] = scores[from];
+        return to + 1;
+    }
+
+    private int[] sortedByRef() {
+        Integer[] positions = new Integer[size];
+        for (int i = 0; i < size; i++) {
+            positions[i] = i;
+        }
+        Arrays.sort(positions, Comparator.comparingLong(i -> refs[i]));
+        int[] sorted = new int[size];
+        for (int i = 0; i < size; i++) {
+            sorted[i] = positions[i];
+        }
+        return sorted;
+    }
+
+    /**
+     * The live position of the ref in the sorted table, or -1.
+     */
+    private int position(long ref) {
+        int lo = 0;
+        int hi = size - 1;
+        while (lo <= hi) {
+            int mid = (lo + hi) >>> 1;
+            long midRef = refs[byRef[mid]];
+            if (midRef < ref) {
+                lo = mid + 1;
+            } else if (midRef > ref) {
+                hi = mid - 1;
+            } else {
+                int position = byRef[mid];
+                return scores[position] == REMOVED ? -1 : position;
+            }
+        }
+        return -1;
+    }
+
+    private void setScore(int position, long score) {
+        scores[position] = score;
+        for (int node = (position + size) >>> 1; node > 0; node >>>= 1) {
+            tree[node] = best(tree[2 * node], tree[2 * node + 1]);
+        }
+    }
+
+    /**
+     * The position with the higher score, or the lower position on a tie.
+     */
+    private int best(int a, int b) {
+        if (scores[a] != scores[b]) {
+            return scores[a] > scores[b] ? a : b;
+        }
+        return Math.min(a, b);
+    }
+
+    /**
+     * The best position in {@code [from, to)}.
+     */
+    private int bestIn(int from, int to) {
+        int result = from;
+        for (int lo = from + size, hi = to + size; lo < hi; lo >>>= 1, hi >>>= 1) {
+            if ((lo & 1) == 1) {
+                result = best(result, tree[lo++]);
+            }
+            if ((hi & 1) == 1) {
+                result = best(result, tree[--hi]);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * The first position whose text compared with the prefix is at least {@code threshold}:
+     * 0 finds the first text starting with the prefix, 1 the first text after them.
+     */
+    private int bound(String prefix, int threshold) {
+        int lo = 0;
+        int hi = size;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (comparePrefix(mid, prefix) < threshold) {
+                lo = mid + 1;
+            } else {
+                hi = mid;
+            }
+        }
+        return lo;
+    }
+
+    /**
+     * 0 if the text at the position starts with the prefix, otherwise its order relative to the prefix.
+     */
+    private int comparePrefix(int position, String prefix) {
+        int start = offsets[position];
+        int length = offsets[position + 1] - start;
+        int common = Math.min(length, prefix.length());
+        for (int i = 0; i < common; i++) {
+            int diff = Character.toLowerCase(chars[start + i]) - prefix.charAt(i);
+            if (diff != 0) {
+                return diff;
+            }
+        }
+        return length >= prefix.length() ? 0 : -1;
+    }
+
+    private int compareFolded(int position, String key) {
+        int start = offsets[position];
+        int length = offsets[position + 1] - start;
+        int common = Math.min(length, key.length());
+        for (int i = 0; i < common; i++) {
+            int diff = Character.toLowerCase(chars[start + i]) - key.charAt(i);
+            if (diff != 0) {
+                return diff;
+            }
+        }
+        return length - key.length();
+    }
+
+    private String textAt(int position) {
+        return new String(chars, offsets[position], offsets[position + 1] - offsets[position]);
+    }
+
+    private static final class Pending {
+        private final String key;
+        private final String text;
+        private final long ref;
+        private long score;
+
+        private Pending(String key, String text, long ref, long score) {
+            this.key = key;
+            this.text = text;
+            this.ref = ref;
+            this.score = score;
+        }
+
+        String key() {
+            return key;
+        }
+
+        long ref() {
+            return ref;
+        }
+    }
+}
@@ -0,0 +1,195 @@
+package com.org.booklibrary.search;
+
+import com.org.booklibrary.dto.BookView;
+import com.org.booklibrary.dto.LoanCount;
+import com.org.booklibrary.dto.Suggestion;
+import com.org.booklibrary.event.BookChangedEvent;
+import com.org.booklibrary.event.LoanEvent;
+import com.org.booklibrary.repository.BookRepository;
+import com.org.booklibrary.repository.BorrowingRecordRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Title and author prefixes for the search box, ranked by how often the books were borrowed.
+ * Both are kept in a {@link PrefixTable}, built at startup and patched from committed book changes and loans,
+ * so a keystroke never reaches the database.
+ * An author is one entry whatever the number of books, scored with the loans of all of them.
+ */
+@Slf4j
+@Component
+public class SuggestionIndex {
+
+    private final BookRepository bookRepository;
+    private final BorrowingRecordRepository borrowingRecordRepository;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private PrefixTable titles = new PrefixTable();
+    private PrefixTable authors = new PrefixTable();
+    private final Map<String, Author> authorsByKey = new HashMap<>();
+    private final Map<Long, Author> authorOfBook = new HashMap<>();
+    private long nextAuthorRef = 1;
+
+    @Autowired
+    public SuggestionIndex(BookRepository bookRepository, BorrowingRecordRepository borrowingRecordRepository) {
+        this.bookRepository = bookRepository;
+        this.borrowingRecordRepository = borrowingRecordRepository;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        // Queried under the lock, so books and loans committed meanwhile wait for it instead of being replaced away.
+        // A loan counted by the query whose event was already waiting is counted twice; suggestions only rank by it.
+        lock.writeLock().lock();
+        try {
+            List<BookView> books = bookRepository.findAllViews();
+            List<LoanCount> loans = borrowingRecordRepository.countLoansPerBook();
+            titles = new PrefixTable();
+            authors = new PrefixTable();
+            authorsByKey.clear();
+            authorOfBook.clear();
+            for (BookView book : books) {
+                putBook(book.id(), book.title(), book.author());
+            }
+            for (LoanCount count : loans) {
+                addLoans(count.id(), count.loans());
+            }
+            titles.compact();
+            authors.compact();
+            log.info("Suggestion index built with {} titles and {} authors in {} KB.",
+                    titles.size(), authors.size(), (titles.tableBytes() + authors.tableBytes()) / 1024);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onBookChanged(BookChangedEvent event) {
+        lock.writeLock().lock();
+        try {
+            if (event.type() == BookChangedEvent.Type.DELETED) {
+                removeBook(event.bookId());
+            } else {
+                putBook(event.bookId(), event.book().getTitle(), event.book().getAuthor());
+            }
+            titles.compactIfNeeded();
+            authors.compactIfNeeded();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onLoan(LoanEvent event) {
+        if (event.type() != LoanEvent.Type.BORROWED) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            addLoans(event.bookId(), 1);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * The most borrowed titles and authors starting with the prefix, ignoring case.
+     * @param type restricts the suggestions to titles or authors, or {@code null} for both.
+     */
+    public List<Suggestion> suggest(String prefix, Suggestion.Type type, int limit) {
+        List<Suggestion> suggestions = new ArrayList<>(2 * limit);
+        lock.readLock().lock();
+        try {
+            if (type != Suggestion.Type.AUTHOR) {
+                for (PrefixTable.Match match : titles.top(prefix, limit)) {
+                    suggestions.add(new Suggestion(Suggestion.Type.TITLE, match.text(), match.ref(), match.score()));
+                }
+            }
+            if (type != Suggestion.Type.TITLE) {
+                for (PrefixTable.Match match : authors.top(prefix, limit)) {
+                    suggestions.add(new Suggestion(Suggestion.Type.AUTHOR, match.text(), null, match.score()));
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        if (type == null) {
+            suggestions.sort(Comparator.comparingLong(Suggestion::loans).reversed());
+            if (suggestions.size() > limit) {
+                return new ArrayList<>(suggestions.subList(0, limit));
+            }
+        }
+        return suggestions;
+    }
+
+    private void putBook(Long bookId, String title, String author) {
+        titles.put(bookId, title);
+        String key = author == null || author.isBlank() ? null : PrefixTable.fold(author.strip());
+        Author previous = authorOfBook.get(bookId);
+        if (previous != null && previous.key.equals(key)) {
+            return;
+        }
+        long loans = titles.score(bookId);
+        if (previous != null) {
+            detach(bookId, previous, loans);
+        }
+        if (key != null) {
+            Author current = authorsByKey.computeIfAbsent(key, k -> new Author(nextAuthorRef++, k));
+            if (current.books++ == 0) {
+                authors.put(current.ref, author.strip());
+            }
+            authors.addScore(current.ref, loans);
+            authorOfBook.put(bookId, current);
+        }
+    }
+
+    private void removeBook(Long bookId) {
+        long loans = titles.score(bookId);
+        titles.remove(bookId);
+        Author author = authorOfBook.get(bookId);
+        if (author != null) {
+            detach(bookId, author, loans);
+        }
+    }
+
+    private void detach(Long bookId, Author author, long loans) {
+        authorOfBook.remove(bookId);
+        if (--author.books == 0) {
+            authors.remove(author.ref);
+            authorsByKey.remove(author.key);
+        } else {
+            authors.addScore(author.ref, -loans);
+        }
+    }
+
+    private void addLoans(Long bookId, long loans) {
+        titles.addScore(bookId, loans);
+        Author author = authorOfBook.get(bookId);
+        if (author != null) {
+            authors.addScore(author.ref, loans);
+        }
+    }
+
+    private static final class Author {
+        private final long ref;
+        private final String key;
+        private int books;
+
+        private Author(long ref, String key) {
+            this.ref = ref;
+            this.key = key;
+        }
+    }
+}
@@ -0,0 +1,283 @@
+package com.org.booklibrary.service;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.org.booklibrary.dto.BookImportResult;
+import com.org.booklibrary.entity.Book;
+import com.org.booklibrary.event.BookChangedEvent;
+import com.org.booklibrary.isbn.Isbn;
+import com.org.booklibrary.isbn.IsbnIndex;
+import jakarta.persistence.EntityManager;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Loads large catalog feeds. Rows are validated with the {@link Book} constraints one by one and
+ * valid rows are persisted in chunks of {@code library.import.batch-size}, each chunk in its own
+ * transaction so Hibernate can send it as JDBC batches. A chunk that fails in the database is
+ * retried row by row so only the offending rows are reported. Invalid ISBNs and ISBNs already in the
+ * catalog or earlier in the feed are rejected before they reach the database.
+ */
+@Slf4j
+@Service
+public class BookImportService {
+
+    private static final List<String> CSV_COLUMNS =
+            List.of("title", "author", "isbn", "publicationyear", "totalcopies", "availablecopies");
+
+    private final EntityManager entityManager;
+    private final TransactionTemplate transactionTemplate;
+    private final Validator validator;
+    private final IsbnIndex isbnIndex;
+    private final ObjectMapper objectMapper;
+    private final ApplicationEventPublisher eventPublisher;
+    private final int batchSize;
+
+    @Autowired
+    public BookImportService(EntityManager entityManager, PlatformTransactionManager transactionManager, Validator validator,
+                             IsbnIndex isbnIndex, ObjectMapper objectMapper, ApplicationEventPublisher eventPublisher,
+                             @Value("${library.import.batch-size:500}") int batchSize) {
+        this.entityManager = entityManager;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.validator = validator;
+        this.isbnIndex = isbnIndex;
+        this.objectMapper = objectMapper;
+        this.eventPublisher = eventPublisher;
+        this.batchSize = batchSize;
+    }
+
+    /**
+     * Imports a JSON array of books, reading it as a stream.
+     */
+    public BookImportResult importJson(InputStream body) throws IOException {
+        Importer importer = new Importer();
+        try (JsonParser parser = objectMapper.getFactory().createParser(body)) {
+            if (parser.nextToken() != JsonToken.START_ARRAY) {
+                throw new IllegalArgumentException("Expected a JSON array of books.");
+            }
+            while (parser.nextToken() != JsonToken.END_ARRAY) {
+                JsonNode node = parser.readValueAsTree();
+                long row = importer.nextRow();
+                try {
+                    importer.accept(row, objectMapper.treeToValue(node, Book.class));
+                } catch (JsonProcessingException e) {
+                    importer.reject(row, List.of("Malformed book: " + e.getOriginalMessage()));
+                }
+            }
+        } catch (JsonProcessingException e) {
+            BookImportResult partial = importer.finish();
+            throw new IllegalArgumentException("Malformed JSON after row " + partial.received() + " ("
+                    + partial.imported() + " rows imported): " + e.getOriginalMessage());
+        }
+        return importer.finish();
+    }
+
+    /**
+     * Imports CSV with a header row naming the columns title, author, isbn, publicationYear,
+     * totalCopies and (optionally) availableCopies in any order.
+     */
+    public BookImportResult importCsv(Reader body) throws IOException {
+        Importer importer = new Importer();
+        BufferedReader reader = new BufferedReader(body);
+        String header = reader.readLine();
+        if (header == null) {
+            return importer.finish();
+        }
+        Map<String, Integer> columns = new HashMap<>();
+        List<String> names = parseCsvLine(header);
+        for (int i = 0; i < names.size(); i++) {
+            columns.put(names.get(i).trim().toLowerCase(Locale.ROOT), i);
+        }
+        if (!columns.keySet().containsAll(CSV_COLUMNS.subList(0, 5))) {
+            throw new IllegalArgumentException("CSV header must contain the columns " + CSV_COLUMNS.subList(0, 5) + ".");
+        }
+
+        String line;
+        while ((line = reader.readLine()) != null) {
+            if (line.isBlank()) {
+                continue;
+            }
+            long row = importer.nextRow();
+            List<String> values = parseCsvLine(line);
+            try {
+                importer.accept(row, Book.builder()
+                        .title(column(values, columns, "title"))
+                        .author(column(values, columns, "author"))
+                        .isbn(column(values, columns, "isbn"))
+                        .publicationYear(intColumn(values, columns, "publicationyear"))
+                        .totalCopies(intColumn(values, columns, "totalcopies"))
+                        .availableCopies(intColumn(values, columns, "availablecopies"))
+                        .build());
+            } catch (NumberFormatException e) {
+                importer.reject(row, List.of("Malformed number: " + e.getMessage()));
+            }
+        }
+        return importer.finish();
+    }
+
+    private class Importer {
+        private final List<Book> chunk = new ArrayList<>(batchSize);
+        private final List<Long> chunkRows = new ArrayList<>(batchSize);
+        private final List<BookImportResult.RowError> errors = new ArrayList<>();
+        private final Set<Long> isbnKeys = new HashSet<>();
+        private long received;
+        private long imported;
+        private long failed;
+
+        long nextRow() {
+            return ++received;
+        }
+
+        void accept(long row, Book book) {
+            book.setId(null);
+            book.setVersion(null);
+            if (book.getAvailableCopies() == null) {
+                book.setAvailableCopies(book.getTotalCopies());
+            }
+            Set<ConstraintViolation<Book>> violations = validator.validate(book);
+            if (!violations.isEmpty()) {
+                reject(row, violations.stream().map(ConstraintViolation::getMessage).sorted().toList());
+                return;
+            }
+            long isbnKey = Isbn.tryParse(book.getIsbn());
+            if (isbnKey < 0) {
+                reject(row, List.of("Invalid ISBN: '" + book.getIsbn() + "'."));
+                return;
+            }
+            if (isbnIndex.find(isbnKey) != IsbnIndex.NONE || !isbnKeys.add(isbnKey)) {
+                reject(row, List.of("Duplicate ISBN: " + Isbn.format(isbnKey) + "."));
+                return;
+            }
+            chunk.add(book);
+            chunkRows.add(row);
+            if (chunk.size() >= batchSize) {
+                flushChunk();
+            }
+        }
+
+        void reject(long row, List<String> messages) {
+            failed++;
+            if (errors.size() < BookImportResult.MAX_REPORTED_ERRORS) {
+                errors.add(new BookImportResult.RowError(row, messages));
+            }
+        }
+
+        BookImportResult finish() {
+            flushChunk();
+            log.info("Book import finished: {} rows received, {} imported, {} failed.", received, imported, failed);
+            return new BookImportResult(received, imported, failed, errors);
+        }
+
+        private void flushChunk() {
+            if (chunk.isEmpty()) {
+                return;
+            }
+            try {
+                persist(chunk);
+                imported += chunk.size();
+            } catch (RuntimeException e) {
+                log.warn("Import chunk of {} rows failed ({}), retrying row by row.", chunk.size(), e.getMessage());
+                for (int i = 0; i < chunk.size(); i++) {
+                    Book book = chunk.get(i);
+                    book.setId(null);
+                    book.setVersion(null);
+                    try {
+                        persist(List.of(book));
+                        imported++;
+                    } catch (RuntimeException rowFailure) {
+                        reject(chunkRows.get(i), List.of(rootMessage(rowFailure)));
+                    }
+                }
+            }
+            chunk.clear();
+            chunkRows.clear();
+        }
+    }
+
+    /**
+     * Persists the books and publishes their events in one transaction, so the outbox rows commit with them.
+     */
+    private void persist(List<Book> books) {
+        transactionTemplate.executeWithoutResult(status -> {
+            books.forEach(entityManager::persist);
+            books.forEach(book -> eventPublisher.publishEvent(BookChangedEvent.added(book)));
+            entityManager.flush();
+            entityManager.clear();
+        });
+    }
+
+    private static String column(List<String> values, Map<String, Integer> columns, String name) {
+        Integer index = columns.get(name);
+        if (index == null || index >= values.size()) {
+            return null;
+        }
+        String value = values.get(index).trim();
+        return value.isEmpty() ? null : value;
+    }
+
+    private static Integer intColumn(List<String> values, Map<String, Integer> columns, String name) {
+        String value = column(values, columns, name);
+        return value == null ? null : Integer.valueOf(value);
+    }
+
+    /**
+     * Splits one CSV line, honouring double-quoted fields and doubled quotes inside them.
+     */
+    static List<String> parseCsvLine(String line) {
+        List<String> values = new ArrayList<>();
+        StringBuilder current = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c == '"' && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    current.append('"');
+                    i++;
+                } else if (c == '"') {
+                    quoted = false;
+                } else {
+                    current.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                values.add(current.toString());
+                current.setLength(0);
+            } else {
+                current.append(c);
+            }
+        }
+        values.add(current.toString());
+        return values;
+    }
+
+    private static String rootMessage(Throwable t) {
+        Throwable root = t;
+        while (root.getCause() != null) {
+            root = root.getCause();
+        }
+        return root.getMessage();
+    }
+}
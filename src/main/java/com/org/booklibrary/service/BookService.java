@@ -1,53 +1,107 @@
 package com.org.booklibrary.service;
 
+import com.org.booklibrary.dto.BookView;
+import com.org.booklibrary.dto.KeysetPage;
 import com.org.booklibrary.entity.Book;
 import com.org.booklibrary.entity.BorrowingRecord;
 import com.org.booklibrary.entity.User;
+import com.org.booklibrary.event.BookChangedEvent;
+import com.org.booklibrary.event.LoanEvent;
 import com.org.booklibrary.exception.BookUnavailableException;
 import com.org.booklibrary.exception.ResourceNotFoundException;
+import com.org.booklibrary.inventory.BookInventory;
+import com.org.booklibrary.isbn.Isbn;
+import com.org.booklibrary.isbn.IsbnIndex;
 import com.org.booklibrary.repository.BookRepository;
 import com.org.booklibrary.repository.BorrowingRecordRepository;
 import com.org.booklibrary.repository.UserRepository;
-import jakarta.transaction.Transactional;
+import com.org.booklibrary.search.BookSearchIndex;
+import io.micrometer.core.annotation.Timed;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDate;
 import java.util.List;
-import java.util.Optional;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
 @Slf4j
 @Service
+@Timed(value = "library.service", histogram = true)
 public class BookService {
+
     private final BookRepository bookRepository;
     private final UserRepository userRepository;
     private final BorrowingRecordRepository borrowingRecordRepository;
+    private final BookSearchIndex bookSearchIndex;
+    private final BookInventory bookInventory;
+    private final IsbnIndex isbnIndex;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Autowired
-    public BookService(BookRepository bookRepository, UserRepository userRepository, BorrowingRecordRepository borrowingRecordRepository) {
+    public BookService(BookRepository bookRepository, UserRepository userRepository, BorrowingRecordRepository borrowingRecordRepository,
+                       BookSearchIndex bookSearchIndex, BookInventory bookInventory, IsbnIndex isbnIndex,
+                       ApplicationEventPublisher eventPublisher) {
         this.bookRepository = bookRepository;
         this.userRepository = userRepository;
         this.borrowingRecordRepository = borrowingRecordRepository;
+        this.bookSearchIndex = bookSearchIndex;
+        this.bookInventory = bookInventory;
+        this.isbnIndex = isbnIndex;
+        this.eventPublisher = eventPublisher;
     }
 
     /**
-     * Retrieves all books.
+     * Retrieves all books as read-only views, ordered by id.
      * @return A list of all books.
      */
-    public List<Book> getAllBooks() {
+    @Transactional(readOnly = true)
+    public List<BookView> getAllBooks() {
         log.debug("Attempting to retrieve all books.");
-        List<Book> books = bookRepository.findAll();
+        List<BookView> books = bookRepository.findAllViews();
+        books.replaceAll(bookInventory::overlay);
         log.info("Retrieved {} books.", books.size());
         return books;
     }
 
+    /**
+     * Retrieves one page of books ordered by id, starting after the given cursor.
+     * @param afterId the last id of the previous page, or {@code null} for the first page.
+     * @param limit the page size, capped at {@link KeysetPage#MAX_SIZE}.
+     */
+    @Transactional(readOnly = true)
+    public KeysetPage<BookView> getBooksPage(Long afterId, Integer limit) {
+        int pageSize = KeysetPage.size(limit);
+        log.debug("Attempting to retrieve {} books after ID: {}", pageSize, afterId);
+        KeysetPage<BookView> page = KeysetPage.of(
+                bookRepository.findViewsAfter(afterId == null ? 0L : afterId, Limit.of(pageSize + 1)), pageSize, BookView::id);
+        page.items().replaceAll(bookInventory::overlay);
+        return page;
+    }
+
+    /**
+     * Streams the whole catalog in id order to the given sink without materializing it.
+     * Views are not managed, so the persistence context stays empty however large the catalog is.
+     */
+    @Transactional(readOnly = true)
+    public void exportBooks(Consumer<BookView> sink) {
+        log.info("Exporting all books.");
+        try (Stream<BookView> books = bookRepository.streamAllViews()) {
+            books.forEach(book -> sink.accept(bookInventory.overlay(book)));
+        }
+    }
+
+    @Transactional(readOnly = true)
     public Book getBookById(Long id) {
         log.debug("Attempting to retrieve book with ID: {}", id);
         return bookRepository.findById(id)
                 .map(book -> {
                     log.info("Book with ID: {} found - Title: {}", id, book.getTitle());
-                    return book;
+                    return bookInventory.overlay(book);
                 })
                 .orElseThrow(() -> {
                     log.warn("Book not found with ID: {}", id);
@@ -55,20 +109,40 @@ public class BookService {
                 });
     }
 
+    /**
+     * Retrieves a book by ISBN-10 or ISBN-13, with or without hyphens.
+     */
+    @Transactional(readOnly = true)
+    public Book getBookByIsbn(String isbn) {
+        log.debug("Attempting to retrieve book with ISBN: {}", isbn);
+        long id = isbnIndex.find(Isbn.parse(isbn));
+        if (id == IsbnIndex.NONE) {
+            log.warn("Book not found with ISBN: {}", isbn);
+            throw new ResourceNotFoundException("Book not found with ISBN: " + isbn);
+        }
+        return getBookById(id);
+    }
+
+    @Transactional
     public Book addBook(Book book) {
         log.info("Attempting to add new book: {}", book.getTitle());
+        isbnIndex.checkAvailable(Isbn.parse(book.getIsbn()), null);
         if (book.getAvailableCopies() == null) {
             book.setAvailableCopies(book.getTotalCopies());
             log.debug("Available copies not specified, setting to total copies: {}", book.getTotalCopies());
         }
         Book savedBook = bookRepository.save(book);
+        eventPublisher.publishEvent(BookChangedEvent.added(savedBook));
         log.info("Book added successfully with ID: {} and Title: {}", savedBook.getId(), savedBook.getTitle());
         return savedBook;
     }
 
+    @Transactional
     public Book updateBook(Long id, Book bookDetails) {
         log.info("Attempting to update book with ID: {}", id);
-        Book book = bookRepository.findById(id)
+        long isbnKey = Isbn.parse(bookDetails.getIsbn());
+        isbnIndex.checkAvailable(isbnKey, id);
+        Book book = bookRepository.findFreshById(id)
                 .orElseThrow(() -> {
                     log.warn("Book not found for update with ID: {}", id);
                     return new ResourceNotFoundException("Book not found with id: " + id);
@@ -77,7 +151,8 @@ public class BookService {
         log.debug("Found book for update: {}. Applying updates from: {}", book.getTitle(), bookDetails.getTitle());
         book.setTitle(bookDetails.getTitle());
         book.setAuthor(bookDetails.getAuthor());
-        book.setIsbn(bookDetails.getIsbn());
+        book.setIsbn(Isbn.format(isbnKey));
+        book.setIsbnKey(isbnKey);
         book.setPublicationYear(bookDetails.getPublicationYear());
         book.setTotalCopies(bookDetails.getTotalCopies());
         if (bookDetails.getAvailableCopies() != null) {
@@ -86,10 +161,13 @@ public class BookService {
             book.setAvailableCopies(bookDetails.getTotalCopies());
         }
         Book updatedBook = bookRepository.save(book);
+        bookInventory.reset(updatedBook);
+        eventPublisher.publishEvent(BookChangedEvent.updated(updatedBook));
         log.info("Book with ID: {} updated successfully.", updatedBook.getId());
         return updatedBook;
     }
 
+    @Transactional
     public void deleteBook(Long id) {
         log.info("Attempting to delete book with ID: {}", id);
         if (!bookRepository.existsById(id)) {
@@ -97,10 +175,16 @@ public class BookService {
             throw new ResourceNotFoundException("Book not found with id: " + id);
         }
         bookRepository.deleteById(id);
+        bookInventory.evict(id);
+        eventPublisher.publishEvent(BookChangedEvent.deleted(id));
         log.info("Book with ID: {} deleted successfully.", id);
     }
 
-    @Transactional
+    /**
+     * The business failures are raised before anything is written, so they leave the transaction
+     * usable; {@link BorrowCommandPipeline} relies on that to run many commands in one transaction.
+     */
+    @Transactional(noRollbackFor = {BookUnavailableException.class, ResourceNotFoundException.class})
     public BorrowingRecord borrowBook(Long bookId, Long userId) {
         log.info("Attempting to borrow book (ID: {}) by user (ID: {}).", bookId, userId);
         Book book = bookRepository.findById(bookId)
@@ -108,29 +192,26 @@ public class BookService {
         User user = userRepository.findById(userId)
                 .orElseThrow(() -> new ResourceNotFoundException("User not found with id: " + userId));
 
-        // Check if the book is available
-        if (book.getAvailableCopies() <= 0) {
-            throw new BookUnavailableException("No copies of the book '" + book.getTitle() + "' are currently available.");
-        }
-
         // Check if the user already has this book borrowed and not returned
-        Optional<BorrowingRecord> existingRecord = borrowingRecordRepository.findByUserAndBookAndReturnDateIsNull(user, book);
-        if (existingRecord.isPresent()) {
+        if (borrowingRecordRepository.existsByOpenLoanKey(BorrowingRecord.openLoanKey(userId, bookId))) {
             throw new BookUnavailableException("User '" + user.getUsername() + "' has already borrowed '" + book.getTitle() + "' and has not returned it yet.");
         }
 
-        // Decrease available copies
-        book.setAvailableCopies(book.getAvailableCopies() - 1);
-        bookRepository.save(book); // Save the updated book entity
+        // Reserve a copy; the Book row is written back asynchronously by BookInventory
+        if (!bookInventory.tryReserve(book)) {
+            throw new BookUnavailableException("No copies of the book '" + book.getTitle() + "' are currently available.");
+        }
 
         // Create a new borrowing record
         BorrowingRecord borrowingRecord = new BorrowingRecord(book, user, LocalDate.now());
         log.info("Borrowing record created for Book '{}' (ID: {}) by User '{}' (ID: {})",
                 book.getTitle(), bookId, user.getUsername(), userId);
-        return borrowingRecordRepository.save(borrowingRecord);
+        BorrowingRecord saved = borrowingRecordRepository.save(borrowingRecord);
+        eventPublisher.publishEvent(LoanEvent.borrowed(saved));
+        return saved;
     }
 
-    @Transactional
+    @Transactional(noRollbackFor = {ResourceNotFoundException.class, IllegalStateException.class})
     public BorrowingRecord returnBook(Long recordId) {
         log.info("Attempting to return book using borrowing record ID: {}", recordId);
         BorrowingRecord record = borrowingRecordRepository.findById(recordId)
@@ -139,32 +220,24 @@ public class BookService {
         if (record.getReturnDate() != null) {
             throw new IllegalStateException("This book has already been returned.");
         }
-        Book book = record.getBook();
-        if (book.getAvailableCopies() < book.getTotalCopies()) {
-            book.setAvailableCopies(book.getAvailableCopies() + 1);
-        }
-        bookRepository.save(book);
+        bookInventory.release(record.getBook());
 
         record.setReturnDate(LocalDate.now());
-        return borrowingRecordRepository.save(record);
+        BorrowingRecord saved = borrowingRecordRepository.save(record);
+        // HoldService hands the copy to the next holder once this commits
+        eventPublisher.publishEvent(LoanEvent.returned(saved));
+        return saved;
     }
 
-    public List<Book> searchBooks(String title, String author, String isbn) {
+    /**
+     * Searches the in-memory index. All non-blank criteria are combined, so a title and an author
+     * narrow the result to books matching both.
+     */
+    public List<BookView> searchBooks(String title, String author, String isbn) {
         log.info("Searching books with title: '{}', author: '{}', isbn: '{}'", title, author, isbn);
-        List<Book> books;
-        if (isbn != null && !isbn.isBlank()) {
-            books = bookRepository.findByIsbn(isbn);
-            log.debug("Found {} books by ISBN: {}", books.size(), isbn);
-        } else if (title != null && !title.isBlank()) {
-            books = bookRepository.findByTitleContainingIgnoreCase(title);
-            log.debug("Found {} books by title: {}", books.size(), title);
-        } else if (author != null && !author.isBlank()) {
-            books = bookRepository.findByAuthorContainingIgnoreCase(author);
-            log.debug("Found {} books by author: {}", books.size(), author);
-        } else {
-            books = bookRepository.findAll();
-            log.debug("No specific search criteria, returning all {} books.", books.size());
-        }
+        List<BookView> books = bookSearchIndex.search(title, author, isbn);
+        books.replaceAll(bookInventory::overlay);
+        log.debug("Found {} books for title: '{}', author: '{}', isbn: '{}'", books.size(), title, author, isbn);
         return books;
     }
 }
@@ -0,0 +1,273 @@
+package com.org.booklibrary.service;
+
+import com.org.booklibrary.entity.BorrowingRecord;
+import com.org.booklibrary.exception.BookUnavailableException;
+import com.org.booklibrary.exception.ResourceNotFoundException;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Supplier;
+
+/**
+ * Group commit for borrow and return. Commands are queued and applied by a single worker in
+ * micro-batches of up to {@code batch-size} commands, or whatever arrived within {@code max-wait-ms}
+ * of the first one, inside one transaction. Each caller still gets its own {@link BorrowingRecord} or
+ * business exception: those are thrown before anything is written and do not roll the batch back.
+ * <p>
+ * Any other failure rolls the whole batch back and its commands are replayed one transaction each,
+ * so one bad command never fails its neighbours. Enabled with {@code library.borrow-pipeline.enabled=true}.
+ * <p>
+ * A command the worker has not started within {@code timeout-ms}, or that is still queued when the pipeline stops,
+ * is taken back by its caller and run in a transaction of its own, like a command the full queue turns away.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "library.borrow-pipeline.enabled", havingValue = "true")
+public class BorrowCommandPipeline {
+
+    private final BookService bookService;
+    private final TransactionTemplate transactionTemplate;
+    private final int batchSize;
+    private final long maxWaitNanos;
+    private final long timeoutMillis;
+    private final BlockingQueue<Command<?>> queue;
+    private final DistributionSummary batchSizes;
+
+    private volatile boolean running = true;
+    private Thread worker;
+
+    @Autowired
+    public BorrowCommandPipeline(BookService bookService, PlatformTransactionManager transactionManager, MeterRegistry meterRegistry,
+                                 @Value("${library.borrow-pipeline.batch-size:64}") int batchSize,
+                                 @Value("${library.borrow-pipeline.max-wait-ms:5}") long maxWaitMillis,
+                                 @Value("${library.borrow-pipeline.queue-capacity:10000}") int queueCapacity,
+                                 @Value("${library.borrow-pipeline.timeout-ms:30000}") long timeoutMillis) {
+        this.bookService = bookService;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.batchSize = batchSize;
+        this.maxWaitNanos = TimeUnit.MILLISECONDS.toNanos(maxWaitMillis);
+        this.timeoutMillis = timeoutMillis;
+        this.queue = new LinkedBlockingQueue<>(queueCapacity);
+        this.batchSizes = DistributionSummary.builder("library.borrow.pipeline.batch")
+                .description("Borrow and return commands committed per transaction")
+                .register(meterRegistry);
+    }
+
+    @PostConstruct
+    public void start() {
+        worker = new Thread(this::run, "borrow-pipeline");
+        worker.setDaemon(true);
+        worker.start();
+    }
+
+    /**
+     * Drains the commands already queued, then stops the worker. Commands it left behind go back to their callers.
+     */
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        running = false;
+        worker.interrupt();
+        worker.join(TimeUnit.SECONDS.toMillis(10));
+        Command<?> left;
+        while ((left = queue.poll()) != null) {
+            left.handBack();
+        }
+    }
+
+    public BorrowingRecord borrowBook(Long bookId, Long userId) {
+        return submit(() -> bookService.borrowBook(bookId, userId));
+    }
+
+    public BorrowingRecord returnBook(Long recordId) {
+        return submit(() -> bookService.returnBook(recordId));
+    }
+
+    private <T> T submit(Supplier<T> action) {
+        Command<T> command = new Command<>(action);
+        // Stopped after the offer: the worker may already be gone, so take the command back if it is still queued.
+        if (!running || !queue.offer(command) || (!running && command.claim())) {
+            // Saturated or shutting down: fall back to a transaction of our own.
+            return action.get();
+        }
+        try {
+            return command.future.get(timeoutMillis, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            if (command.claim()) {
+                log.warn("Borrow pipeline did not start a command within {} ms, running it directly.", timeoutMillis);
+                return action.get();
+            }
+            // Already started: the worker completes it whatever happens
+            return unwrap(command.future::join);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            if (command.claim()) {
+                throw new IllegalStateException("Interrupted before the borrow pipeline ran the command", e);
+            }
+            return unwrap(command.future::join);
+        } catch (ExecutionException e) {
+            if (command.handedBack) {
+                return action.get();
+            }
+            throw rethrow(e.getCause());
+        }
+    }
+
+    private static <T> T unwrap(Supplier<T> join) {
+        try {
+            return join.get();
+        } catch (CompletionException e) {
+            throw rethrow(e.getCause());
+        }
+    }
+
+    private static RuntimeException rethrow(Throwable cause) {
+        if (cause instanceof RuntimeException runtime) {
+            return runtime;
+        }
+        if (cause instanceof Error error) {
+            throw error;
+        }
+        return new CompletionException(cause);
+    }
+
+    private void run() {
+        List<Command<?>> batch = new ArrayList<>(batchSize);
+        while (running || !queue.isEmpty()) {
+            try {
+                Command<?> first = running ? queue.take() : queue.poll();
+                if (first == null) {
+                    break;
+                }
+                // A command its caller took back is skipped
+                if (first.claim()) {
+                    batch.add(first);
+                }
+                long deadline = System.nanoTime() + maxWaitNanos;
+                while (batch.size() < batchSize) {
+                    Command<?> next = queue.poll(deadline - System.nanoTime(), TimeUnit.NANOSECONDS);
+                    if (next == null) {
+                        break;
+                    }
+                    if (next.claim()) {
+                        batch.add(next);
+                    }
+                }
+            } catch (InterruptedException e) {
+                // stop() interrupts a waiting worker; loop again to drain what is left
+            }
+            if (!batch.isEmpty()) {
+                try {
+                    apply(batch);
+                } catch (Throwable e) {
+                    // Keeps the worker alive and releases the callers still waiting on this batch
+                    log.error("Borrow batch of {} commands failed.", batch.size(), e);
+                    batch.forEach(command -> command.future.completeExceptionally(e));
+                }
+                batch.clear();
+            }
+        }
+    }
+
+    private void apply(List<Command<?>> batch) {
+        try {
+            transactionTemplate.executeWithoutResult(status -> batch.forEach(Command::execute));
+            batch.forEach(Command::complete);
+            batchSizes.record(batch.size());
+            log.debug("Committed {} borrow/return commands in one transaction.", batch.size());
+        } catch (RuntimeException e) {
+            log.warn("Borrow batch of {} commands failed ({}), replaying individually.", batch.size(), e.toString());
+            for (Command<?> command : batch) {
+                command.reset();
+                try {
+                    transactionTemplate.executeWithoutResult(status -> command.execute());
+                    command.complete();
+                    batchSizes.record(1);
+                } catch (RuntimeException individual) {
+                    command.future.completeExceptionally(individual);
+                }
+            }
+        }
+    }
+
+    private static boolean isBusinessFailure(RuntimeException e) {
+        return e instanceof BookUnavailableException || e instanceof ResourceNotFoundException
+                || e instanceof IllegalStateException;
+    }
+
+    private static final class Command<T> {
+        private final Supplier<T> action;
+        private final CompletableFuture<T> future = new CompletableFuture<>();
+        private final AtomicBoolean claimed = new AtomicBoolean();
+        private volatile boolean handedBack;
+        private T result;
+        private RuntimeException failure;
+
+        private Command(Supplier<T> action) {
+            this.action = action;
+        }
+
+        /**
+         * Runs the command in the current transaction. Business failures are kept for the caller,
+         * anything else propagates and aborts the batch.
+         */
+        void execute() {
+            try {
+                result = action.get();
+            } catch (RuntimeException e) {
+                if (!isBusinessFailure(e)) {
+                    throw e;
+                }
+                failure = e;
+            }
+        }
+
+        void complete() {
+            if (failure != null) {
+                future.completeExceptionally(failure);
+            } else {
+                future.complete(result);
+            }
+        }
+
+        void reset() {
+            result = null;
+            failure = null;
+        }
+
+        /**
+         * Makes the caller or the worker the only one to run the command.
+         */
+        boolean claim() {
+            return claimed.compareAndSet(false, true);
+        }
+
+        /**
+         * Leaves a command nobody started to its caller.
+         */
+        void handBack() {
+            if (claim()) {
+                handedBack = true;
+                future.completeExceptionally(new IllegalStateException("Borrow pipeline stopped"));
+            }
+        }
+    }
+}
@@ -1,18 +1,26 @@
 package com.org.booklibrary.service;
 
-import com.org.booklibrary.entity.Book;
-import com.org.booklibrary.entity.BorrowingRecord;
-import com.org.booklibrary.entity.User;
+import com.org.booklibrary.dto.BorrowingRecordFilter;
+import com.org.booklibrary.dto.BorrowingRecordView;
+import com.org.booklibrary.dto.KeysetPage;
 import com.org.booklibrary.exception.ResourceNotFoundException;
 import com.org.booklibrary.repository.BookRepository;
 import com.org.booklibrary.repository.BorrowingRecordRepository;
 import com.org.booklibrary.repository.UserRepository;
+import io.micrometer.core.annotation.Timed;
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
+@Slf4j
 @Service
+@Timed(value = "library.service", histogram = true)
 public class BorrowingRecordService {
 
     private final BorrowingRecordRepository borrowingRecordRepository;
@@ -26,19 +34,48 @@ public class BorrowingRecordService {
         this.bookRepository = bookRepository;
     }
 
-    public List<BorrowingRecord> getAllBorrowingRecords() {
-        return borrowingRecordRepository.findAll();
+    @Transactional(readOnly = true)
+    public List<BorrowingRecordView> getAllBorrowingRecords() {
+        return borrowingRecordRepository.findAllViews();
     }
 
-    public List<BorrowingRecord> getBorrowingRecordsByUser(Long userId) {
-        User user = userRepository.findById(userId)
-                .orElseThrow(() -> new ResourceNotFoundException("User not found with id: " + userId));
-        return borrowingRecordRepository.findByUser(user);
+    /**
+     * Returns one keyset page of the records matching the filter, ordered by id.
+     * @param afterId the id of the last record of the previous page, or {@code null} for the first page.
+     * @param limit the page size, capped at {@link KeysetPage#MAX_SIZE}.
+     */
+    @Transactional(readOnly = true)
+    public KeysetPage<BorrowingRecordView> getBorrowingRecordsPage(BorrowingRecordFilter filter, Long afterId, Integer limit) {
+        int pageSize = KeysetPage.size(limit);
+        List<BorrowingRecordView> rows = borrowingRecordRepository.findViewsAfter(afterId == null ? 0L : afterId, filter,
+                Limit.of(pageSize + 1));
+        return KeysetPage.of(rows, pageSize, BorrowingRecordView::id);
     }
 
-    public List<BorrowingRecord> getBorrowingRecordsByBook(Long bookId) {
-        Book book = bookRepository.findById(bookId)
-                .orElseThrow(() -> new ResourceNotFoundException("Book not found with id: " + bookId));
-        return borrowingRecordRepository.findByBook(book);
+    /**
+     * Streams the records matching the filter in id order to the given sink without materializing them.
+     */
+    @Transactional(readOnly = true)
+    public void exportBorrowingRecords(BorrowingRecordFilter filter, Consumer<BorrowingRecordView> sink) {
+        log.info("Exporting borrowing records matching {}.", filter);
+        try (Stream<BorrowingRecordView> records = borrowingRecordRepository.streamViews(filter)) {
+            records.forEach(sink);
+        }
+    }
+
+    @Transactional(readOnly = true)
+    public List<BorrowingRecordView> getBorrowingRecordsByUser(Long userId) {
+        if (!userRepository.existsById(userId)) {
+            throw new ResourceNotFoundException("User not found with id: " + userId);
+        }
+        return borrowingRecordRepository.findViewsByUserId(userId);
+    }
+
+    @Transactional(readOnly = true)
+    public List<BorrowingRecordView> getBorrowingRecordsByBook(Long bookId) {
+        if (!bookRepository.existsById(bookId)) {
+            throw new ResourceNotFoundException("Book not found with id: " + bookId);
+        }
+        return borrowingRecordRepository.findViewsByBookId(bookId);
     }
 }
@@ -0,0 +1,221 @@
+package com.org.booklibrary.service;
+
+import com.org.booklibrary.dto.HoldView;
+import com.org.booklibrary.dto.KeysetPage;
+import com.org.booklibrary.entity.Book;
+import com.org.booklibrary.entity.BorrowingRecord;
+import com.org.booklibrary.entity.Hold;
+import com.org.booklibrary.entity.User;
+import com.org.booklibrary.event.BookChangedEvent;
+import com.org.booklibrary.event.HoldEvent;
+import com.org.booklibrary.event.LoanEvent;
+import com.org.booklibrary.exception.ResourceNotFoundException;
+import com.org.booklibrary.inventory.BookInventory;
+import com.org.booklibrary.repository.BookRepository;
+import com.org.booklibrary.repository.BorrowingRecordRepository;
+import com.org.booklibrary.repository.HoldRepository;
+import com.org.booklibrary.repository.UserRepository;
+import io.micrometer.core.annotation.Timed;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Waitlists for books with no copy available. Instead of retrying the borrow, a client places one hold and
+ * waits for it to be fulfilled: whenever a copy comes back, {@link #allocate(Book)} lends it to the first waiting
+ * holder, by descending priority and then in the order the holds were placed.
+ */
+@Slf4j
+@Service
+@Timed(value = "library.service", histogram = true)
+public class HoldService {
+
+    private final HoldRepository holdRepository;
+    private final BookRepository bookRepository;
+    private final UserRepository userRepository;
+    private final BorrowingRecordRepository borrowingRecordRepository;
+    private final BookInventory bookInventory;
+    private final ApplicationEventPublisher eventPublisher;
+    private final TransactionTemplate transactionTemplate;
+
+    @Autowired
+    public HoldService(HoldRepository holdRepository, BookRepository bookRepository, UserRepository userRepository,
+                       BorrowingRecordRepository borrowingRecordRepository, BookInventory bookInventory,
+                       ApplicationEventPublisher eventPublisher, PlatformTransactionManager transactionManager) {
+        this.holdRepository = holdRepository;
+        this.bookRepository = bookRepository;
+        this.userRepository = userRepository;
+        this.borrowingRecordRepository = borrowingRecordRepository;
+        this.bookInventory = bookInventory;
+        this.eventPublisher = eventPublisher;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        // Runs from after-commit listeners, where the finished transaction is still bound to the thread
+        this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    /**
+     * Puts the user on the waitlist of the book, or returns the user's waiting hold if there already is one.
+     * If a copy is free the hold is fulfilled at once and the returned view carries the new loan.
+     */
+    @Transactional
+    public HoldView placeHold(Long bookId, Long userId, int priority) {
+        log.info("Attempting to place a hold on book (ID: {}) for user (ID: {}) with priority {}.", bookId, userId, priority);
+        if (priority < 0) {
+            throw new IllegalArgumentException("Priority must not be negative.");
+        }
+        Book book = bookRepository.findById(bookId)
+                .orElseThrow(() -> new ResourceNotFoundException("Book not found with id: " + bookId));
+        User user = userRepository.findById(userId)
+                .orElseThrow(() -> new ResourceNotFoundException("User not found with id: " + userId));
+
+        if (borrowingRecordRepository.existsByOpenLoanKey(BorrowingRecord.openLoanKey(userId, bookId))) {
+            throw new IllegalStateException("User '" + user.getUsername() + "' has already borrowed '" + book.getTitle() + "'.");
+        }
+        String waitingKey = Hold.waitingKey(userId, bookId);
+        HoldView existing = holdRepository.findViewByWaitingKey(waitingKey).orElse(null);
+        if (existing != null) {
+            log.info("User (ID: {}) already waits for book (ID: {}) with hold ID: {}", userId, bookId, existing.id());
+            return withPosition(existing);
+        }
+
+        Hold hold = holdRepository.save(Hold.builder()
+                .book(book)
+                .user(user)
+                .priority(priority)
+                .status(Hold.Status.WAITING)
+                .placedAt(Instant.now())
+                .waitingKey(waitingKey)
+                .build());
+        HoldView placed = holdRepository.findViewById(hold.getId()).orElseThrow();
+        eventPublisher.publishEvent(HoldEvent.placed(placed));
+        log.info("Hold placed with ID: {} on book (ID: {}) for user (ID: {})", hold.getId(), bookId, userId);
+        allocate(book);
+        return getHold(hold.getId());
+    }
+
+    public HoldView getHold(Long holdId) {
+        return holdRepository.findViewById(holdId)
+                .map(this::withPosition)
+                .orElseThrow(() -> new ResourceNotFoundException("Hold not found with id: " + holdId));
+    }
+
+    /**
+     * The waiting holds of the book in the order they will be served.
+     */
+    public List<HoldView> getWaitlist(Long bookId, Integer limit) {
+        if (!bookRepository.existsById(bookId)) {
+            throw new ResourceNotFoundException("Book not found with id: " + bookId);
+        }
+        List<HoldView> holds = holdRepository.findWaitingViews(bookId, Limit.of(KeysetPage.size(limit)));
+        for (int i = 0; i < holds.size(); i++) {
+            holds.set(i, holds.get(i).withPosition(i + 1L));
+        }
+        return holds;
+    }
+
+    @Transactional
+    public HoldView cancelHold(Long holdId) {
+        log.info("Attempting to cancel hold with ID: {}", holdId);
+        HoldView hold = getHold(holdId);
+        if (holdRepository.close(holdId, Hold.Status.CANCELLED, Instant.now()) == 0) {
+            throw new IllegalStateException("Hold " + holdId + " is no longer waiting.");
+        }
+        eventPublisher.publishEvent(HoldEvent.cancelled(hold));
+        log.info("Hold with ID: {} cancelled.", holdId);
+        return getHold(holdId);
+    }
+
+    /**
+     * Lends free copies of the book to its waiting holders until either runs out, in the caller's transaction.
+     * Each hold is claimed with a conditional update, so concurrent allocations never serve a hold twice;
+     * a holder who meanwhile borrowed the book directly has the hold cancelled instead.
+     * @return the number of holds fulfilled.
+     */
+    @Transactional
+    public int allocate(Book book) {
+        int fulfilled = 0;
+        while (true) {
+            List<HoldView> next = holdRepository.findWaitingViews(book.getId(), Limit.of(1));
+            if (next.isEmpty()) {
+                return fulfilled;
+            }
+            HoldView hold = next.get(0);
+            if (borrowingRecordRepository.existsByOpenLoanKey(BorrowingRecord.openLoanKey(hold.userId(), hold.bookId()))) {
+                if (holdRepository.close(hold.id(), Hold.Status.CANCELLED, Instant.now()) > 0) {
+                    log.info("Cancelled hold ID: {}, user (ID: {}) already has book (ID: {})", hold.id(), hold.userId(), hold.bookId());
+                    eventPublisher.publishEvent(HoldEvent.cancelled(hold));
+                }
+                continue;
+            }
+            if (!bookInventory.tryReserve(book)) {
+                return fulfilled;
+            }
+            if (holdRepository.close(hold.id(), Hold.Status.FULFILLED, Instant.now()) == 0) {
+                bookInventory.release(book);
+                continue;
+            }
+            BorrowingRecord record = borrowingRecordRepository.save(
+                    new BorrowingRecord(book, userRepository.getReferenceById(hold.userId()), LocalDate.now()));
+            holdRepository.attachRecord(hold.id(), record.getId());
+            log.info("Hold ID: {} fulfilled with borrowing record ID: {} for book (ID: {}) and user (ID: {})",
+                    hold.id(), record.getId(), hold.bookId(), hold.userId());
+            eventPublisher.publishEvent(LoanEvent.borrowed(record));
+            eventPublisher.publishEvent(HoldEvent.fulfilled(hold, record.getId()));
+            fulfilled++;
+        }
+    }
+
+    /**
+     * A returned copy goes to the waitlist right after the return commits, in a transaction of its own, so a failed
+     * allocation never rolls the return back. A direct borrow can only take the copy in between.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onLoanReturned(LoanEvent event) {
+        if (event.type() == LoanEvent.Type.RETURNED) {
+            allocateAfterCommit(event.bookId());
+        }
+    }
+
+    /**
+     * A hold placed while a concurrent return was committing cannot have been seen by that return's allocation,
+     * and copies added by an update only reach the inventory once the update has committed; both are
+     * allocated again here, after commit.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onHoldPlaced(HoldEvent event) {
+        if (event.type() == HoldEvent.Type.PLACED) {
+            allocateAfterCommit(event.bookId());
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onBookChanged(BookChangedEvent event) {
+        if (event.type() == BookChangedEvent.Type.UPDATED) {
+            allocateAfterCommit(event.bookId());
+        }
+    }
+
+    private void allocateAfterCommit(Long bookId) {
+        try {
+            transactionTemplate.executeWithoutResult(status -> bookRepository.findById(bookId).ifPresent(this::allocate));
+        } catch (RuntimeException e) {
+            // The next return or update of the book allocates again
+            log.warn("Could not allocate copies of book (ID: {}) to its holds: {}", bookId, e.getMessage());
+        }
+    }
+
+    private HoldView withPosition(HoldView hold) {
+        return hold.waiting() ? hold.withPosition(holdRepository.countAhead(hold.bookId(), hold.priority(), hold.id()) + 1) : hold;
+    }
+}
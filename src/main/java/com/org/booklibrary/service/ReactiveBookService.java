@@ -0,0 +1,69 @@
+package com.org.booklibrary.service;
+
+import com.org.booklibrary.dto.BookView;
+import com.org.booklibrary.dto.KeysetPage;
+import com.org.booklibrary.exception.ResourceNotFoundException;
+import com.org.booklibrary.inventory.BookInventory;
+import com.org.booklibrary.repository.ReactiveBookRepository;
+import com.org.booklibrary.search.BookSearchIndex;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * The read side of {@link BookService} without blocking a thread per request: books come from
+ * {@link ReactiveBookRepository} and search from the in-memory {@link BookSearchIndex}.
+ * Every view gets the in-memory available-copies count, so both paths answer the same.
+ */
+@Slf4j
+@Service
+public class ReactiveBookService {
+
+    private final ReactiveBookRepository reactiveBookRepository;
+    private final BookSearchIndex bookSearchIndex;
+    private final BookInventory bookInventory;
+
+    @Autowired
+    public ReactiveBookService(ReactiveBookRepository reactiveBookRepository, BookSearchIndex bookSearchIndex,
+                               BookInventory bookInventory) {
+        this.reactiveBookRepository = reactiveBookRepository;
+        this.bookSearchIndex = bookSearchIndex;
+        this.bookInventory = bookInventory;
+    }
+
+    /**
+     * Same paging as {@link BookService#getBooksPage(Long, Integer)}.
+     */
+    public Mono<KeysetPage<BookView>> getBooksPage(Long afterId, Integer limit) {
+        int pageSize = KeysetPage.size(limit);
+        return reactiveBookRepository.findPageAfter(afterId == null ? 0L : afterId, pageSize + 1)
+                .map(this::toView)
+                .collectList()
+                .map(rows -> KeysetPage.of(rows, pageSize, BookView::id));
+    }
+
+    /**
+     * The whole catalog in id order, read as fast as the subscriber consumes it.
+     */
+    public Flux<BookView> streamBooks() {
+        log.info("Streaming all books.");
+        return reactiveBookRepository.streamAll().map(this::toView);
+    }
+
+    public Mono<BookView> getBookById(Long id) {
+        return reactiveBookRepository.findById(id)
+                .map(this::toView)
+                .switchIfEmpty(Mono.error(() -> new ResourceNotFoundException("Book not found with id: " + id)));
+    }
+
+    public Flux<BookView> searchBooks(String title, String author, String isbn) {
+        return Flux.defer(() -> Flux.fromIterable(bookSearchIndex.search(title, author, isbn)))
+                .map(bookInventory::overlay);
+    }
+
+    private BookView toView(ReactiveBookRepository.BookRow row) {
+        return bookInventory.overlay(row.toView());
+    }
+}
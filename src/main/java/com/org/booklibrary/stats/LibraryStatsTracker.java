@@ -0,0 +1,233 @@
+package com.org.booklibrary.stats;
+
+import com.org.booklibrary.dto.AuthorStats;
+import com.org.booklibrary.dto.BookView;
+import com.org.booklibrary.dto.DailyLoans;
+import com.org.booklibrary.dto.LibraryStats;
+import com.org.booklibrary.dto.LoanCount;
+import com.org.booklibrary.event.BookChangedEvent;
+import com.org.booklibrary.event.LoanEvent;
+import com.org.booklibrary.inventory.BookInventory;
+import com.org.booklibrary.repository.BookRepository;
+import com.org.booklibrary.repository.BorrowingRecordRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Keeps the dashboard figures in memory: copies per author, loans per day, per book and per user.
+ * They are computed from the database at startup and on every reconcile, and in between kept current from
+ * committed {@link BookChangedEvent}s and {@link LoanEvent}s, so reads never scan {@code Book} or
+ * {@code BorrowingRecord}. A change committed while a reconcile is running may be missed until the next one.
+ */
+@Slf4j
+@Component
+public class LibraryStatsTracker {
+
+    private final BookRepository bookRepository;
+    private final BorrowingRecordRepository borrowingRecordRepository;
+    private final BookInventory bookInventory;
+
+    private volatile Aggregates aggregates = new Aggregates(Instant.EPOCH);
+
+    @Autowired
+    public LibraryStatsTracker(BookRepository bookRepository, BorrowingRecordRepository borrowingRecordRepository,
+                               BookInventory bookInventory) {
+        this.bookRepository = bookRepository;
+        this.borrowingRecordRepository = borrowingRecordRepository;
+        this.bookInventory = bookInventory;
+    }
+
+    /**
+     * Recomputes every figure from the database and replaces the current ones in one step.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(initialDelayString = "${library.stats.reconcile-interval-ms:300000}",
+            fixedDelayString = "${library.stats.reconcile-interval-ms:300000}")
+    public synchronized void reconcile() {
+        Aggregates fresh = new Aggregates(Instant.now());
+        for (BookView book : bookRepository.findAllViews()) {
+            fresh.putBook(bookInventory.overlay(book));
+        }
+        for (DailyLoans day : borrowingRecordRepository.countLoansPerDay()) {
+            fresh.loansPerDay.computeIfAbsent(day.day(), k -> new LongAdder()).add(day.loans());
+            fresh.loans.add(day.loans());
+        }
+        borrowingRecordRepository.countLoansPerBook()
+                .forEach(count -> fresh.loansPerBook.computeIfAbsent(count.id(), k -> new LongAdder()).add(count.loans()));
+        borrowingRecordRepository.countLoansPerUser()
+                .forEach(count -> fresh.loansPerUser.computeIfAbsent(count.id(), k -> new LongAdder()).add(count.loans()));
+        fresh.openLoans.add(borrowingRecordRepository.countByReturnDateIsNull());
+
+        LibraryStats before = aggregates.summary();
+        aggregates = fresh;
+        LibraryStats after = fresh.summary();
+        if (before.reconciledAt() != Instant.EPOCH && (before.availableCopies() != after.availableCopies()
+                || before.loans() != after.loans() || before.openLoans() != after.openLoans())) {
+            log.info("Library stats drifted from the database and were corrected: {} -> {}", before, after);
+        }
+        log.info("Library stats reconciled: {} books, {} loans.", after.books(), after.loans());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onBookChanged(BookChangedEvent event) {
+        if (event.type() == BookChangedEvent.Type.DELETED) {
+            aggregates.removeBook(event.bookId());
+        } else {
+            aggregates.putBook(BookView.of(event.book()));
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onLoanEvent(LoanEvent event) {
+        Aggregates current = aggregates;
+        if (event.type() == LoanEvent.Type.BORROWED) {
+            current.loansPerDay.computeIfAbsent(event.borrowDate(), k -> new LongAdder()).increment();
+            current.loansPerBook.computeIfAbsent(event.bookId(), k -> new LongAdder()).increment();
+            current.loansPerUser.computeIfAbsent(event.userId(), k -> new LongAdder()).increment();
+            current.loans.increment();
+            current.openLoans.increment();
+            current.adjustAvailable(event.bookId(), -1);
+        } else {
+            current.openLoans.decrement();
+            current.adjustAvailable(event.bookId(), 1);
+        }
+    }
+
+    public LibraryStats summary() {
+        return aggregates.summary();
+    }
+
+    public Optional<AuthorStats> author(String author) {
+        return Optional.ofNullable(aggregates.authors.get(author));
+    }
+
+    /**
+     * All authors ordered by name; proportional to the number of authors, not of books.
+     */
+    public List<AuthorStats> authors() {
+        List<AuthorStats> authors = new ArrayList<>(aggregates.authors.values());
+        authors.sort(Comparator.comparing(AuthorStats::author));
+        return authors;
+    }
+
+    /**
+     * Loans opened on each day from {@code from} to {@code to} inclusive, days without loans included.
+     */
+    public List<DailyLoans> loansPerDay(LocalDate from, LocalDate to) {
+        Map<LocalDate, LongAdder> perDay = aggregates.loansPerDay;
+        List<DailyLoans> days = new ArrayList<>();
+        for (LocalDate day = from; !day.isAfter(to); day = day.plusDays(1)) {
+            days.add(new DailyLoans(day, sum(perDay.get(day))));
+        }
+        return days;
+    }
+
+    public LoanCount loansForBook(Long bookId) {
+        return new LoanCount(bookId, sum(aggregates.loansPerBook.get(bookId)));
+    }
+
+    public LoanCount loansForUser(Long userId) {
+        return new LoanCount(userId, sum(aggregates.loansPerUser.get(userId)));
+    }
+
+    private static long sum(LongAdder adder) {
+        return adder == null ? 0 : adder.sum();
+    }
+
+    /**
+     * One generation of figures. Per-author entries are immutable and replaced under
+     * {@link ConcurrentHashMap#compute}, so a read never sees a half-applied change.
+     */
+    private static final class Aggregates {
+
+        private final Instant reconciledAt;
+        private final Map<Long, BookFigures> books = new ConcurrentHashMap<>();
+        private final Map<String, AuthorStats> authors = new ConcurrentHashMap<>();
+        private final Map<LocalDate, LongAdder> loansPerDay = new ConcurrentHashMap<>();
+        private final Map<Long, LongAdder> loansPerBook = new ConcurrentHashMap<>();
+        private final Map<Long, LongAdder> loansPerUser = new ConcurrentHashMap<>();
+        private final LongAdder totalCopies = new LongAdder();
+        private final LongAdder availableCopies = new LongAdder();
+        private final LongAdder loans = new LongAdder();
+        private final LongAdder openLoans = new LongAdder();
+
+        private Aggregates(Instant reconciledAt) {
+            this.reconciledAt = reconciledAt;
+        }
+
+        LibraryStats summary() {
+            return new LibraryStats(books.size(), totalCopies.sum(), availableCopies.sum(), loans.sum(), openLoans.sum(),
+                    reconciledAt);
+        }
+
+        void putBook(BookView book) {
+            BookFigures figures = new BookFigures(Objects.requireNonNullElse(book.author(), ""),
+                    Objects.requireNonNullElse(book.totalCopies(), 0), Objects.requireNonNullElse(book.availableCopies(), 0));
+            books.compute(book.id(), (id, old) -> {
+                if (old != null) {
+                    add(old, -1);
+                }
+                add(figures, 1);
+                return figures;
+            });
+        }
+
+        void removeBook(Long bookId) {
+            books.computeIfPresent(bookId, (id, old) -> {
+                add(old, -1);
+                return null;
+            });
+            loansPerBook.remove(bookId);
+        }
+
+        /**
+         * Moves the book's available copies by {@code delta}, kept within 0 and its total copies.
+         * Books not known yet are picked up by the next reconcile.
+         */
+        void adjustAvailable(Long bookId, int delta) {
+            books.computeIfPresent(bookId, (id, old) -> {
+                int available = Math.max(0, Math.min(old.total(), old.available() + delta));
+                if (available == old.available()) {
+                    return old;
+                }
+                BookFigures changed = new BookFigures(old.author(), old.total(), available);
+                add(old, -1);
+                add(changed, 1);
+                return changed;
+            });
+        }
+
+        private void add(BookFigures book, int sign) {
+            totalCopies.add((long) sign * book.total());
+            availableCopies.add((long) sign * book.available());
+            authors.compute(book.author(), (author, stats) -> {
+                long count = (stats == null ? 0 : stats.books()) + sign;
+                if (count <= 0) {
+                    return null;
+                }
+                return new AuthorStats(author, count,
+                        (stats == null ? 0 : stats.totalCopies()) + (long) sign * book.total(),
+                        (stats == null ? 0 : stats.availableCopies()) + (long) sign * book.available());
+            });
+        }
+    }
+
+    private record BookFigures(String author, int total, int available) {
+    }
+}
@@ -0,0 +1,36 @@
+create sequence book_seq start with 1 increment by 50;
+
+create table book (
+    id bigint not null,
+    title varchar(255),
+    author varchar(255),
+    isbn varchar(255),
+    publication_year integer not null check (publication_year >= 1000),
+    total_copies integer not null check (total_copies >= 0),
+    available_copies integer not null check (available_copies >= 0),
+    version bigint,
+    primary key (id)
+);
+
+create table library_user (
+    id bigint generated by default as identity,
+    username varchar(255),
+    email varchar(255),
+    primary key (id)
+);
+
+create table borrowing_record (
+    id bigint generated by default as identity,
+    book_id bigint not null,
+    user_id bigint not null,
+    borrow_date date not null,
+    return_date date,
+    open_loan_key varchar(41),
+    primary key (id),
+    constraint uk_borrowing_record_open_loan unique (open_loan_key),
+    constraint fk_borrowing_record_book foreign key (book_id) references book,
+    constraint fk_borrowing_record_user foreign key (user_id) references library_user
+);
+
+create index idx_borrowing_record_user_book_return on borrowing_record (user_id, book_id, return_date);
+create index idx_borrowing_record_book on borrowing_record (book_id);
@@ -0,0 +1,11 @@
+create table idempotency_key (
+    idempotency_key varchar(255) not null,
+    fingerprint varchar(512) not null,
+    status integer not null,
+    content_type varchar(255),
+    body varbinary(65536),
+    created_at timestamp(6) with time zone not null,
+    primary key (idempotency_key)
+);
+
+create index idx_idempotency_key_created_at on idempotency_key (created_at);
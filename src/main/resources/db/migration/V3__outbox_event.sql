@@ -0,0 +1,14 @@
+create sequence outbox_event_seq start with 1 increment by 50;
+
+create table outbox_event (
+    id bigint not null,
+    aggregate_type varchar(32) not null,
+    aggregate_id bigint not null,
+    event_type varchar(32) not null,
+    payload varchar(8192) not null,
+    occurred_at timestamp(6) with time zone not null,
+    published_at timestamp(6) with time zone,
+    primary key (id)
+);
+
+create index idx_outbox_event_published on outbox_event (published_at, id);
@@ -0,0 +1,17 @@
+create table book_hold (
+    id bigint generated by default as identity,
+    book_id bigint not null,
+    user_id bigint not null,
+    priority integer not null,
+    status varchar(16) not null,
+    placed_at timestamp(6) with time zone not null,
+    closed_at timestamp(6) with time zone,
+    borrowing_record_id bigint,
+    waiting_key varchar(41),
+    primary key (id),
+    constraint uk_book_hold_waiting unique (waiting_key),
+    constraint fk_book_hold_book foreign key (book_id) references book,
+    constraint fk_book_hold_user foreign key (user_id) references library_user
+);
+
+create index idx_book_hold_queue on book_hold (book_id, status, priority, id);
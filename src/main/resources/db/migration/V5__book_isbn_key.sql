@@ -0,0 +1,4 @@
+-- Filled by IsbnKeyMigration for existing rows; left null where the ISBN is invalid or taken by an older book.
+alter table book add column isbn_key bigint;
+
+alter table book add constraint uk_book_isbn_key unique (isbn_key);
@@ -0,0 +1,6 @@
+alter table outbox_event add column delivery_sequence bigint;
+
+-- Rows relayed before the column existed keep their id as their place in the stream
+update outbox_event set delivery_sequence = id where published_at is not null;
+
+create unique index idx_outbox_event_delivery on outbox_event (delivery_sequence);
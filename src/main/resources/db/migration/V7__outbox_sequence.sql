@@ -0,0 +1,8 @@
+create table outbox_sequence (
+    id bigint not null,
+    last_sequence bigint not null,
+    primary key (id)
+);
+
+insert into outbox_sequence (id, last_sequence)
+select 1, coalesce(max(delivery_sequence), 0) from outbox_event;
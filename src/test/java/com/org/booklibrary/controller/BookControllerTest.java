@@ -1,6 +1,9 @@
 package com.org.booklibrary.controller;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.org.booklibrary.catalog.CatalogVersion;
+import com.org.booklibrary.dto.BookView;
+import com.org.booklibrary.dto.KeysetPage;
 import com.org.booklibrary.entity.Book;
 import com.org.booklibrary.entity.BorrowingRecord;
 import com.org.booklibrary.entity.User;
@@ -13,12 +16,16 @@ import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 
+import java.time.Instant;
 import java.time.LocalDate;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
+import java.util.function.Consumer;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
@@ -27,12 +34,17 @@ import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.
 @WebMvcTest(BookController.class)
 public class BookControllerTest {
 
+    private static final Instant LAST_MODIFIED = Instant.parse("2024-05-01T10:15:30Z");
+
     @Autowired
     private MockMvc mockMvc;
 
     @MockBean
     private BookService bookService;
 
+    @MockBean
+    private CatalogVersion catalogVersion;
+
     @Autowired
     private ObjectMapper objectMapper;
 
@@ -54,11 +66,88 @@ public class BookControllerTest {
 
         borrowingRecord1 = new BorrowingRecord(book1, user1, LocalDate.now());
         borrowingRecord1.setId(1001L);
+
+        when(catalogVersion.etag()).thenReturn("\"catalog-test-7\"");
+        when(catalogVersion.lastModified()).thenReturn(LAST_MODIFIED.toEpochMilli());
+    }
+
+    @Test
+    void testGetBooksCarriesCatalogValidators() throws Exception {
+        when(bookService.getAllBooks()).thenReturn(List.of(BookView.of(book1)));
+
+        mockMvc.perform(get("/api/v1/books"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "\"catalog-test-7\""))
+                .andExpect(header().dateValue("Last-Modified", LAST_MODIFIED.toEpochMilli()))
+                .andExpect(header().string("Cache-Control", "no-cache"));
+    }
+
+    @Test
+    void testGetBooksNotModifiedSkipsTheService() throws Exception {
+        mockMvc.perform(get("/api/v1/books?limit=10").header("If-None-Match", "\"catalog-test-7\""))
+                .andExpect(status().isNotModified())
+                .andExpect(content().string(""));
+        mockMvc.perform(get("/api/v1/books").header("If-Modified-Since", LAST_MODIFIED.toEpochMilli()))
+                .andExpect(status().isNotModified());
+
+        verifyNoInteractions(bookService);
+    }
+
+    @Test
+    void testChangeInTheCurrentSecondLeavesOnlyTheEtag() throws Exception {
+        when(catalogVersion.lastModified()).thenReturn(-1L);
+        when(bookService.getAllBooks()).thenReturn(List.of(BookView.of(book1)));
+
+        mockMvc.perform(get("/api/v1/books").header("If-Modified-Since", LAST_MODIFIED.toEpochMilli()))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "\"catalog-test-7\""))
+                .andExpect(header().doesNotExist("Last-Modified"));
+    }
+
+    @Test
+    void testGetBooksWithStaleEtagIsServed() throws Exception {
+        when(bookService.getAllBooks()).thenReturn(List.of(BookView.of(book1)));
+
+        mockMvc.perform(get("/api/v1/books").header("If-None-Match", "\"catalog-test-6\""))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].title").value("Title A"));
+    }
+
+    @Test
+    void testGetBookByIdNotModified() throws Exception {
+        book1.setVersion(4L);
+        when(bookService.getBookById(1L)).thenReturn(book1);
+
+        mockMvc.perform(get("/api/v1/books/1"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "\"book-1-4-3\""));
+        mockMvc.perform(get("/api/v1/books/1").header("If-None-Match", "\"book-1-4-3\""))
+                .andExpect(status().isNotModified())
+                .andExpect(content().string(""));
+
+        // A borrow changes the available copies and with them the tag.
+        book1.setAvailableCopies(2);
+        mockMvc.perform(get("/api/v1/books/1").header("If-None-Match", "\"book-1-4-3\""))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.availableCopies").value(2));
+    }
+
+    @Test
+    void testGetBookByIsbn() throws Exception {
+        when(bookService.getBookByIsbn("0-00-240100-2")).thenReturn(book1);
+        when(bookService.getBookByIsbn("12345")).thenThrow(new IllegalArgumentException("Invalid ISBN: '12345'."));
+
+        mockMvc.perform(get("/api/v1/books/isbn/0-00-240100-2"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.id").value(1))
+                .andExpect(jsonPath("$.isbnKey").doesNotExist());
+        mockMvc.perform(get("/api/v1/books/isbn/12345"))
+                .andExpect(status().isBadRequest());
     }
 
     @Test
     void testGetAllBooks() throws Exception {
-        List<Book> allBooks = Arrays.asList(book1, book2);
+        List<BookView> allBooks = Arrays.asList(BookView.of(book1), BookView.of(book2));
         when(bookService.getAllBooks()).thenReturn(allBooks);
 
         mockMvc.perform(get("/api/v1/books")
@@ -71,9 +160,60 @@ public class BookControllerTest {
         verify(bookService, never()).searchBooks(anyString(), anyString(), anyString()); // Should not call search if no params
     }
 
+    @Test
+    void testGetBooksPage() throws Exception {
+        when(bookService.getBooksPage(null, 1)).thenReturn(new KeysetPage<>(List.of(BookView.of(book1)), 1L));
+
+        mockMvc.perform(get("/api/v1/books?limit=1")
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.size()").value(1))
+                .andExpect(header().string("X-Next-Cursor", "1"))
+                .andExpect(header().string("Link", "<http://localhost/api/v1/books?afterId=1&limit=1>; rel=\"next\""));
+
+        verify(bookService, times(1)).getBooksPage(null, 1);
+        verify(bookService, never()).getAllBooks();
+    }
+
+    @Test
+    void testGetBooksLastPageHasNoCursor() throws Exception {
+        when(bookService.getBooksPage(1L, null)).thenReturn(new KeysetPage<>(List.of(BookView.of(book2)), null));
+
+        mockMvc.perform(get("/api/v1/books?afterId=1")
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].title").value("Title B"))
+                .andExpect(header().doesNotExist("X-Next-Cursor"));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void testExportBooksAsNdjson() throws Exception {
+        doAnswer(invocation -> {
+            Consumer<BookView> sink = invocation.getArgument(0);
+            sink.accept(BookView.of(book1));
+            sink.accept(BookView.of(book2));
+            return null;
+        }).when(bookService).exportBooks(any(Consumer.class));
+
+        MvcResult result = mockMvc.perform(get("/api/v1/books/export"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        String body = mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType("application/x-ndjson"))
+                .andReturn().getResponse().getContentAsString();
+
+        String[] lines = body.split("\n");
+        assertEquals(2, lines.length);
+        assertEquals(objectMapper.writeValueAsString(book1), lines[0]);
+        assertEquals("Title B", objectMapper.readValue(lines[1], Book.class).getTitle());
+    }
+
     @Test
     void testSearchBooksByTitle() throws Exception {
-        when(bookService.searchBooks("Title A", null, null)).thenReturn(Collections.singletonList(book1));
+        when(bookService.searchBooks("Title A", null, null)).thenReturn(Collections.singletonList(BookView.of(book1)));
 
         mockMvc.perform(get("/api/v1/books?title=Title A")
                         .contentType(MediaType.APPLICATION_JSON))
@@ -87,7 +227,7 @@ public class BookControllerTest {
 
     @Test
     void testSearchBooksByAuthor() throws Exception {
-        when(bookService.searchBooks(null, "Author A", null)).thenReturn(Collections.singletonList(book1));
+        when(bookService.searchBooks(null, "Author A", null)).thenReturn(Collections.singletonList(BookView.of(book1)));
 
         mockMvc.perform(get("/api/v1/books?author=Author A")
                         .contentType(MediaType.APPLICATION_JSON))
@@ -101,7 +241,7 @@ public class BookControllerTest {
 
     @Test
     void testSearchBooksByISBN() throws Exception {
-        when(bookService.searchBooks(null, null, "ISBN-001")).thenReturn(Collections.singletonList(book1));
+        when(bookService.searchBooks(null, null, "ISBN-001")).thenReturn(Collections.singletonList(BookView.of(book1)));
 
         mockMvc.perform(get("/api/v1/books?isbn=ISBN-001")
                         .contentType(MediaType.APPLICATION_JSON))
@@ -0,0 +1,137 @@
+package com.org.booklibrary.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.org.booklibrary.dto.BorrowingRecordFilter;
+import com.org.booklibrary.dto.BorrowingRecordView;
+import com.org.booklibrary.dto.KeysetPage;
+import com.org.booklibrary.dto.OverdueLoan;
+import com.org.booklibrary.exception.ResourceNotFoundException;
+import com.org.booklibrary.overdue.OverdueLoanTracker;
+import com.org.booklibrary.service.BorrowingRecordService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.function.Consumer;
+
+import static org.hamcrest.Matchers.containsString;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@WebMvcTest(BorrowingRecordController.class)
+public class BorrowingRecordControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockBean
+    private BorrowingRecordService borrowingRecordService;
+
+    @MockBean
+    private OverdueLoanTracker overdueLoanTracker;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private final BorrowingRecordView open = new BorrowingRecordView(1001L, 1L, "Title A", 101L, "user1",
+            LocalDate.of(2024, 3, 1), null);
+    private final BorrowingRecordView returned = new BorrowingRecordView(1002L, 1L, "Title A", 102L, "user2",
+            LocalDate.of(2024, 3, 2), LocalDate.of(2024, 3, 9));
+
+    @Test
+    void testGetBorrowingRecordsPageWithFilters() throws Exception {
+        BorrowingRecordFilter filter = new BorrowingRecordFilter(null, 1L, LocalDate.of(2024, 3, 1), LocalDate.of(2024, 3, 31), null, null);
+        when(borrowingRecordService.getBorrowingRecordsPage(filter, null, 1)).thenReturn(new KeysetPage<>(List.of(open), 1001L));
+
+        mockMvc.perform(get("/api/v1/borrowing-records?bookId=1&borrowedFrom=2024-03-01&borrowedTo=2024-03-31&limit=1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.size()").value(1))
+                .andExpect(jsonPath("$[0].username").value("user1"))
+                .andExpect(jsonPath("$[0].borrowDate").value("2024-03-01"))
+                .andExpect(header().string("X-Next-Cursor", "1001"))
+                .andExpect(header().string("Link", "<http://localhost/api/v1/borrowing-records?bookId=1&borrowedFrom=2024-03-01"
+                        + "&borrowedTo=2024-03-31&afterId=1001&limit=1>; rel=\"next\""));
+    }
+
+    @Test
+    void testGetBorrowingRecordsRejectsInvertedRange() throws Exception {
+        mockMvc.perform(get("/api/v1/borrowing-records?returnedFrom=2024-04-01&returnedTo=2024-03-01"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message").value("returnedFrom must not be after returnedTo."));
+
+        verifyNoInteractions(borrowingRecordService);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void testExportBorrowingRecordsAsNdjson() throws Exception {
+        BorrowingRecordFilter filter = new BorrowingRecordFilter(101L, null, null, null, null, null);
+        doAnswer(invocation -> {
+            Consumer<BorrowingRecordView> sink = invocation.getArgument(1);
+            sink.accept(open);
+            sink.accept(returned);
+            return null;
+        }).when(borrowingRecordService).exportBorrowingRecords(eq(filter), any(Consumer.class));
+
+        MvcResult result = mockMvc.perform(get("/api/v1/borrowing-records/export?userId=101"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        String body = mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType("application/x-ndjson"))
+                .andReturn().getResponse().getContentAsString();
+
+        String[] lines = body.split("\n");
+        assertEquals(2, lines.length);
+        assertEquals(open, objectMapper.readValue(lines[0], BorrowingRecordView.class));
+        assertEquals(returned, objectMapper.readValue(lines[1], BorrowingRecordView.class));
+    }
+
+    @Test
+    void testGetBorrowingRecordsByUserNotFound() throws Exception {
+        when(borrowingRecordService.getBorrowingRecordsByUser(999L))
+                .thenThrow(new ResourceNotFoundException("User not found with id: 999"));
+
+        mockMvc.perform(get("/api/v1/borrowing-records/users/999"))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    void testGetOverdueLoansCapsLimit() throws Exception {
+        OverdueLoan overdue = new OverdueLoan(1001L, 1L, 101L, LocalDate.of(2024, 3, 1), LocalDate.of(2024, 3, 15));
+        when(overdueLoanTracker.overdue(any(LocalDate.class), isNull(), isNull(), eq(501))).thenReturn(List.of(overdue));
+
+        mockMvc.perform(get("/api/v1/borrowing-records/overdue?limit=100000"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].recordId").value(1001))
+                .andExpect(jsonPath("$[0].dueDate").value("2024-03-15"));
+    }
+
+    @Test
+    void testGetOverdueLoansPagesByBorrowDateAndId() throws Exception {
+        OverdueLoan first = new OverdueLoan(1001L, 1L, 101L, LocalDate.of(2024, 3, 1), LocalDate.of(2024, 3, 15));
+        OverdueLoan second = new OverdueLoan(1005L, 1L, 102L, LocalDate.of(2024, 3, 2), LocalDate.of(2024, 3, 16));
+        when(overdueLoanTracker.overdue(any(LocalDate.class), eq(LocalDate.of(2024, 2, 1)), eq(900L), eq(2)))
+                .thenReturn(List.of(first, second));
+
+        mockMvc.perform(get("/api/v1/borrowing-records/overdue?afterBorrowDate=2024-02-01&afterId=900&limit=1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(1))
+                .andExpect(header().string("Link", containsString("afterBorrowDate=2024-03-01")))
+                .andExpect(header().string("Link", containsString("afterId=1001")));
+
+        mockMvc.perform(get("/api/v1/borrowing-records/overdue?afterId=900"))
+                .andExpect(status().isBadRequest());
+    }
+}
@@ -0,0 +1,133 @@
+package com.org.booklibrary.controller;
+
+import com.org.booklibrary.dto.HoldView;
+import com.org.booklibrary.entity.Book;
+import com.org.booklibrary.entity.BorrowingRecord;
+import com.org.booklibrary.entity.Hold;
+import com.org.booklibrary.entity.User;
+import com.org.booklibrary.exception.BookUnavailableException;
+import com.org.booklibrary.repository.BorrowingRecordRepository;
+import com.org.booklibrary.repository.UserRepository;
+import com.org.booklibrary.service.BookService;
+import com.org.booklibrary.service.HoldService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+public class HoldControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private BookService bookService;
+
+    @Autowired
+    private HoldService holdService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private BorrowingRecordRepository borrowingRecordRepository;
+
+    @Test
+    void testReturnedCopyGoesToTheHighestPriorityThenTheEarliestHold() {
+        Book book = bookService.addBook(new Book("Hot Title", "Author", "9780024001016", 2001, 1, 1));
+        User reader = userRepository.save(new User("hold_reader", "hold_reader@example.com"));
+        User first = userRepository.save(new User("hold_first", "hold_first@example.com"));
+        User second = userRepository.save(new User("hold_second", "hold_second@example.com"));
+        User urgent = userRepository.save(new User("hold_urgent", "hold_urgent@example.com"));
+        BorrowingRecord loan = bookService.borrowBook(book.getId(), reader.getId());
+        assertThrows(BookUnavailableException.class, () -> bookService.borrowBook(book.getId(), first.getId()));
+
+        HoldView firstHold = holdService.placeHold(book.getId(), first.getId(), 0);
+        HoldView secondHold = holdService.placeHold(book.getId(), second.getId(), 0);
+        HoldView urgentHold = holdService.placeHold(book.getId(), urgent.getId(), 5);
+        assertEquals(Hold.Status.WAITING, firstHold.status());
+        assertEquals(firstHold.id(), holdService.placeHold(book.getId(), first.getId(), 0).id());
+        assertEquals(List.of(urgentHold.id(), firstHold.id(), secondHold.id()),
+                holdService.getWaitlist(book.getId(), null).stream().map(HoldView::id).toList());
+        assertEquals(2L, holdService.getHold(firstHold.id()).position());
+
+        bookService.returnBook(loan.getId());
+
+        HoldView fulfilled = holdService.getHold(urgentHold.id());
+        assertEquals(Hold.Status.FULFILLED, fulfilled.status());
+        assertNull(fulfilled.position());
+        BorrowingRecord handedOver = borrowingRecordRepository.findById(fulfilled.recordId()).orElseThrow();
+        assertEquals(urgent.getId(), handedOver.getUser().getId());
+        assertNull(handedOver.getReturnDate());
+        assertEquals(0, bookService.getBookById(book.getId()).getAvailableCopies());
+        assertEquals(1L, holdService.getHold(firstHold.id()).position());
+
+        bookService.returnBook(handedOver.getId());
+        assertEquals(Hold.Status.FULFILLED, holdService.getHold(firstHold.id()).status());
+        assertEquals(Hold.Status.WAITING, holdService.getHold(secondHold.id()).status());
+    }
+
+    @Test
+    void testHoldIsFulfilledAtOnceWhenACopyIsFree() throws Exception {
+        Book book = bookService.addBook(new Book("Free Title", "Author", "9780024001023", 2002, 1, 1));
+        User user = userRepository.save(new User("hold_free", "hold_free@example.com"));
+
+        mockMvc.perform(post("/api/v1/books/" + book.getId() + "/hold/" + user.getId()))
+                .andExpect(status().isCreated())
+                .andExpect(jsonPath("$.status").value("FULFILLED"))
+                .andExpect(jsonPath("$.recordId").isNumber());
+        mockMvc.perform(post("/api/v1/books/" + book.getId() + "/hold/" + user.getId()))
+                .andExpect(status().isConflict());
+    }
+
+    @Test
+    void testAwaitCompletesWhenTheHoldIsFulfilled() throws Exception {
+        Book book = bookService.addBook(new Book("Awaited Title", "Author", "9780024001030", 2003, 1, 1));
+        User reader = userRepository.save(new User("hold_await_reader", "hold_await_reader@example.com"));
+        User waiter = userRepository.save(new User("hold_await", "hold_await@example.com"));
+        BorrowingRecord loan = bookService.borrowBook(book.getId(), reader.getId());
+        HoldView hold = holdService.placeHold(book.getId(), waiter.getId(), 0);
+
+        MvcResult pending = mockMvc.perform(get("/api/v1/holds/" + hold.id() + "/await?timeoutMs=10000"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        bookService.returnBook(loan.getId());
+
+        mockMvc.perform(asyncDispatch(pending))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.id").value(hold.id()))
+                .andExpect(jsonPath("$.status").value("FULFILLED"));
+        // A hold that is already closed answers without waiting
+        mockMvc.perform(asyncDispatch(mockMvc.perform(get("/api/v1/holds/" + hold.id() + "/await"))
+                        .andExpect(request().asyncStarted())
+                        .andReturn()))
+                .andExpect(jsonPath("$.status").value("FULFILLED"));
+    }
+
+    @Test
+    void testCancelledHoldCannotBeCancelledAgain() throws Exception {
+        Book book = bookService.addBook(new Book("Cancelled Title", "Author", "9780024001047", 2004, 0, 0));
+        User user = userRepository.save(new User("hold_cancel", "hold_cancel@example.com"));
+        HoldView hold = holdService.placeHold(book.getId(), user.getId(), 0);
+
+        mockMvc.perform(delete("/api/v1/holds/" + hold.id()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.status").value("CANCELLED"));
+        mockMvc.perform(delete("/api/v1/holds/" + hold.id()))
+                .andExpect(status().isConflict());
+        mockMvc.perform(get("/api/v1/books/" + book.getId() + "/holds"))
+                .andExpect(jsonPath("$.length()").value(0));
+        mockMvc.perform(post("/api/v1/books/" + book.getId() + "/hold/" + user.getId() + "?priority=-1"))
+                .andExpect(status().isBadRequest());
+    }
+}
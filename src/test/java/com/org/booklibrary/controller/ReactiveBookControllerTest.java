@@ -0,0 +1,100 @@
+package com.org.booklibrary.controller;
+
+import com.org.booklibrary.entity.Book;
+import com.org.booklibrary.entity.User;
+import com.org.booklibrary.repository.UserRepository;
+import com.org.booklibrary.service.BookService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.RequestBuilder;
+import org.springframework.test.web.servlet.ResultActions;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+public class ReactiveBookControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private BookService bookService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Test
+    void testBookByIdMatchesTheBlockingPath() throws Exception {
+        Book book = bookService.addBook(new Book("Reactive", "Author", "9780024002013", 2001, 2, 2));
+        User user = userRepository.save(new User("reactive_user", "reactive@example.com"));
+        // Borrowed copies live in the in-memory inventory until flushed; the reactive path must see them too.
+        bookService.borrowBook(book.getId(), user.getId());
+
+        mockMvc.perform(get("/api/v1/books/" + book.getId()))
+                .andExpect(jsonPath("$.availableCopies").value(1));
+        performAsync(get("/api/v1/reactive/books/" + book.getId()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.id").value(book.getId()))
+                .andExpect(jsonPath("$.title").value("Reactive"))
+                .andExpect(jsonPath("$.isbn").value("9780024002013"))
+                .andExpect(jsonPath("$.totalCopies").value(2))
+                .andExpect(jsonPath("$.availableCopies").value(1));
+    }
+
+    @Test
+    void testMissingBookIsNotFound() throws Exception {
+        performAsync(get("/api/v1/reactive/books/987654"))
+                .andExpect(status().isNotFound())
+                .andExpect(jsonPath("$.message").value("Book not found with id: 987654"));
+    }
+
+    @Test
+    void testPagesAreLinkedByCursor() throws Exception {
+        Book first = bookService.addBook(new Book("Reactive Page 1", "Author", "9780024002020", 2002, 1, 1));
+        Book second = bookService.addBook(new Book("Reactive Page 2", "Author", "9780024002037", 2003, 1, 1));
+
+        performAsync(get("/api/v1/reactive/books?afterId=" + (first.getId() - 1) + "&limit=1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(1))
+                .andExpect(jsonPath("$[0].id").value(first.getId()))
+                .andExpect(header().string(BookController.NEXT_CURSOR_HEADER, String.valueOf(first.getId())))
+                .andExpect(header().string("Link",
+                        "<http://localhost/api/v1/reactive/books?afterId=" + first.getId() + "&limit=1>; rel=\"next\""));
+        performAsync(get("/api/v1/reactive/books?afterId=" + first.getId() + "&limit=1"))
+                .andExpect(jsonPath("$[0].id").value(second.getId()));
+    }
+
+    @Test
+    void testSearchAndExport() throws Exception {
+        Book book = bookService.addBook(new Book("Backpressure Handbook", "Reactive Author", "9780024002044", 2004, 1, 1));
+
+        performAsync(get("/api/v1/reactive/books?title=backpressure&author=reactive"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(1))
+                .andExpect(jsonPath("$[0].id").value(book.getId()));
+
+        MvcResult export = mockMvc.perform(get("/api/v1/reactive/books/export"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        export.getAsyncResult();
+        String body = export.getResponse().getContentAsString();
+        assertEquals("application/x-ndjson", export.getResponse().getContentType());
+        assertTrue(body.lines().anyMatch(line -> line.contains("\"title\":\"Backpressure Handbook\"")), body);
+        assertTrue(body.lines().allMatch(line -> line.startsWith("{\"id\":")));
+    }
+
+    private ResultActions performAsync(RequestBuilder request) throws Exception {
+        MvcResult started = mockMvc.perform(request)
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        return mockMvc.perform(asyncDispatch(started));
+    }
+}
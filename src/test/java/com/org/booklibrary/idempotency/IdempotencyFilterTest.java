@@ -0,0 +1,114 @@
+package com.org.booklibrary.idempotency;
+
+import com.org.booklibrary.entity.Book;
+import com.org.booklibrary.entity.User;
+import com.org.booklibrary.repository.BorrowingRecordRepository;
+import com.org.booklibrary.repository.IdempotencyRecordRepository;
+import com.org.booklibrary.repository.UserRepository;
+import com.org.booklibrary.service.BookService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.SpyBean;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@TestPropertySource(properties = "library.idempotency.persist=true")
+public class IdempotencyFilterTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @SpyBean
+    private BookService bookService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private BorrowingRecordRepository borrowingRecordRepository;
+
+    @Autowired
+    private IdempotencyRecordRepository idempotencyRecordRepository;
+
+    @Test
+    void testRetriedBorrowIsReplayedWithoutRunningAgain() throws Exception {
+        Book book = bookService.addBook(new Book("Idempotent", "Author", "9780024003010", 2001, 2, 2));
+        User user = userRepository.save(new User("idempotent_user", "idempotent@example.com"));
+        String key = UUID.randomUUID().toString();
+        String uri = "/api/v1/books/" + book.getId() + "/borrow/" + user.getId();
+
+        String first = mockMvc.perform(post(uri).header(IdempotencyFilter.KEY_HEADER, key))
+                .andExpect(status().isCreated())
+                .andExpect(header().doesNotExist(IdempotencyFilter.REPLAYED_HEADER))
+                .andReturn().getResponse().getContentAsString();
+
+        String retry = mockMvc.perform(post(uri).header(IdempotencyFilter.KEY_HEADER, key))
+                .andExpect(status().isCreated())
+                .andExpect(header().string(IdempotencyFilter.REPLAYED_HEADER, "true"))
+                .andExpect(content().contentType("application/json"))
+                .andReturn().getResponse().getContentAsString();
+
+        assertEquals(first, retry);
+        verify(bookService, times(1)).borrowBook(book.getId(), user.getId());
+        assertEquals(1, borrowingRecordRepository.findByUser(user).size());
+        assertTrue(idempotencyRecordRepository.existsById(key));
+
+        // Without a key the request runs again and hits the open-loan check.
+        mockMvc.perform(post(uri)).andExpect(status().isConflict());
+    }
+
+    @Test
+    void testKeyReusedForAnotherRequestIsRejected() throws Exception {
+        Book book = bookService.addBook(new Book("Reused Key", "Author", "9780024003027", 2002, 1, 1));
+        User user = userRepository.save(new User("reused_key_user", "reused@example.com"));
+        String key = UUID.randomUUID().toString();
+
+        mockMvc.perform(post("/api/v1/books/" + book.getId() + "/borrow/" + user.getId())
+                        .header(IdempotencyFilter.KEY_HEADER, key))
+                .andExpect(status().isCreated());
+
+        mockMvc.perform(post("/api/v1/books/999999/return").header(IdempotencyFilter.KEY_HEADER, key))
+                .andExpect(status().isUnprocessableEntity())
+                .andExpect(jsonPath("$.message").value("Idempotency-Key was already used for a different request."));
+        verify(bookService, times(0)).returnBook(anyLong());
+    }
+
+    @Test
+    void testStoredResponseSurvivesRestartWhenPersisted() {
+        IdempotencyStore before = new IdempotencyStore(idempotencyRecordRepository, 10, 60, true);
+        String key = UUID.randomUUID().toString();
+        assertNull(before.claim(key, "POST /api/v1/books/1/return"));
+        before.complete(key, new StoredResponse("POST /api/v1/books/1/return", 200, "application/json", "{}".getBytes()));
+
+        IdempotencyStore after = new IdempotencyStore(idempotencyRecordRepository, 10, 60, true);
+        StoredResponse replayed = after.claim(key, "POST /api/v1/books/1/return");
+        assertNotNull(replayed);
+        assertEquals(200, replayed.status());
+        assertArrayEquals("{}".getBytes(), replayed.body());
+
+        IdempotencyStore inMemoryOnly = new IdempotencyStore(idempotencyRecordRepository, 10, 60, false);
+        assertNull(inMemoryOnly.claim(key, "POST /api/v1/books/1/return"));
+    }
+
+    @Test
+    void testFailedAttemptReleasesTheKey() {
+        IdempotencyStore store = new IdempotencyStore(idempotencyRecordRepository, 10, 60, false);
+        assertNull(store.claim("release-me", "POST /a"));
+        assertTrue(store.claim("release-me", "POST /a").isInProgress());
+        store.release("release-me");
+        assertNull(store.claim("release-me", "POST /a"));
+    }
+}
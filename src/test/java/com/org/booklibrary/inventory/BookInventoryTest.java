@@ -0,0 +1,191 @@
+package com.org.booklibrary.inventory;
+
+import com.org.booklibrary.catalog.CatalogVersion;
+import com.org.booklibrary.configuration.CacheConfig;
+import com.org.booklibrary.entity.Book;
+import com.org.booklibrary.repository.BookRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class BookInventoryTest {
+
+    @Mock
+    private BookRepository bookRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private BookInventory bookInventory;
+
+    private CatalogVersion catalogVersion;
+
+    private Book book1;
+
+    @BeforeEach
+    void setUp() {
+        bookInventory = new BookInventory(bookRepository, catalogVersion = new CatalogVersion(), transactionManager,
+                new ConcurrentMapCacheManager(CacheConfig.BOOKS), 100);
+        book1 = new Book("Title A", "Author A", "ISBN-001", 2000, 5, 2);
+        book1.setId(1L);
+    }
+
+    @Test
+    void testReserveUntilNoCopiesLeft() {
+        assertTrue(bookInventory.tryReserve(book1));
+        assertTrue(bookInventory.tryReserve(book1));
+        assertFalse(bookInventory.tryReserve(book1));
+        assertEquals(0, bookInventory.overlay(book1).getAvailableCopies());
+    }
+
+    @Test
+    void testOverlayLeavesTheLoadedBookAlone() {
+        assertSame(book1, bookInventory.overlay(book1));
+        bookInventory.tryReserve(book1);
+
+        Book overlaid = bookInventory.overlay(book1);
+        assertNotSame(book1, overlaid);
+        assertEquals(1, overlaid.getAvailableCopies());
+        assertEquals(2, book1.getAvailableCopies());
+        assertEquals(book1.getTitle(), overlaid.getTitle());
+    }
+
+    @Test
+    void testCountChangesBumpCatalogVersion() {
+        String initial = catalogVersion.etag();
+        assertTrue(bookInventory.tryReserve(book1));
+        String reserved = catalogVersion.etag();
+        assertNotEquals(initial, reserved);
+
+        // A release that would exceed the total changes nothing, so the tag stays.
+        bookInventory.release(book1);
+        bookInventory.release(book1);
+        bookInventory.release(book1);
+        bookInventory.release(book1);
+        String full = catalogVersion.etag();
+        assertNotEquals(reserved, full);
+        bookInventory.release(book1);
+        assertEquals(full, catalogVersion.etag());
+    }
+
+    @Test
+    void testReleaseNeverExceedsTotalCopies() {
+        for (int i = 0; i < 10; i++) {
+            bookInventory.release(book1);
+        }
+        assertEquals(5, bookInventory.overlay(book1).getAvailableCopies());
+    }
+
+    @Test
+    void testConcurrentReservationsNeverOversell() throws Exception {
+        Book popular = new Book("Popular", "Author", "ISBN-100", 2020, 100, 100);
+        popular.setId(100L);
+        AtomicInteger granted = new AtomicInteger();
+        ExecutorService pool = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<?>> futures = new java.util.ArrayList<>();
+            for (int t = 0; t < 8; t++) {
+                futures.add(pool.submit(() -> {
+                    for (int i = 0; i < 50; i++) {
+                        if (bookInventory.tryReserve(popular)) {
+                            granted.incrementAndGet();
+                        }
+                    }
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get(10, TimeUnit.SECONDS);
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+        assertEquals(100, granted.get());
+        assertEquals(0, bookInventory.overlay(popular).getAvailableCopies());
+    }
+
+    @Test
+    void testFlushWritesCountersInBatch() {
+        Book stored = new Book("Title A", "Author A", "ISBN-001", 2000, 5, 2);
+        stored.setId(1L);
+        when(bookRepository.findAllById(List.of(1L))).thenReturn(List.of(stored));
+
+        bookInventory.tryReserve(book1);
+        assertEquals(1, bookInventory.pendingFlushes());
+        bookInventory.flush();
+
+        assertEquals(1, stored.getAvailableCopies());
+        assertEquals(0, bookInventory.pendingFlushes());
+        verify(bookRepository, times(1)).saveAll(List.of(stored));
+    }
+
+    @Test
+    void testFailedFlushKeepsCountersDirty() {
+        Book stored = new Book("Title A", "Author A", "ISBN-001", 2000, 5, 2);
+        stored.setId(1L);
+        when(bookRepository.findAllById(List.of(1L)))
+                .thenThrow(new QueryTimeoutException("Timeout trying to lock table"))
+                .thenReturn(List.of(stored));
+
+        bookInventory.tryReserve(book1);
+        bookInventory.flush();
+        assertEquals(1, bookInventory.pendingFlushes());
+        verify(bookRepository, never()).saveAll(anyList());
+
+        bookInventory.flush();
+        assertEquals(1, stored.getAvailableCopies());
+        assertEquals(0, bookInventory.pendingFlushes());
+    }
+
+    @Test
+    void testResetDropsPendingFlush() {
+        bookInventory.tryReserve(book1);
+        book1.setAvailableCopies(4);
+        bookInventory.reset(book1);
+        bookInventory.flush();
+
+        assertEquals(4, bookInventory.overlay(book1).getAvailableCopies());
+        verify(bookRepository, never()).saveAll(anyList());
+    }
+
+    @Test
+    void testFlushLeavesRowsAwaitingResetAlone() {
+        Book stored = new Book("Title A", "Author A", "ISBN-001", 2000, 5, 4);
+        stored.setId(1L);
+        when(bookRepository.findAllById(List.of(1L))).thenReturn(List.of(stored));
+        bookInventory.tryReserve(book1);
+
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            bookInventory.reset(stored);
+            bookInventory.flush();
+            assertEquals(4, stored.getAvailableCopies());
+            assertEquals(1, bookInventory.pendingFlushes());
+
+            TransactionSynchronizationManager.getSynchronizations()
+                    .forEach(sync -> sync.afterCompletion(TransactionSynchronization.STATUS_COMMITTED));
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+        assertEquals(0, bookInventory.pendingFlushes());
+        assertEquals(4, bookInventory.overlay(stored).getAvailableCopies());
+    }
+}
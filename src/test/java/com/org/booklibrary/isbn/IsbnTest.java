@@ -0,0 +1,59 @@
+package com.org.booklibrary.isbn;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class IsbnTest {
+
+    @Test
+    void testIsbn10AndIsbn13ShareOneKey() {
+        assertEquals(9780306406157L, Isbn.parse("978-0-306-40615-7"));
+        assertEquals(9780306406157L, Isbn.parse("0-306-40615-2"));
+        assertEquals(9780306406157L, Isbn.parse("0306406152"));
+        assertEquals(9780306406157L, Isbn.parse(" 978 0306 406157 "));
+        assertEquals(9780804429573L, Isbn.parse("080442957X"));
+        assertEquals(9790260000438L, Isbn.parse("979-0-2600-0043-8"));
+        assertEquals("9780306406157", Isbn.format(Isbn.parse("0-306-40615-2")));
+    }
+
+    @Test
+    void testInvalidValuesAreRejected() {
+        for (String value : new String[]{null, "", "ISBN-001", "0-306-40615-3", "978-0-306-40615-8", "9770306406156",
+                "X306406152", "97803064061570", "030640615"}) {
+            assertFalse(Isbn.isValid(value), value);
+            assertEquals(-1, Isbn.tryParse(value), value);
+        }
+        IllegalArgumentException error = assertThrows(IllegalArgumentException.class, () -> Isbn.parse("12345"));
+        assertEquals("Invalid ISBN: '12345'. Expected 10 or 13 digits with a valid check digit.", error.getMessage());
+    }
+
+    @Test
+    void testMapAgreesWithHashMap() {
+        Random random = new Random(7);
+        LongLongMap map = new LongLongMap(4);
+        Map<Long, Long> expected = new HashMap<>();
+        for (int i = 0; i < 20_000; i++) {
+            long key = 1 + random.nextInt(2_000);
+            if (random.nextInt(3) == 0) {
+                Long removed = expected.remove(key);
+                assertEquals(removed == null ? LongLongMap.MISSING : removed, map.remove(key));
+            } else {
+                long value = 1 + random.nextInt(1_000_000);
+                Long previous = expected.put(key, value);
+                assertEquals(previous == null ? LongLongMap.MISSING : previous, map.put(key, value));
+            }
+        }
+        assertEquals(expected.size(), map.size());
+        for (long key = 1; key <= 2_000; key++) {
+            assertEquals(expected.getOrDefault(key, LongLongMap.MISSING), map.get(key));
+        }
+        map.clear();
+        assertEquals(0, map.size());
+        assertEquals(LongLongMap.MISSING, map.get(1));
+    }
+}
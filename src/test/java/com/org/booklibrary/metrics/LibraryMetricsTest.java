@@ -0,0 +1,37 @@
+package com.org.booklibrary.metrics;
+
+import com.org.booklibrary.exception.ResourceNotFoundException;
+import com.org.booklibrary.service.BookService;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+public class LibraryMetricsTest {
+
+    @Autowired
+    private BookService bookService;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Test
+    void testServiceCallsAreTimedAndFailuresCounted() {
+        assertThrows(ResourceNotFoundException.class, () -> bookService.getBookById(-1L));
+
+        assertEquals(1.0, meterRegistry.get("library.errors")
+                .tag("type", "not_found")
+                .tag("operation", "getBookById")
+                .counter().count());
+        assertTrue(meterRegistry.get("library.service")
+                .tag("class", BookService.class.getName())
+                .tag("method", "getBookById")
+                .timer().count() >= 1);
+        assertTrue(meterRegistry.get("library.jdbc.query")
+                .tag("type", "select")
+                .timer().count() >= 1);
+    }
+}
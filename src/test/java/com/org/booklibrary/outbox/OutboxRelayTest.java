@@ -0,0 +1,206 @@
+package com.org.booklibrary.outbox;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.org.booklibrary.dto.ChangeEvent;
+import com.org.booklibrary.entity.Book;
+import com.org.booklibrary.entity.BorrowingRecord;
+import com.org.booklibrary.entity.OutboxEvent;
+import com.org.booklibrary.entity.User;
+import com.org.booklibrary.exception.ResourceNotFoundException;
+import com.org.booklibrary.repository.OutboxEventRepository;
+import com.org.booklibrary.repository.OutboxSequenceRepository;
+import com.org.booklibrary.service.BookService;
+import com.org.booklibrary.service.UserService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Limit;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.LongStream;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@TestPropertySource(properties = {
+        "library.outbox.local-sink.enabled=true",
+        // The test drives the relay itself, on a database no other cached context's relay polls.
+        "library.outbox.poll-interval-ms=3600000",
+        "spring.datasource.url=jdbc:h2:mem:outboxRelayTest"
+})
+public class OutboxRelayTest {
+
+    @Autowired
+    private OutboxRelay relay;
+
+    @Autowired
+    private InMemoryChangeEventSink localSink;
+
+    @Autowired
+    private OutboxEventRepository outboxEventRepository;
+
+    @Autowired
+    private BookService bookService;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private OutboxSequenceRepository outboxSequenceRepository;
+
+    @Autowired
+    private ObjectProvider<ChangeEventSink> sinks;
+
+    @BeforeEach
+    void drain() {
+        relay.relay();
+        localSink.clear();
+    }
+
+    @Test
+    void testMutationsAreRelayedInOrder() throws Exception {
+        Book book = bookService.addBook(new Book("Outbox", "Author", "9780024004017", 2001, 2, 2));
+        User user = userService.addUser(new User("outbox_user", "outbox@example.com"));
+        BorrowingRecord record = bookService.borrowBook(book.getId(), user.getId());
+        bookService.returnBook(record.getId());
+        Book changes = new Book("Outbox 2nd Edition", "Author", "9780024004017", 2002, 3, 3);
+        bookService.updateBook(book.getId(), changes);
+        Book withdrawn = bookService.addBook(new Book("Withdrawn", "Author", "9780024004031", 2003, 1, 1));
+        bookService.deleteBook(withdrawn.getId());
+
+        assertEquals(7, relay.relay());
+
+        List<ChangeEvent> events = localSink.events();
+        assertEquals(List.of("BOOK_ADDED", "USER_ADDED", "LOAN_BORROWED", "LOAN_RETURNED", "BOOK_UPDATED",
+                        "BOOK_ADDED", "BOOK_DELETED"),
+                events.stream().map(ChangeEvent::type).toList());
+        for (int i = 1; i < events.size(); i++) {
+            assertTrue(events.get(i).sequence() > events.get(i - 1).sequence());
+        }
+        JsonNode updated = objectMapper.readTree(events.get(4).payload());
+        assertEquals("Outbox 2nd Edition", updated.get("title").asText());
+        JsonNode loan = objectMapper.readTree(events.get(2).payload());
+        assertEquals(book.getId(), loan.get("bookId").asLong());
+        assertEquals(record.getId(), events.get(3).aggregateId());
+        assertEquals(withdrawn.getId(), objectMapper.readTree(events.get(6).payload()).get("id").asLong());
+
+        // Everything was marked published, so the next poll has nothing to send.
+        assertEquals(0, relay.relay());
+    }
+
+    @Test
+    void testFailedChangeWritesNoEvent() {
+        assertThrows(ResourceNotFoundException.class, () -> bookService.updateBook(987654L,
+                new Book("Missing", "Author", "9780024004048", 2001, 1, 1)));
+        assertEquals(0, relay.relay());
+    }
+
+    @Test
+    void testRowCommittedAfterAHigherIdIsNotSkippedOnReplay() throws Exception {
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        CountDownLatch written = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        CompletableFuture<Long> late = CompletableFuture.supplyAsync(() -> transaction.execute(status -> {
+            Long id = outboxEventRepository.saveAndFlush(row(1L)).getId();
+            written.countDown();
+            await(release);
+            return id;
+        }));
+        assertTrue(written.await(10, TimeUnit.SECONDS));
+        Long earlyId = transaction.execute(status -> outboxEventRepository.save(row(2L)).getId());
+
+        assertEquals(1, relay.relay());
+        ChangeEvent early = localSink.events().get(0);
+        release.countDown();
+        Long lateId = late.get(10, TimeUnit.SECONDS);
+        assertTrue(lateId < earlyId);
+        assertEquals(1, relay.relay());
+
+        // A consumer that stopped at the first relayed event still finds the row with the lower id
+        List<ChangeEvent> replayed = outboxEventRepository.findChangesAfter(early.sequence(), Limit.of(10));
+        assertEquals(List.of(1L), replayed.stream().map(ChangeEvent::aggregateId).toList());
+        assertTrue(replayed.get(0).sequence() > early.sequence());
+    }
+
+    @Test
+    void testRelaysSharingADatabaseNeverHandOutTheSameSequence() throws Exception {
+        Long before = outboxEventRepository.findLastDeliverySequence();
+        long last = before == null ? 0 : before;
+        for (long i = 0; i < 200; i++) {
+            outboxEventRepository.save(row(i));
+        }
+        OutboxRelay other = new OutboxRelay(outboxEventRepository, outboxSequenceRepository, sinks, transactionManager, 50, 24);
+        OutboxRelay first = new OutboxRelay(outboxEventRepository, outboxSequenceRepository, sinks, transactionManager, 50, 24);
+
+        CompletableFuture<Integer> a = CompletableFuture.supplyAsync(first::relay);
+        CompletableFuture<Integer> b = CompletableFuture.supplyAsync(other::relay);
+        assertTrue(a.get(10, TimeUnit.SECONDS) + b.get(10, TimeUnit.SECONDS) >= 200);
+
+        List<Long> sequences = outboxEventRepository.findChangesAfter(last, Limit.of(1000)).stream()
+                .map(ChangeEvent::sequence).toList();
+        assertEquals(LongStream.rangeClosed(last + 1, last + 200).boxed().toList(), sequences);
+        assertEquals(0, relay.relay());
+    }
+
+    private static OutboxEvent row(Long aggregateId) {
+        return OutboxEvent.builder().aggregateType("BOOK").aggregateId(aggregateId).eventType("BOOK_UPDATED")
+                .payload("{}").occurredAt(Instant.now()).build();
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            assertTrue(latch.await(10, TimeUnit.SECONDS));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(e);
+        }
+    }
+
+    @Test
+    void testChangesCanBeReplayedAndStreamed() throws Exception {
+        MvcResult stream = mockMvc.perform(get("/api/v1/changes/stream"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        Book book = bookService.addBook(new Book("Streamed", "Author", "9780024004024", 2001, 1, 1));
+        relay.relay();
+
+        String body = stream.getResponse().getContentAsString();
+        ChangeEvent added = localSink.events().get(0);
+        assertTrue(body.contains("id:" + added.sequence()), body);
+        assertTrue(body.contains("event:BOOK_ADDED"), body);
+        assertTrue(body.contains("\"title\":\"Streamed\""), body);
+
+        List<ChangeEvent> replayed = outboxEventRepository.findChangesAfter(added.sequence() - 1, Limit.of(10));
+        assertEquals(book.getId(), replayed.get(0).aggregateId());
+        String page = mockMvc.perform(get("/api/v1/changes?afterId=" + (added.sequence() - 1) + "&limit=1"))
+                .andReturn().getResponse().getContentAsString();
+        assertEquals(added.sequence(), objectMapper.readTree(page).get(0).get("sequence").asLong());
+        assertEquals("Streamed", objectMapper.readTree(page).get(0).get("payload").get("title").asText());
+    }
+}
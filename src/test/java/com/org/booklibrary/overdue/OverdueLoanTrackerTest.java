@@ -0,0 +1,84 @@
+package com.org.booklibrary.overdue;
+
+import com.org.booklibrary.dto.OverdueLoan;
+import com.org.booklibrary.entity.Book;
+import com.org.booklibrary.entity.BorrowingRecord;
+import com.org.booklibrary.entity.User;
+import com.org.booklibrary.repository.BorrowingRecordRepository;
+import com.org.booklibrary.repository.UserRepository;
+import com.org.booklibrary.service.BookService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.TestPropertySource;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@TestPropertySource(properties = "library.overdue.loan-period-days=14")
+public class OverdueLoanTrackerTest {
+
+    @Autowired
+    private OverdueLoanTracker tracker;
+
+    @Autowired
+    private BookService bookService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private BorrowingRecordRepository borrowingRecordRepository;
+
+    @Test
+    void testOverdueLoansFollowBorrowAndReturn() {
+        Book book = bookService.addBook(new Book("Overdue", "Author", "9780024005014", 2001, 3, 3));
+        User first = userRepository.save(new User("overdue_1", "overdue1@example.com"));
+        User second = userRepository.save(new User("overdue_2", "overdue2@example.com"));
+
+        BorrowingRecord older = bookService.borrowBook(book.getId(), first.getId());
+        BorrowingRecord newer = bookService.borrowBook(book.getId(), second.getId());
+        LocalDate today = LocalDate.now();
+
+        assertFalse(overdueIds(today).contains(older.getId()));
+        // Fifteen days later both are past the fourteen-day period, the one borrowed first listed first.
+        List<Long> later = overdueIds(today.plusDays(15));
+        assertTrue(later.indexOf(older.getId()) >= 0 && later.indexOf(older.getId()) < later.indexOf(newer.getId()));
+        assertFalse(overdueIds(today.plusDays(14)).contains(older.getId()));
+
+        bookService.returnBook(older.getId());
+        assertFalse(overdueIds(today.plusDays(15)).contains(older.getId()));
+        assertTrue(overdueIds(today.plusDays(15)).contains(newer.getId()));
+    }
+
+    @Test
+    void testRebuildLoadsOpenLoansAndPagesThroughThem() {
+        Book book = bookService.addBook(new Book("Old Loans", "Author", "9780024005021", 2002, 5, 5));
+        LocalDate today = LocalDate.now();
+        for (int i = 0; i < 3; i++) {
+            User user = userRepository.save(new User("overdue_old_" + i, "overdue_old" + i + "@example.com"));
+            // Written straight to the repository: only the startup load can know about these.
+            borrowingRecordRepository.save(new BorrowingRecord(book, user, today.minusYears(10).plusDays(i)));
+        }
+        tracker.rebuild();
+
+        int overdue = tracker.scan(today);
+        assertTrue(overdue >= 3);
+
+        List<OverdueLoan> first = tracker.overdue(today, 2);
+        OverdueLoan oldest = first.get(0);
+        assertEquals(today.minusYears(10), oldest.borrowDate());
+        assertEquals(today.minusYears(10).plusDays(14), oldest.dueDate());
+        OverdueLoan last = first.get(1);
+        List<OverdueLoan> rest = tracker.overdue(today, last.borrowDate(), last.recordId(), Integer.MAX_VALUE);
+        assertEquals(overdue - 2, rest.size());
+        assertEquals(today.minusYears(10).plusDays(2), rest.get(0).borrowDate());
+    }
+
+    private List<Long> overdueIds(LocalDate today) {
+        return tracker.overdue(today, Integer.MAX_VALUE).stream().map(OverdueLoan::recordId).toList();
+    }
+}
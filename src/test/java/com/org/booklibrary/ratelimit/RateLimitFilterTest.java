@@ -0,0 +1,101 @@
+package com.org.booklibrary.ratelimit;
+
+import com.org.booklibrary.service.BookService;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.SpyBean;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@TestPropertySource(properties = {
+        "library.rate-limit.enabled=true",
+        "library.rate-limit.tiers[0].name=test-list",
+        "library.rate-limit.tiers[0].method=GET",
+        "library.rate-limit.tiers[0].path=/api/v1/books",
+        "library.rate-limit.tiers[0].scope=CLIENT",
+        "library.rate-limit.tiers[0].capacity=2",
+        "library.rate-limit.tiers[0].refill-per-second=0.01",
+        "library.rate-limit.tiers[1].name=test-borrow",
+        "library.rate-limit.tiers[1].method=POST",
+        "library.rate-limit.tiers[1].path=/api/v1/books/*/borrow/{userId}",
+        "library.rate-limit.tiers[1].scope=USER",
+        "library.rate-limit.tiers[1].capacity=1",
+        "library.rate-limit.tiers[1].refill-per-second=0.01",
+        "library.rate-limit.tiers[2].name=test-history",
+        "library.rate-limit.tiers[2].method=GET",
+        "library.rate-limit.tiers[2].path=/api/v1/borrowing-records/**",
+        "library.rate-limit.tiers[2].scope=CLIENT",
+        "library.rate-limit.tiers[2].capacity=3",
+        "library.rate-limit.tiers[2].refill-per-second=0.01",
+        "library.rate-limit.tiers[3].name=test-user-history",
+        "library.rate-limit.tiers[3].method=GET",
+        "library.rate-limit.tiers[3].path=/api/v1/borrowing-records/users/{userId}",
+        "library.rate-limit.tiers[3].scope=USER",
+        "library.rate-limit.tiers[3].capacity=1",
+        "library.rate-limit.tiers[3].refill-per-second=0.01"
+})
+public class RateLimitFilterTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @SpyBean
+    private BookService bookService;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Test
+    void testClientOverItsBucketGets429BeforeTheService() throws Exception {
+        for (int i = 0; i < 2; i++) {
+            mockMvc.perform(get("/api/v1/books").header("X-Client-Id", "kiosk-1")).andExpect(status().isOk());
+        }
+        mockMvc.perform(get("/api/v1/books").header("X-Client-Id", "kiosk-1"))
+                .andExpect(status().isTooManyRequests())
+                .andExpect(header().string("Retry-After", "100"))
+                .andExpect(jsonPath("$.status").value(429));
+
+        // Another client has its own bucket.
+        mockMvc.perform(get("/api/v1/books").header("X-Client-Id", "kiosk-2")).andExpect(status().isOk());
+
+        verify(bookService, times(3)).getAllBooks();
+        assertEquals(1.0, meterRegistry.get("library.ratelimit.requests")
+                .tag("tier", "test-list").tag("outcome", "rejected").counter().count());
+    }
+
+    @Test
+    void testBorrowIsLimitedPerUserInThePath() throws Exception {
+        mockMvc.perform(post("/api/v1/books/999999/borrow/424242")).andExpect(status().isNotFound());
+        mockMvc.perform(post("/api/v1/books/999998/borrow/424242")).andExpect(status().isTooManyRequests());
+        mockMvc.perform(post("/api/v1/books/999998/borrow/434343")).andExpect(status().isNotFound());
+    }
+
+    @Test
+    void testRejectedRequestTakesNoTokenFromOtherTiers() throws Exception {
+        mockMvc.perform(get("/api/v1/borrowing-records/users/515151").header("X-Client-Id", "auditor"))
+                .andExpect(status().isNotFound());
+        // Turned away by the per-user tier, so the client tier gets its token back each time
+        for (int i = 0; i < 3; i++) {
+            mockMvc.perform(get("/api/v1/borrowing-records/users/515151").header("X-Client-Id", "auditor"))
+                    .andExpect(status().isTooManyRequests());
+        }
+        mockMvc.perform(get("/api/v1/borrowing-records/users/525252").header("X-Client-Id", "auditor"))
+                .andExpect(status().isNotFound());
+        mockMvc.perform(get("/api/v1/borrowing-records/users/535353").header("X-Client-Id", "auditor"))
+                .andExpect(status().isNotFound());
+        mockMvc.perform(get("/api/v1/borrowing-records/users/545454").header("X-Client-Id", "auditor"))
+                .andExpect(status().isTooManyRequests());
+    }
+}
@@ -0,0 +1,78 @@
+package com.org.booklibrary.ratelimit;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TokenBucketTest {
+
+    private static final long SECOND = 1_000_000_000L;
+
+    @Test
+    void testBurstUpToCapacityThenRefill() {
+        TokenBucket bucket = new TokenBucket(3, 2, 0);
+
+        assertEquals(3, bucket.available(0));
+        assertEquals(0, bucket.tryConsume(0));
+        assertEquals(0, bucket.tryConsume(0));
+        assertEquals(0, bucket.tryConsume(0));
+        assertEquals(SECOND / 2, bucket.tryConsume(0));
+
+        // Two tokens per second: one is back after half a second.
+        assertEquals(0, bucket.tryConsume(SECOND / 2));
+        assertTrue(bucket.tryConsume(SECOND / 2) > 0);
+        assertEquals(3, bucket.available(10 * SECOND));
+    }
+
+    @Test
+    void testRefundGivesBackOneTokenUpToCapacity() {
+        TokenBucket bucket = new TokenBucket(2, 1, 0);
+        assertEquals(0, bucket.tryConsume(0));
+        assertEquals(0, bucket.tryConsume(0));
+        bucket.refund();
+        assertEquals(1, bucket.available(0));
+
+        bucket.refund();
+        bucket.refund();
+        assertEquals(2, bucket.available(0));
+    }
+
+    @Test
+    void testIdleTimeDoesNotExceedCapacity() {
+        TokenBucket bucket = new TokenBucket(2, 1, 0);
+        long later = 60 * SECOND;
+        assertEquals(0, bucket.tryConsume(later));
+        assertEquals(0, bucket.tryConsume(later));
+        assertTrue(bucket.tryConsume(later) > 0);
+    }
+
+    @Test
+    void testConcurrentConsumersNeverOverdraw() throws Exception {
+        TokenBucket bucket = new TokenBucket(1000, 0.001, 0);
+        AtomicInteger granted = new AtomicInteger();
+        ExecutorService pool = Executors.newFixedThreadPool(8);
+        for (int i = 0; i < 8; i++) {
+            pool.submit(() -> {
+                for (int j = 0; j < 500; j++) {
+                    if (bucket.tryConsume(0) == 0) {
+                        granted.incrementAndGet();
+                    }
+                }
+            });
+        }
+        pool.shutdown();
+        assertTrue(pool.awaitTermination(10, TimeUnit.SECONDS));
+        assertEquals(1000, granted.get());
+    }
+
+    @Test
+    void testRejectsInvalidSettings() {
+        assertThrows(IllegalArgumentException.class, () -> new TokenBucket(0, 1, 0));
+        assertThrows(IllegalArgumentException.class, () -> new TokenBucket(1, 0, 0));
+    }
+}
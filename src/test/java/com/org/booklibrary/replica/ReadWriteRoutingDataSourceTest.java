@@ -0,0 +1,81 @@
+package com.org.booklibrary.replica;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+import org.springframework.jdbc.datasource.SimpleDriverDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ReadWriteRoutingDataSourceTest {
+
+    private final long[] positions = new long[2];
+    private ReadWriteRoutingDataSource routing;
+
+    @BeforeEach
+    void setUp() {
+        routing = new ReadWriteRoutingDataSource(new SimpleDriverDataSource(),
+                List.of(new SimpleDriverDataSource(), new SimpleDriverDataSource()),
+                index -> positions[index], 1000, new StaticListableBeanFactory().getBeanProvider(MeterRegistry.class));
+        long now = System.currentTimeMillis();
+        positions[0] = now;
+        positions[1] = now;
+    }
+
+    @AfterEach
+    void tearDown() {
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(false);
+        ReadWriteRoutingDataSource.clearRequiredPosition();
+    }
+
+    @Test
+    void testOnlyReadOnlyTransactionsUseReplicas() {
+        assertEquals(ReadWriteRoutingDataSource.PRIMARY, routing.determineCurrentLookupKey());
+
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+        Object first = routing.determineCurrentLookupKey();
+        Object second = routing.determineCurrentLookupKey();
+        assertNotEquals(first, second);
+        assertTrue(List.of("replica-0", "replica-1").containsAll(List.of(first, second)));
+    }
+
+    @Test
+    void testLaggingReplicasAreSkipped() {
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+        positions[0] = System.currentTimeMillis() - 60_000;
+        assertEquals("replica-1", routing.determineCurrentLookupKey());
+        assertEquals("replica-1", routing.determineCurrentLookupKey());
+
+        positions[1] = -1;
+        assertEquals(ReadWriteRoutingDataSource.PRIMARY, routing.determineCurrentLookupKey());
+    }
+
+    @Test
+    void testRequiredPositionKeepsReadsOffStaleReplicas() {
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+        ReadWriteRoutingDataSource.requireAppliedUpTo(positions[1] + 1);
+        assertEquals(ReadWriteRoutingDataSource.PRIMARY, routing.determineCurrentLookupKey());
+
+        positions[0] += 1;
+        assertEquals("replica-0", routing.determineCurrentLookupKey());
+
+        ReadWriteRoutingDataSource.requireAppliedUpTo(Long.MAX_VALUE);
+        assertEquals(ReadWriteRoutingDataSource.PRIMARY, routing.determineCurrentLookupKey());
+    }
+
+    @Test
+    void testLastConnectionTargetIsRemembered() {
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+        routing.determineCurrentLookupKey();
+        assertTrue(ReadWriteRoutingDataSource.lastConnectionToReplica());
+
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(false);
+        routing.determineCurrentLookupKey();
+        assertFalse(ReadWriteRoutingDataSource.lastConnectionToReplica());
+    }
+}
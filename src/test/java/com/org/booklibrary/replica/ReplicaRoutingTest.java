@@ -0,0 +1,80 @@
+package com.org.booklibrary.replica;
+
+import com.org.booklibrary.configuration.CacheConfig;
+import com.org.booklibrary.entity.Book;
+import com.org.booklibrary.entity.User;
+import com.org.booklibrary.service.BookService;
+import com.org.booklibrary.service.UserService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cache.CacheManager;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Primary and replica are two in-memory H2 databases; the stand-in copies only when the test asks, so the replica
+ * stays behind until then.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:replicaPrimary",
+        "library.reactive.url=r2dbc:h2:mem:///replicaPrimary",
+        "library.replicas.enabled=true",
+        "library.replicas.urls=jdbc:h2:mem:replicaOne;DB_CLOSE_DELAY=-1",
+        "library.replicas.max-lag-ms=3600000",
+        "library.replicas.stand-in.enabled=true",
+        "library.replicas.stand-in.interval-ms=3600000"})
+@AutoConfigureMockMvc
+public class ReplicaRoutingTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private BookService bookService;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private ReplicationStandIn standIn;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @Test
+    void testReadsFollowTheClientsOwnWrites() throws Exception {
+        Book book = bookService.addBook(new Book("Replicated", "Author", "9780025001015", 2001, 2, 2));
+        User user = userService.addUser(new User("replica_user", "replica@example.com"));
+        standIn.replicate();
+        long caughtUp = standIn.appliedUpTo(0);
+
+        mockMvc.perform(post("/api/v1/books/" + book.getId() + "/borrow/" + user.getId()).header("X-Client-Id", "writer"))
+                .andExpect(status().isCreated());
+
+        // The borrower's next read skips the stale replica; anyone else reads the replica as it was.
+        mockMvc.perform(get("/api/v1/borrowing-records/users/" + user.getId()).header("X-Client-Id", "writer"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(1));
+        mockMvc.perform(get("/api/v1/borrowing-records/users/" + user.getId()).header("X-Client-Id", "reader"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(0));
+        assertEquals(caughtUp, standIn.appliedUpTo(0));
+
+        standIn.replicate();
+        mockMvc.perform(get("/api/v1/borrowing-records/users/" + user.getId()).header("X-Client-Id", "reader"))
+                .andExpect(jsonPath("$.length()").value(1));
+        cacheManager.getCache(CacheConfig.BOOKS).evict(book.getId());
+        mockMvc.perform(get("/api/v1/books/" + book.getId()).header("X-Client-Id", "reader"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.title").value("Replicated"));
+        // Served by the replica, so not cached for clients that need the primary
+        assertNull(cacheManager.getCache(CacheConfig.BOOKS).get(book.getId()));
+    }
+}
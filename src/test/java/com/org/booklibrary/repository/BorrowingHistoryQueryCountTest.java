@@ -0,0 +1,148 @@
+package com.org.booklibrary.repository;
+
+import com.org.booklibrary.dto.BorrowingRecordView;
+import com.org.booklibrary.entity.Book;
+import com.org.booklibrary.entity.BorrowingRecord;
+import com.org.booklibrary.entity.User;
+import com.org.booklibrary.inventory.BookInventory;
+import com.org.booklibrary.service.BorrowingRecordService;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Loan history for a user and for a book, 10k records each, has to load in a fixed number of
+ * statements however many distinct books or users the records point at.
+ */
+@SpringBootTest(properties = {"spring.jpa.properties.hibernate.generate_statistics=true",
+        "logging.level.org.hibernate.engine.internal.StatisticalLoggingSessionEventListener=WARN",
+        // Keep the outbox poll out of the statement counts.
+        "library.outbox.poll-interval-ms=3600000"})
+public class BorrowingHistoryQueryCountTest {
+
+    private static final int RECORDS = 10_000;
+    private static final long HEAVY_USER_ID = 2_000_000L;
+    private static final long HEAVY_BOOK_ID = 2_000_000L;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private BorrowingRecordRepository borrowingRecordRepository;
+
+    @Autowired
+    private BorrowingRecordService borrowingRecordService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private BookRepository bookRepository;
+
+    @Autowired
+    private BookInventory bookInventory;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void seed() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        // The in-memory database outlives a single context, so seed once per JVM.
+        Integer seeded = jdbcTemplate.queryForObject("select count(*) from library_user where id = ?", Integer.class, HEAVY_USER_ID);
+        if (seeded != null && seeded > 0) {
+            return;
+        }
+        jdbcTemplate.update("insert into book (id, title, author, isbn, publication_year, total_copies, available_copies, version) "
+                + "select x, 'History ' || x, 'Author', 'HIST-' || x, 2000, 1, 1, 0 from system_range(?, ?)",
+                HEAVY_BOOK_ID, HEAVY_BOOK_ID + RECORDS);
+        jdbcTemplate.update("insert into library_user (id, username, email) "
+                + "select x, 'history_' || x, 'history_' || x || '@example.com' from system_range(?, ?)",
+                HEAVY_USER_ID, HEAVY_USER_ID + RECORDS);
+        // One user who borrowed 10k different books, one book borrowed by 10k different users; all returned.
+        jdbcTemplate.update("insert into borrowing_record (book_id, user_id, borrow_date, return_date) "
+                + "select x, ?, date '2024-01-01', date '2024-01-15' from system_range(?, ?)",
+                HEAVY_USER_ID, HEAVY_BOOK_ID + 1, HEAVY_BOOK_ID + RECORDS);
+        jdbcTemplate.update("insert into borrowing_record (book_id, user_id, borrow_date, return_date) "
+                + "select ?, x, date '2024-02-01', date '2024-02-15' from system_range(?, ?)",
+                HEAVY_BOOK_ID, HEAVY_USER_ID + 1, HEAVY_USER_ID + RECORDS);
+    }
+
+    @Test
+    void testUserHistoryLoadsBooksInTheSameQuery() {
+        User user = userRepository.findById(HEAVY_USER_ID).orElseThrow();
+        bookInventory.flush();
+        statistics.clear();
+
+        List<BorrowingRecord> records = borrowingRecordRepository.findByUser(user);
+
+        assertEquals(RECORDS, records.size());
+        assertTrue(records.stream().allMatch(record -> record.getBook().getTitle().startsWith("History ")));
+        assertEquals(1, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void testBookHistoryLoadsUsersInTheSameQuery() {
+        Book book = bookRepository.findFreshById(HEAVY_BOOK_ID).orElseThrow();
+        bookInventory.flush();
+        statistics.clear();
+
+        List<BorrowingRecord> records = borrowingRecordRepository.findByBook(book);
+
+        assertEquals(RECORDS, records.size());
+        assertTrue(records.stream().allMatch(record -> record.getUser().getUsername().startsWith("history_")));
+        assertEquals(1, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void testHistoryEndpointsRunExistenceCheckAndOneSelect() {
+        bookInventory.flush();
+        statistics.clear();
+
+        List<BorrowingRecordView> byUser = borrowingRecordService.getBorrowingRecordsByUser(HEAVY_USER_ID);
+        List<BorrowingRecordView> byBook = borrowingRecordService.getBorrowingRecordsByBook(HEAVY_BOOK_ID);
+
+        assertEquals(RECORDS, byUser.size());
+        assertEquals(RECORDS, byBook.size());
+        assertEquals(4, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void testLazyAssociationsOutsideAGraphAreBatchFetched() {
+        bookInventory.flush();
+        statistics.clear();
+
+        long titles = new TransactionTemplate(transactionManager).execute(status -> entityManager
+                .createQuery("select r from BorrowingRecord r where r.user.id = :userId", BorrowingRecord.class)
+                .setParameter("userId", HEAVY_USER_ID)
+                .getResultList().stream()
+                .map(record -> record.getBook().getTitle())
+                .distinct()
+                .count());
+
+        assertEquals(RECORDS, titles);
+        // One select for the records, the owning user, and the books in batches of default_batch_fetch_size.
+        assertTrue(statistics.getPrepareStatementCount() <= 2 + RECORDS / 100,
+                "statements: " + statistics.getPrepareStatementCount());
+    }
+}
@@ -0,0 +1,62 @@
+package com.org.booklibrary.repository;
+
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import com.org.booklibrary.configuration.CacheConfig;
+import com.org.booklibrary.entity.Book;
+import com.org.booklibrary.entity.User;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.caffeine.CaffeineCache;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+public class EntityCacheTest {
+
+    @Autowired
+    private BookRepository bookRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @Test
+    void testFindByIdIsServedFromCacheUntilSaved() {
+        Book book = bookRepository.save(new Book("Cached", "Author", "ISBN-C01", 2001, 2, 2));
+        long hitsBefore = stats(CacheConfig.BOOKS).hitCount();
+
+        bookRepository.findById(book.getId());
+        bookRepository.findById(book.getId());
+        assertEquals(hitsBefore + 1, stats(CacheConfig.BOOKS).hitCount());
+
+        Book fresh = bookRepository.findFreshById(book.getId()).orElseThrow();
+        fresh.setTitle("Renamed");
+        bookRepository.save(fresh);
+        assertEquals("Renamed", bookRepository.findById(book.getId()).orElseThrow().getTitle());
+
+        bookRepository.deleteById(book.getId());
+        assertTrue(bookRepository.findById(book.getId()).isEmpty());
+    }
+
+    @Test
+    void testUserLookupIsCached() {
+        User user = userRepository.save(new User("cached_user", "cached@example.com"));
+        userRepository.findById(user.getId());
+        userRepository.findById(user.getId());
+        assertTrue(stats(CacheConfig.USERS).hitCount() >= 1);
+    }
+
+    @Test
+    void testMissesAreNotCached() {
+        assertTrue(bookRepository.findById(Long.MAX_VALUE).isEmpty());
+        assertNull(cacheManager.getCache(CacheConfig.BOOKS).get(Long.MAX_VALUE));
+    }
+
+    private CacheStats stats(String name) {
+        return ((CaffeineCache) cacheManager.getCache(name)).getNativeCache().stats();
+    }
+}
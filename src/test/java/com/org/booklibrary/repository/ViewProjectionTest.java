@@ -0,0 +1,97 @@
+package com.org.booklibrary.repository;
+
+import com.org.booklibrary.dto.BookView;
+import com.org.booklibrary.dto.BorrowingRecordFilter;
+import com.org.booklibrary.dto.BorrowingRecordView;
+import com.org.booklibrary.entity.Book;
+import com.org.booklibrary.entity.BorrowingRecord;
+import com.org.booklibrary.entity.User;
+import jakarta.persistence.EntityManager;
+import org.hibernate.Session;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Limit;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@Transactional
+public class ViewProjectionTest {
+
+    @Autowired
+    private BookRepository bookRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private BorrowingRecordRepository borrowingRecordRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Test
+    void testBookViewsArePagedAndNotManaged() {
+        Book first = bookRepository.save(new Book("View One", "Author", "VIEW-001", 2001, 3, 2));
+        Book second = bookRepository.save(new Book("View Two", "Author", "VIEW-002", 2002, 1, 1));
+        entityManager.flush();
+        entityManager.clear();
+
+        List<BookView> page = bookRepository.findViewsAfter(first.getId() - 1, Limit.of(2));
+        assertEquals(List.of(first.getId(), second.getId()), page.stream().map(BookView::id).toList());
+        assertEquals(BookView.of(first), page.get(0));
+
+        try (Stream<BookView> all = bookRepository.streamAllViews()) {
+            assertTrue(all.anyMatch(view -> view.id().equals(second.getId())));
+        }
+        assertEquals(0, entityManager.unwrap(Session.class).getStatistics().getEntityCount());
+    }
+
+    @Test
+    void testBorrowingRecordViewsCarryBookAndUserNames() {
+        Book book = bookRepository.save(new Book("History", "Author", "VIEW-003", 2003, 2, 2));
+        User user = userRepository.save(new User("view_user", "view@example.com"));
+        BorrowingRecord record = borrowingRecordRepository.save(new BorrowingRecord(book, user, LocalDate.now()));
+        entityManager.flush();
+        entityManager.clear();
+
+        List<BorrowingRecordView> byUser = borrowingRecordRepository.findViewsByUserId(user.getId());
+        assertEquals(List.of(new BorrowingRecordView(record.getId(), book.getId(), "History", user.getId(), "view_user",
+                LocalDate.now(), null)), byUser);
+        assertEquals(byUser, borrowingRecordRepository.findViewsByBookId(book.getId()));
+    }
+
+    @Test
+    void testBorrowingRecordViewsFilterByDateRangeAndPageById() {
+        Book book = bookRepository.save(new Book("Ranges", "Author", "VIEW-004", 2004, 3, 3));
+        User user = userRepository.save(new User("range_user", "range@example.com"));
+        BorrowingRecord march = new BorrowingRecord(book, user, LocalDate.of(2024, 3, 10));
+        march.setReturnDate(LocalDate.of(2024, 3, 20));
+        BorrowingRecord april = new BorrowingRecord(book, user, LocalDate.of(2024, 4, 10));
+        april.setReturnDate(LocalDate.of(2024, 4, 20));
+        BorrowingRecord open = new BorrowingRecord(book, user, LocalDate.of(2024, 4, 15));
+        borrowingRecordRepository.saveAll(List.of(march, april, open));
+        entityManager.flush();
+        entityManager.clear();
+
+        List<BorrowingRecordView> borrowedInApril = borrowingRecordRepository.findViewsAfter(0L,
+                new BorrowingRecordFilter(null, book.getId(), LocalDate.of(2024, 4, 1), LocalDate.of(2024, 4, 30), null, null),
+                Limit.of(10));
+        assertEquals(List.of(april.getId(), open.getId()), borrowedInApril.stream().map(BorrowingRecordView::id).toList());
+
+        List<BorrowingRecordView> nextPage = borrowingRecordRepository.findViewsAfter(april.getId(),
+                new BorrowingRecordFilter(null, book.getId(), LocalDate.of(2024, 4, 1), null, null, null), Limit.of(10));
+        assertEquals(List.of(open.getId()), nextPage.stream().map(BorrowingRecordView::id).toList());
+
+        try (Stream<BorrowingRecordView> returnedInMarch = borrowingRecordRepository.streamViews(
+                new BorrowingRecordFilter(user.getId(), null, null, null, LocalDate.of(2024, 3, 1), LocalDate.of(2024, 3, 31)))) {
+            assertEquals(List.of(march.getId()), returnedInMarch.map(BorrowingRecordView::id).toList());
+        }
+    }
+}
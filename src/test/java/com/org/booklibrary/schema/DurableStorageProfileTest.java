@@ -0,0 +1,88 @@
+package com.org.booklibrary.schema;
+
+import com.org.booklibrary.BookLibraryApplication;
+import com.org.booklibrary.entity.Book;
+import com.org.booklibrary.entity.BorrowingRecord;
+import com.org.booklibrary.entity.User;
+import com.org.booklibrary.repository.BorrowingRecordRepository;
+import com.org.booklibrary.repository.UserRepository;
+import com.org.booklibrary.service.BookService;
+import com.org.booklibrary.service.ReactiveBookService;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Boots the {@code durable} profile twice on the same directory: the Flyway schema has to pass
+ * Hibernate validation, and what the first run wrote has to be there after the restart.
+ */
+public class DurableStorageProfileTest {
+
+    @TempDir
+    Path storageDir;
+
+    @Test
+    void testDataSurvivesRestart() {
+        Long bookId;
+        Long recordId;
+        try (ConfigurableApplicationContext context = start()) {
+            assertFalse(context.containsBean("openLoanKeyMigration"));
+            BookService bookService = context.getBean(BookService.class);
+            Book book = bookService.addBook(new Book("Durable", "Author", "9780024006011", 2001, 2, 2));
+            User user = context.getBean(UserRepository.class).save(new User("durable_user", "durable@example.com"));
+            bookId = book.getId();
+            recordId = bookService.borrowBook(bookId, user.getId()).getId();
+        }
+
+        try (ConfigurableApplicationContext context = start()) {
+            BookService bookService = context.getBean(BookService.class);
+            assertEquals("Durable", bookService.getBookById(bookId).getTitle());
+            assertEquals(1, bookService.getBookById(bookId).getAvailableCopies());
+            assertEquals("Durable", context.getBean(ReactiveBookService.class).getBookById(bookId).block().title());
+            BorrowingRecord record = context.getBean(BorrowingRecordRepository.class).findById(recordId).orElseThrow();
+            assertNull(record.getReturnDate());
+            assertNotNull(bookService.returnBook(recordId).getReturnDate());
+        }
+    }
+
+    @Test
+    void testCountsLostInACrashAreRecomputedFromOpenLoans() throws Exception {
+        Long bookId;
+        try (ConfigurableApplicationContext context = start()) {
+            BookService bookService = context.getBean(BookService.class);
+            Book book = bookService.addBook(new Book("Crashed", "Author", "9780024006028", 2001, 3, 3));
+            User user = context.getBean(UserRepository.class).save(new User("crashed_user", "crashed@example.com"));
+            bookId = book.getId();
+            bookService.borrowBook(bookId, user.getId());
+        }
+        // As if the process died before the borrow's count was flushed
+        try (Connection connection = DriverManager.getConnection(
+                "jdbc:h2:file:" + storageDir.toAbsolutePath() + "/bookLibrary", "sa", "");
+             PreparedStatement statement = connection.prepareStatement("update book set available_copies = 3 where id = ?")) {
+            statement.setLong(1, bookId);
+            assertEquals(1, statement.executeUpdate());
+        }
+
+        try (ConfigurableApplicationContext context = start()) {
+            assertEquals(2, context.getBean(BookService.class).getBookById(bookId).getAvailableCopies());
+        }
+    }
+
+    private ConfigurableApplicationContext start() {
+        return new SpringApplicationBuilder(BookLibraryApplication.class)
+                .web(WebApplicationType.NONE)
+                .profiles("durable")
+                .properties("spring.devtools.restart.enabled=false")
+                // An argument, not a default property, so it wins over the ./data of application-durable.yml
+                .run("--library.storage.dir=" + storageDir.toAbsolutePath());
+    }
+}
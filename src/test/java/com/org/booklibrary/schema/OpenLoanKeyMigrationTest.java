@@ -0,0 +1,74 @@
+package com.org.booklibrary.schema;
+
+import com.org.booklibrary.entity.Book;
+import com.org.booklibrary.entity.BorrowingRecord;
+import com.org.booklibrary.entity.User;
+import com.org.booklibrary.repository.BookRepository;
+import com.org.booklibrary.repository.BorrowingRecordRepository;
+import com.org.booklibrary.repository.UserRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+public class OpenLoanKeyMigrationTest {
+
+    @Autowired
+    private OpenLoanKeyMigration migration;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private BookRepository bookRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private BorrowingRecordRepository borrowingRecordRepository;
+
+    @Test
+    void testOpenLoanKeyFollowsReturnDateAndIsUnique() {
+        Book book = bookRepository.save(new Book("Keyed", "Author", "KEY-001", 2001, 5, 5));
+        User user = userRepository.save(new User("keyed_user", "keyed@example.com"));
+        String key = BorrowingRecord.openLoanKey(user.getId(), book.getId());
+
+        BorrowingRecord record = borrowingRecordRepository.save(new BorrowingRecord(book, user, LocalDate.now()));
+        assertEquals(key, record.getOpenLoanKey());
+        assertTrue(borrowingRecordRepository.existsByOpenLoanKey(key));
+        assertThrows(DataIntegrityViolationException.class,
+                () -> borrowingRecordRepository.save(new BorrowingRecord(book, user, LocalDate.now())));
+
+        record.setReturnDate(LocalDate.now());
+        borrowingRecordRepository.save(record);
+        assertFalse(borrowingRecordRepository.existsByOpenLoanKey(key));
+        assertNull(jdbcTemplate.queryForObject("select open_loan_key from borrowing_record where id = ?", String.class, record.getId()));
+    }
+
+    @Test
+    void testMigrationBackfillsOldestOpenLoanOnly() {
+        Book book = bookRepository.save(new Book("Legacy", "Author", "KEY-002", 2001, 5, 5));
+        User user = userRepository.save(new User("legacy_user", "legacy@example.com"));
+        String insert = "insert into borrowing_record (book_id, user_id, borrow_date, return_date) values (?, ?, ?, ?)";
+        jdbcTemplate.update(insert, book.getId(), user.getId(), LocalDate.now().minusDays(20), LocalDate.now().minusDays(10));
+        jdbcTemplate.update(insert, book.getId(), user.getId(), LocalDate.now().minusDays(5), null);
+        jdbcTemplate.update(insert, book.getId(), user.getId(), LocalDate.now().minusDays(1), null);
+
+        migration.migrate();
+
+        List<String> keys = jdbcTemplate.queryForList(
+                "select open_loan_key from borrowing_record where book_id = ? order by id", String.class, book.getId());
+        assertEquals(List.of(BorrowingRecord.openLoanKey(user.getId(), book.getId())), keys.subList(1, 2));
+        assertNull(keys.get(0));
+        assertNull(keys.get(2));
+        assertTrue(borrowingRecordRepository.existsByOpenLoanKey(BorrowingRecord.openLoanKey(user.getId(), book.getId())));
+    }
+}
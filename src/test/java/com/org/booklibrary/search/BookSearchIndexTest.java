@@ -0,0 +1,88 @@
+package com.org.booklibrary.search;
+
+import com.org.booklibrary.dto.BookView;
+import com.org.booklibrary.entity.Book;
+import com.org.booklibrary.event.BookChangedEvent;
+import com.org.booklibrary.repository.BookRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+public class BookSearchIndexTest {
+
+    @Mock
+    private BookRepository bookRepository;
+
+    @InjectMocks
+    private BookSearchIndex bookSearchIndex;
+
+    private Book book1;
+    private Book book2;
+    private Book book3;
+
+    @BeforeEach
+    void setUp() {
+        book1 = new Book("The Hitchhiker's Guide to the Galaxy", "Douglas Adams", "978-0345391803", 1979, 5, 5);
+        book1.setId(1L);
+        book2 = new Book("1984", "George Orwell", "978-0451524935", 1949, 3, 3);
+        book2.setId(2L);
+        book3 = new Book("Animal Farm", "George Orwell", "978-0451526342", 1945, 2, 2);
+        book3.setId(3L);
+
+        when(bookRepository.findAllViews()).thenReturn(Arrays.asList(BookView.of(book1), BookView.of(book2), BookView.of(book3)));
+        bookSearchIndex.rebuild();
+    }
+
+    @Test
+    void testSearchByTitleIsCaseInsensitiveContains() {
+        List<BookView> result = bookSearchIndex.search("GUIDE TO", null, null);
+        assertEquals(1, result.size());
+        assertEquals(1L, result.get(0).id());
+    }
+
+    @Test
+    void testSearchWithShortQueryFallsBackToScan() {
+        List<BookView> result = bookSearchIndex.search("19", null, null);
+        assertEquals(1, result.size());
+        assertEquals(2L, result.get(0).id());
+    }
+
+    @Test
+    void testSearchByIsbnIgnoresHyphens() {
+        List<BookView> result = bookSearchIndex.search(null, null, "9780451524935");
+        assertEquals(1, result.size());
+        assertEquals(2L, result.get(0).id());
+    }
+
+    @Test
+    void testSearchCombinesCriteria() {
+        List<BookView> result = bookSearchIndex.search("farm", "orwell", null);
+        assertEquals(1, result.size());
+        assertEquals(3L, result.get(0).id());
+
+        assertTrue(bookSearchIndex.search("farm", "adams", null).isEmpty());
+    }
+
+    @Test
+    void testIndexFollowsBookChanges() {
+        book2.setTitle("Nineteen Eighty-Four");
+        bookSearchIndex.onBookChanged(BookChangedEvent.updated(book2));
+        assertTrue(bookSearchIndex.search("1984", null, null).isEmpty());
+        assertEquals(1, bookSearchIndex.search("eighty", null, null).size());
+
+        bookSearchIndex.onBookChanged(BookChangedEvent.deleted(3L));
+        assertEquals(1, bookSearchIndex.search(null, "orwell", null).size());
+        assertEquals(2, bookSearchIndex.size());
+    }
+}
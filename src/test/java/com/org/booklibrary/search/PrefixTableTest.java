@@ -0,0 +1,87 @@
+package com.org.booklibrary.search;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class PrefixTableTest {
+
+    @Test
+    void testTopRanksByScoreThenText() {
+        PrefixTable table = new PrefixTable();
+        table.put(1, "The Hobbit");
+        table.put(2, "the hunger games");
+        table.put(3, "The Road");
+        table.put(4, "Dune");
+        table.compact();
+        table.addScore(2, 5);
+        table.addScore(3, 5);
+
+        assertEquals(List.of(2L, 3L, 1L), refs(table.top("THE ", 10)));
+        assertEquals(List.of(2L, 1L), refs(table.top("the h", 10)));
+        assertEquals(List.of(2L), refs(table.top("the", 1)));
+        assertTrue(table.top("x", 10).isEmpty());
+        assertEquals("the hunger games", table.top("the hu", 1).get(0).text());
+    }
+
+    @Test
+    void testChangesBeforeAndAfterCompactionAgreeWithAScan() {
+        Random random = new Random(42);
+        PrefixTable table = new PrefixTable();
+        Map<Long, String> texts = new HashMap<>();
+        Map<Long, Long> scores = new HashMap<>();
+        String[] words = {"alpha", "Alpine", "beta", "Bet", "gamma", "gam", "a", "b"};
+
+        for (int step = 0; step < 5000; step++) {
+            long ref = random.nextInt(400);
+            int action = random.nextInt(10);
+            if (action < 5) {
+                String text = words[random.nextInt(words.length)] + " " + words[random.nextInt(words.length)];
+                table.put(ref, text);
+                texts.put(ref, text);
+                scores.putIfAbsent(ref, 0L);
+            } else if (action < 7) {
+                table.remove(ref);
+                texts.remove(ref);
+                scores.remove(ref);
+            } else {
+                table.addScore(ref, 1);
+                scores.computeIfPresent(ref, (k, v) -> v + 1);
+            }
+            if (step % 700 == 0) {
+                table.compact();
+            }
+            if (step % 50 == 0) {
+                for (String prefix : new String[]{"a", "AL", "alpine b", "bet", "g", "z"}) {
+                    assertEquals(scan(texts, scores, prefix, 7), refs(table.top(prefix, 7)), "prefix " + prefix + " at step " + step);
+                }
+                assertEquals(texts.size(), table.size());
+            }
+        }
+    }
+
+    private static List<Long> scan(Map<Long, String> texts, Map<Long, Long> scores, String prefix, int limit) {
+        String folded = PrefixTable.fold(prefix);
+        List<Long> refs = new ArrayList<>();
+        texts.forEach((ref, text) -> {
+            if (PrefixTable.fold(text).startsWith(folded)) {
+                refs.add(ref);
+            }
+        });
+        refs.sort(Comparator.<Long>comparingLong(scores::get).reversed()
+                .thenComparing(ref -> PrefixTable.fold(texts.get(ref)))
+                .thenComparing(Comparator.naturalOrder()));
+        return refs.size() > limit ? refs.subList(0, limit) : refs;
+    }
+
+    private static List<Long> refs(List<PrefixTable.Match> matches) {
+        return matches.stream().map(PrefixTable.Match::ref).toList();
+    }
+}
@@ -0,0 +1,89 @@
+package com.org.booklibrary.search;
+
+import com.org.booklibrary.dto.BookView;
+import com.org.booklibrary.dto.LoanCount;
+import com.org.booklibrary.dto.Suggestion;
+import com.org.booklibrary.entity.Book;
+import com.org.booklibrary.event.BookChangedEvent;
+import com.org.booklibrary.event.LoanEvent;
+import com.org.booklibrary.repository.BookRepository;
+import com.org.booklibrary.repository.BorrowingRecordRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+public class SuggestionIndexTest {
+
+    @Mock
+    private BookRepository bookRepository;
+
+    @Mock
+    private BorrowingRecordRepository borrowingRecordRepository;
+
+    @InjectMocks
+    private SuggestionIndex suggestionIndex;
+
+    @BeforeEach
+    void setUp() {
+        Book book1 = new Book("Animal Farm", "George Orwell", "978-0451526342", 1945, 2, 2);
+        book1.setId(1L);
+        Book book2 = new Book("1984", "George Orwell", "978-0451524935", 1949, 3, 3);
+        book2.setId(2L);
+        Book book3 = new Book("Anna Karenina", "Leo Tolstoy", "978-0143035008", 1878, 1, 1);
+        book3.setId(3L);
+        Book book4 = new Book("Gone Girl", "Gillian Flynn", "978-0307588371", 2012, 1, 1);
+        book4.setId(4L);
+
+        when(bookRepository.findAllViews()).thenReturn(List.of(BookView.of(book1), BookView.of(book2), BookView.of(book3), BookView.of(book4)));
+        when(borrowingRecordRepository.countLoansPerBook()).thenReturn(List.of(new LoanCount(1L, 3), new LoanCount(2L, 4), new LoanCount(3L, 5)));
+        suggestionIndex.rebuild();
+    }
+
+    @Test
+    void testSuggestionsAreRankedByLoans() {
+        assertEquals(List.of(new Suggestion(Suggestion.Type.TITLE, "Anna Karenina", 3L, 5), new Suggestion(Suggestion.Type.TITLE, "Animal Farm", 1L, 3)),
+                suggestionIndex.suggest("AN", null, 10));
+        // Orwell's two books add up to 7 loans, ahead of the single Gone Girl
+        assertEquals(List.of(new Suggestion(Suggestion.Type.AUTHOR, "George Orwell", null, 7), new Suggestion(Suggestion.Type.TITLE, "Gone Girl", 4L, 0),
+                        new Suggestion(Suggestion.Type.AUTHOR, "Gillian Flynn", null, 0)),
+                suggestionIndex.suggest("g", null, 10));
+        assertEquals(List.of("Gone Girl"), suggestionIndex.suggest("g", Suggestion.Type.TITLE, 10).stream().map(Suggestion::text).toList());
+        assertEquals(1, suggestionIndex.suggest("g", null, 1).size());
+    }
+
+    @Test
+    void testIndexFollowsBookChangesAndLoans() {
+        Book added = new Book("Annihilation", "Jeff VanderMeer", "978-0374104092", 2014, 1, 1);
+        added.setId(5L);
+        suggestionIndex.onBookChanged(BookChangedEvent.added(added));
+        for (int i = 0; i < 6; i++) {
+            suggestionIndex.onLoan(new LoanEvent(LoanEvent.Type.BORROWED, 100L + i, 5L, 9L, LocalDate.now()));
+        }
+        suggestionIndex.onLoan(new LoanEvent(LoanEvent.Type.RETURNED, 100L, 5L, 9L, LocalDate.now()));
+        assertEquals(List.of("Annihilation", "Anna Karenina", "Animal Farm"),
+                suggestionIndex.suggest("an", Suggestion.Type.TITLE, 10).stream().map(Suggestion::text).toList());
+
+        // Moving a book to another author takes its loans along
+        Book moved = new Book("1984", "Eric Blair", "978-0451524935", 1949, 3, 3);
+        moved.setId(2L);
+        suggestionIndex.onBookChanged(BookChangedEvent.updated(moved));
+        assertEquals(List.of(new Suggestion(Suggestion.Type.AUTHOR, "George Orwell", null, 3)), suggestionIndex.suggest("george", null, 10));
+        assertEquals(List.of(new Suggestion(Suggestion.Type.AUTHOR, "Eric Blair", null, 4)), suggestionIndex.suggest("eric", null, 10));
+
+        suggestionIndex.onBookChanged(BookChangedEvent.deleted(1L));
+        assertTrue(suggestionIndex.suggest("george", null, 10).isEmpty());
+        assertEquals(List.of("Annihilation", "Anna Karenina"),
+                suggestionIndex.suggest("an", null, 10).stream().map(Suggestion::text).toList());
+    }
+}
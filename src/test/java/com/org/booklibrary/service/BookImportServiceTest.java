@@ -0,0 +1,88 @@
+package com.org.booklibrary.service;
+
+import com.org.booklibrary.dto.BookImportResult;
+import com.org.booklibrary.repository.BookRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.TestPropertySource;
+
+import java.io.ByteArrayInputStream;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@TestPropertySource(properties = "library.import.batch-size=2")
+public class BookImportServiceTest {
+
+    @Autowired
+    private BookImportService bookImportService;
+
+    @Autowired
+    private BookRepository bookRepository;
+
+    @Test
+    void testImportJsonReportsInvalidRowsAndKeepsTheRest() throws Exception {
+        long before = bookRepository.count();
+        String json = """
+                [
+                  {"title":"Import A","author":"Author","isbn":"9780024009012","publicationYear":2001,"totalCopies":2},
+                  {"title":"","author":"Author","isbn":"9780024009029","publicationYear":2001,"totalCopies":2},
+                  {"title":"Import C","author":"Author","isbn":"9780024009036","publicationYear":"soon","totalCopies":2},
+                  {"title":"Import D","author":"Author","isbn":"9780024009043","publicationYear":2002,"totalCopies":1,"availableCopies":1},
+                  {"title":"Import E","author":"Author","isbn":"9780024009050","publicationYear":2003,"totalCopies":3}
+                ]
+                """;
+
+        BookImportResult result = bookImportService.importJson(new ByteArrayInputStream(json.getBytes(StandardCharsets.UTF_8)));
+
+        assertEquals(5, result.received());
+        assertEquals(3, result.imported());
+        assertEquals(2, result.failed());
+        assertEquals(List.of(2L, 3L), result.errors().stream().map(BookImportResult.RowError::row).toList());
+        assertEquals(List.of("Title is mandatory"), result.errors().get(0).messages());
+        assertEquals(before + 3, bookRepository.count());
+    }
+
+    @Test
+    void testImportCsvWithQuotedFields() throws Exception {
+        String csv = """
+                isbn,title,author,publicationYear,totalCopies
+                9780024009067,"Guns, Germs, and Steel",Jared Diamond,1997,4
+                9780024009074,"The ""Quoted"" Book",Someone,2010,x
+                """;
+
+        BookImportResult result = bookImportService.importCsv(new StringReader(csv));
+
+        assertEquals(2, result.received());
+        assertEquals(1, result.imported());
+        assertEquals(2L, result.errors().get(0).row());
+        assertTrue(bookRepository.findAll().stream()
+                .anyMatch(book -> book.getTitle().equals("Guns, Germs, and Steel") && book.getAvailableCopies() == 4));
+    }
+
+    @Test
+    void testImportRejectsInvalidAndDuplicateIsbns() throws Exception {
+        String csv = """
+                isbn,title,author,publicationYear,totalCopies
+                978-0-02-400911-1,First Copy,Author,2001,1
+                0-02-400911-3,Same Book As ISBN-10,Author,2001,1
+                978-0-02-400912-0,Bad Check Digit,Author,2001,1
+                """;
+
+        BookImportResult result = bookImportService.importCsv(new StringReader(csv));
+
+        assertEquals(1, result.imported());
+        assertEquals(List.of(2L, 3L), result.errors().stream().map(BookImportResult.RowError::row).toList());
+        assertTrue(result.errors().get(0).messages().get(0).startsWith("Duplicate ISBN"), result.errors().toString());
+        assertTrue(result.errors().get(1).messages().get(0).startsWith("Invalid ISBN"), result.errors().toString());
+    }
+
+    @Test
+    void testParseCsvLine() {
+        assertEquals(List.of("a", "b,c", "say \"hi\"", ""), BookImportService.parseCsvLine("a,\"b,c\",\"say \"\"hi\"\"\","));
+    }
+}
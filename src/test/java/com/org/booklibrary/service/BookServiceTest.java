@@ -1,26 +1,36 @@
 package com.org.booklibrary.service;
 
+import com.org.booklibrary.dto.BookView;
+import com.org.booklibrary.dto.KeysetPage;
 import com.org.booklibrary.entity.Book;
 import com.org.booklibrary.entity.BorrowingRecord;
 import com.org.booklibrary.entity.User;
+import com.org.booklibrary.event.LoanEvent;
 import com.org.booklibrary.exception.BookUnavailableException;
 import com.org.booklibrary.exception.ResourceNotFoundException;
+import com.org.booklibrary.inventory.BookInventory;
+import com.org.booklibrary.isbn.IsbnIndex;
 import com.org.booklibrary.repository.BookRepository;
 import com.org.booklibrary.repository.BorrowingRecordRepository;
 import com.org.booklibrary.repository.UserRepository;
+import com.org.booklibrary.search.BookSearchIndex;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
 
 import java.time.LocalDate;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.AdditionalAnswers.returnsFirstArg;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -35,6 +45,18 @@ public class BookServiceTest {
     @Mock
     private BorrowingRecordRepository borrowingRecordRepository;
 
+    @Mock
+    private BookSearchIndex bookSearchIndex;
+
+    @Mock
+    private BookInventory bookInventory;
+
+    @Mock
+    private IsbnIndex isbnIndex;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
     @InjectMocks
     private BookService bookService;
 
@@ -46,10 +68,10 @@ public class BookServiceTest {
     @BeforeEach
     void setUp() {
         // Initialize sample data for tests
-        book1 = new Book("Title A", "Author A", "ISBN-001", 2000, 5, 3);
+        book1 = new Book("Title A", "Author A", "9780024010018", 2000, 5, 3);
         book1.setId(1L);
 
-        book2 = new Book("Title B", "Author B", "ISBN-002", 2010, 1, 0); // Book with 0 available copies
+        book2 = new Book("Title B", "Author B", "9780024010025", 2010, 1, 0); // Book with 0 available copies
         book2.setId(2L);
 
         user1 = new User("user1", "user1@example.com");
@@ -59,18 +81,52 @@ public class BookServiceTest {
         borrowingRecord1.setId(1001L);
     }
 
+    private void overlayReturnsView() {
+        when(bookInventory.overlay(any(BookView.class))).then(returnsFirstArg());
+    }
+
     @Test
     void testGetAllBooks() {
-        when(bookRepository.findAll()).thenReturn(Arrays.asList(book1, book2));
-        List<Book> books = bookService.getAllBooks();
+        overlayReturnsView();
+        when(bookRepository.findAllViews()).thenReturn(new ArrayList<>(Arrays.asList(BookView.of(book1), BookView.of(book2))));
+        List<BookView> books = bookService.getAllBooks();
         assertNotNull(books);
         assertEquals(2, books.size());
-        verify(bookRepository, times(1)).findAll();
+        verify(bookRepository, times(1)).findAllViews();
+        verify(bookInventory, times(1)).overlay(BookView.of(book1));
+    }
+
+    @Test
+    void testGetAllBooksShowsInMemoryAvailability() {
+        when(bookRepository.findAllViews()).thenReturn(new ArrayList<>(List.of(BookView.of(book1))));
+        when(bookInventory.overlay(BookView.of(book1))).thenReturn(BookView.of(book1).withAvailableCopies(2));
+        assertEquals(2, bookService.getAllBooks().get(0).availableCopies());
+    }
+
+    @Test
+    void testGetBooksPageReturnsCursorWhenMoreRowsExist() {
+        overlayReturnsView();
+        when(bookRepository.findViewsAfter(0L, Limit.of(2)))
+                .thenReturn(new ArrayList<>(Arrays.asList(BookView.of(book1), BookView.of(book2))));
+        KeysetPage<BookView> page = bookService.getBooksPage(null, 1);
+        assertEquals(1, page.items().size());
+        assertEquals(1L, page.nextCursor());
+        verify(bookRepository, times(1)).findViewsAfter(0L, Limit.of(2));
+    }
+
+    @Test
+    void testGetBooksPageCapsPageSize() {
+        overlayReturnsView();
+        when(bookRepository.findViewsAfter(1L, Limit.of(KeysetPage.MAX_SIZE + 1)))
+                .thenReturn(new ArrayList<>(Arrays.asList(BookView.of(book2))));
+        KeysetPage<BookView> page = bookService.getBooksPage(1L, 100_000);
+        assertEquals(1, page.items().size());
+        assertNull(page.nextCursor());
     }
 
     @Test
     void testAddBook() {
-        Book newBook = new Book("New Title", "New Author", "ISBN-003", 2020, 10, 10);
+        Book newBook = new Book("New Title", "New Author", "9780024010032", 2020, 10, 10);
         when(bookRepository.save(any(Book.class))).thenReturn(newBook);
         Book addedBook = bookService.addBook(newBook);
         assertNotNull(addedBook);
@@ -80,9 +136,35 @@ public class BookServiceTest {
     }
 
     @Test
-    void testUpdateBookFound() {
-        Book updatedDetails = new Book("Updated Title", "Updated Author", "ISBN-001", 2000, 6, 4);
+    void testAddBookRejectsInvalidIsbn() {
+        Book newBook = new Book("New Title", "New Author", "978-0-00-000000-0", 2020, 1, 1);
+        assertThrows(IllegalArgumentException.class, () -> bookService.addBook(newBook));
+        verify(bookRepository, never()).save(any(Book.class));
+    }
+
+    @Test
+    void testAddBookRejectsDuplicateIsbn() {
+        Book newBook = new Book("New Title", "New Author", "0-00-240100-2", 2020, 1, 1);
+        doThrow(new IllegalStateException("A book with ISBN 9780002401005 already exists with id: 1"))
+                .when(isbnIndex).checkAvailable(9780002401005L, null);
+        assertThrows(IllegalStateException.class, () -> bookService.addBook(newBook));
+        verify(bookRepository, never()).save(any(Book.class));
+    }
+
+    @Test
+    void testGetBookByIsbn() {
+        when(isbnIndex.find(9780024010018L)).thenReturn(1L);
         when(bookRepository.findById(1L)).thenReturn(Optional.of(book1));
+        when(bookInventory.overlay(book1)).thenReturn(book1);
+        assertEquals(book1, bookService.getBookByIsbn("978-0-02-401001-8"));
+        when(isbnIndex.find(9780024010025L)).thenReturn(IsbnIndex.NONE);
+        assertThrows(ResourceNotFoundException.class, () -> bookService.getBookByIsbn("9780024010025"));
+    }
+
+    @Test
+    void testUpdateBookFound() {
+        Book updatedDetails = new Book("Updated Title", "Updated Author", "978-0-02-401001-8", 2000, 6, 4);
+        when(bookRepository.findFreshById(1L)).thenReturn(Optional.of(book1));
         when(bookRepository.save(any(Book.class))).thenReturn(book1); // Mock saving the updated book1
 
         Book updatedBook = bookService.updateBook(1L, updatedDetails);
@@ -90,16 +172,19 @@ public class BookServiceTest {
         assertEquals("Updated Title", updatedBook.getTitle());
         assertEquals(4, updatedBook.getAvailableCopies()); // Should reflect updated available copies
         assertEquals(6, updatedBook.getTotalCopies());
-        verify(bookRepository, times(1)).findById(1L);
+        assertEquals("9780024010018", updatedBook.getIsbn());
+        assertEquals(9780024010018L, updatedBook.getIsbnKey());
+        verify(bookRepository, times(1)).findFreshById(1L);
         verify(bookRepository, times(1)).save(book1);
+        verify(bookInventory, times(1)).reset(book1);
     }
 
     @Test
     void testUpdateBookNotFound() {
-        Book updatedDetails = new Book("Non-existent", "Author", "ISBN-XXX", 2000, 1, 1);
-        when(bookRepository.findById(99L)).thenReturn(Optional.empty());
+        Book updatedDetails = new Book("Non-existent", "Author", "9780024010049", 2000, 1, 1);
+        when(bookRepository.findFreshById(99L)).thenReturn(Optional.empty());
         assertThrows(ResourceNotFoundException.class, () -> bookService.updateBook(99L, updatedDetails));
-        verify(bookRepository, times(1)).findById(99L);
+        verify(bookRepository, times(1)).findFreshById(99L);
         verify(bookRepository, never()).save(any(Book.class));
     }
 
@@ -109,8 +194,8 @@ public class BookServiceTest {
         book1.setAvailableCopies(3);
         when(bookRepository.findById(1L)).thenReturn(Optional.of(book1));
         when(userRepository.findById(101L)).thenReturn(Optional.of(user1));
-        when(borrowingRecordRepository.findByUserAndBookAndReturnDateIsNull(user1, book1)).thenReturn(Optional.empty());
-        when(bookRepository.save(any(Book.class))).thenReturn(book1);
+        when(borrowingRecordRepository.existsByOpenLoanKey("101:1")).thenReturn(false);
+        when(bookInventory.tryReserve(book1)).thenReturn(true);
         when(borrowingRecordRepository.save(any(BorrowingRecord.class))).thenReturn(borrowingRecord1);
 
         BorrowingRecord record = bookService.borrowBook(1L, 101L);
@@ -119,14 +204,27 @@ public class BookServiceTest {
         assertEquals(book1.getId(), record.getBook().getId());
         assertEquals(user1.getId(), record.getUser().getId());
         assertEquals(LocalDate.now(), record.getBorrowDate());
-        assertEquals(2, book1.getAvailableCopies()); // Available copies should decrease
         verify(bookRepository, times(1)).findById(1L);
         verify(userRepository, times(1)).findById(101L);
-        verify(borrowingRecordRepository, times(1)).findByUserAndBookAndReturnDateIsNull(user1, book1);
-        verify(bookRepository, times(1)).save(book1);
+        verify(borrowingRecordRepository, times(1)).existsByOpenLoanKey("101:1");
+        verify(bookInventory, times(1)).tryReserve(book1); // Copy is reserved in memory
+        verify(bookRepository, never()).save(any(Book.class)); // Book row is flushed asynchronously
         verify(borrowingRecordRepository, times(1)).save(any(BorrowingRecord.class));
     }
 
+    @Test
+    void testBorrowBookNoCopiesAvailable() {
+        when(bookRepository.findById(2L)).thenReturn(Optional.of(book2));
+        when(userRepository.findById(101L)).thenReturn(Optional.of(user1));
+        when(borrowingRecordRepository.existsByOpenLoanKey("101:2")).thenReturn(false);
+        when(bookInventory.tryReserve(book2)).thenReturn(false);
+
+        assertThrows(BookUnavailableException.class, () -> bookService.borrowBook(2L, 101L));
+
+        verify(bookInventory, times(1)).tryReserve(book2);
+        verify(borrowingRecordRepository, never()).save(any(BorrowingRecord.class));
+    }
+
     @Test
     void testBorrowBookUserNotFound() {
         when(bookRepository.findById(1L)).thenReturn(Optional.of(book1));
@@ -146,14 +244,14 @@ public class BookServiceTest {
         book1.setAvailableCopies(3);
         when(bookRepository.findById(1L)).thenReturn(Optional.of(book1));
         when(userRepository.findById(101L)).thenReturn(Optional.of(user1));
-        when(borrowingRecordRepository.findByUserAndBookAndReturnDateIsNull(user1, book1)).thenReturn(Optional.of(borrowingRecord1));
+        when(borrowingRecordRepository.existsByOpenLoanKey("101:1")).thenReturn(true);
 
         assertThrows(BookUnavailableException.class, () -> bookService.borrowBook(1L, 101L));
 
         verify(bookRepository, times(1)).findById(1L);
         verify(userRepository, times(1)).findById(101L);
-        verify(borrowingRecordRepository, times(1)).findByUserAndBookAndReturnDateIsNull(user1, book1);
-        verify(bookRepository, never()).save(any(Book.class)); // Should not decrement if already borrowed
+        verify(borrowingRecordRepository, times(1)).existsByOpenLoanKey("101:1");
+        verify(bookInventory, never()).tryReserve(any(Book.class)); // Should not decrement if already borrowed
         verify(borrowingRecordRepository, never()).save(any(BorrowingRecord.class));
     }
 
@@ -163,16 +261,15 @@ public class BookServiceTest {
         book1.setAvailableCopies(2); // Assume 2 copies were available before this return
 
         when(borrowingRecordRepository.findById(1001L)).thenReturn(Optional.of(borrowingRecord1));
-        when(bookRepository.save(any(Book.class))).thenReturn(book1);
         when(borrowingRecordRepository.save(any(BorrowingRecord.class))).thenReturn(borrowingRecord1);
 
         BorrowingRecord returnedRecord = bookService.returnBook(1001L);
 
         assertNotNull(returnedRecord.getReturnDate());
-        assertEquals(3, book1.getAvailableCopies()); // Available copies should increase
         verify(borrowingRecordRepository, times(1)).findById(1001L);
-        verify(bookRepository, times(1)).save(book1);
+        verify(bookInventory, times(1)).release(book1); // Copy is given back in memory
         verify(borrowingRecordRepository, times(1)).save(borrowingRecord1);
+        verify(eventPublisher, times(1)).publishEvent(any(LoanEvent.class)); // Offered to the waitlist after commit
     }
 
     @Test
@@ -192,34 +289,44 @@ public class BookServiceTest {
         assertThrows(IllegalStateException.class, () -> bookService.returnBook(1001L));
 
         verify(borrowingRecordRepository, times(1)).findById(1001L);
-        verify(bookRepository, never()).save(any(Book.class));
+        verify(bookInventory, never()).release(any(Book.class));
         verify(borrowingRecordRepository, never()).save(any(BorrowingRecord.class));
+        verify(eventPublisher, never()).publishEvent(any(LoanEvent.class));
     }
 
     @Test
     void testSearchBooksByAuthor() {
-        when(bookRepository.findByAuthorContainingIgnoreCase("author")).thenReturn(Arrays.asList(book1));
-        List<Book> result = bookService.searchBooks(null, "author", null);
+        overlayReturnsView();
+        when(bookSearchIndex.search(null, "author", null)).thenReturn(new ArrayList<>(List.of(BookView.of(book1))));
+        List<BookView> result = bookService.searchBooks(null, "author", null);
         assertFalse(result.isEmpty());
         assertEquals(1, result.size());
-        assertEquals("Author A", result.get(0).getAuthor());
-        verify(bookRepository, times(1)).findByAuthorContainingIgnoreCase("author");
-        verify(bookRepository, never()).findByTitleContainingIgnoreCase(anyString());
-        verify(bookRepository, never()).findByIsbn(anyString());
-        verify(bookRepository, never()).findAll();
+        assertEquals("Author A", result.get(0).author());
+        verify(bookSearchIndex, times(1)).search(null, "author", null);
+        verifyNoInteractions(bookRepository);
     }
 
     @Test
     void testSearchBooksByIsbn() {
-        when(bookRepository.findByIsbn("ISBN-001")).thenReturn(Arrays.asList(book1));
-        List<Book> result = bookService.searchBooks(null, null, "ISBN-001");
+        overlayReturnsView();
+        when(bookSearchIndex.search(null, null, "9780024010018")).thenReturn(new ArrayList<>(List.of(BookView.of(book1))));
+        List<BookView> result = bookService.searchBooks(null, null, "9780024010018");
         assertFalse(result.isEmpty());
         assertEquals(1, result.size());
-        assertEquals("ISBN-001", result.get(0).getIsbn());
-        verify(bookRepository, times(1)).findByIsbn("ISBN-001");
-        verify(bookRepository, never()).findByTitleContainingIgnoreCase(anyString());
-        verify(bookRepository, never()).findByAuthorContainingIgnoreCase(anyString());
-        verify(bookRepository, never()).findAll();
+        assertEquals("9780024010018", result.get(0).isbn());
+        verify(bookSearchIndex, times(1)).search(null, null, "9780024010018");
+        verifyNoInteractions(bookRepository);
+    }
+
+    @Test
+    void testSearchBooksCombinesCriteria() {
+        overlayReturnsView();
+        when(bookSearchIndex.search("title", "author b", null)).thenReturn(new ArrayList<>(List.of(BookView.of(book2))));
+        List<BookView> result = bookService.searchBooks("title", "author b", null);
+        assertEquals(1, result.size());
+        assertEquals("Title B", result.get(0).title());
+        verify(bookSearchIndex, times(1)).search("title", "author b", null);
+        verifyNoInteractions(bookRepository);
     }
 
 }
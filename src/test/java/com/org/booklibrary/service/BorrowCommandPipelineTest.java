@@ -0,0 +1,129 @@
+package com.org.booklibrary.service;
+
+import com.org.booklibrary.entity.Book;
+import com.org.booklibrary.entity.BorrowingRecord;
+import com.org.booklibrary.entity.User;
+import com.org.booklibrary.exception.BookUnavailableException;
+import com.org.booklibrary.exception.ResourceNotFoundException;
+import com.org.booklibrary.repository.BorrowingRecordRepository;
+import com.org.booklibrary.repository.UserRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@TestPropertySource(properties = {
+        "library.borrow-pipeline.enabled=true",
+        "library.borrow-pipeline.batch-size=4",
+        "library.borrow-pipeline.max-wait-ms=50"
+})
+public class BorrowCommandPipelineTest {
+
+    @Autowired
+    private BorrowCommandPipeline pipeline;
+
+    @Autowired
+    private BookService bookService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private BorrowingRecordRepository borrowingRecordRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Test
+    void testPipelinedBorrowsAndFailuresAreCountedOnce() {
+        Book book = bookService.addBook(new Book("Counted Book", "Author", "9780024007049", 2020, 1, 1));
+        User user = userRepository.save(new User("pipeline_counted", "pipeline_counted@example.com"));
+        double borrows = meterRegistry.counter("library.borrows").count();
+        double notFound = meterRegistry.counter("library.errors", "type", "not_found", "operation", "borrowBook").count();
+
+        pipeline.borrowBook(book.getId(), user.getId());
+        assertThrows(ResourceNotFoundException.class, () -> pipeline.borrowBook(987655L, user.getId()));
+
+        assertEquals(borrows + 1, meterRegistry.counter("library.borrows").count());
+        assertEquals(notFound + 1, meterRegistry.counter("library.errors", "type", "not_found", "operation", "borrowBook").count());
+    }
+
+    @Test
+    void testConcurrentBorrowsGetIndividualOutcomes() throws Exception {
+        Book book = bookService.addBook(new Book("Pipeline Book", "Author", "9780024007018", 2020, 3, 3));
+        List<User> users = new ArrayList<>();
+        for (int i = 0; i < 6; i++) {
+            users.add(userRepository.save(new User("pipeline_user_" + i, "pipeline" + i + "@example.com")));
+        }
+
+        ExecutorService callers = Executors.newFixedThreadPool(users.size());
+        try {
+            List<CompletableFuture<BorrowingRecord>> futures = users.stream()
+                    .map(user -> CompletableFuture.supplyAsync(() -> pipeline.borrowBook(book.getId(), user.getId()), callers))
+                    .toList();
+
+            int borrowed = 0;
+            int unavailable = 0;
+            for (CompletableFuture<BorrowingRecord> future : futures) {
+                try {
+                    BorrowingRecord record = future.join();
+                    assertNotNull(record.getId());
+                    assertTrue(borrowingRecordRepository.existsById(record.getId()));
+                    borrowed++;
+                } catch (CompletionException e) {
+                    assertInstanceOf(BookUnavailableException.class, e.getCause());
+                    unavailable++;
+                }
+            }
+            assertEquals(3, borrowed);
+            assertEquals(3, unavailable);
+            assertEquals(0, bookService.getBookById(book.getId()).getAvailableCopies());
+        } finally {
+            callers.shutdown();
+        }
+    }
+
+    @Test
+    void testReturnAndFailuresDoNotAffectEachOther() {
+        Book book = bookService.addBook(new Book("Pipeline Return", "Author", "9780024007025", 2020, 1, 1));
+        User user = userRepository.save(new User("pipeline_returner", "returner@example.com"));
+
+        BorrowingRecord record = pipeline.borrowBook(book.getId(), user.getId());
+        assertThrows(BookUnavailableException.class, () -> pipeline.borrowBook(book.getId(), user.getId()));
+        assertThrows(ResourceNotFoundException.class, () -> pipeline.borrowBook(-1L, user.getId()));
+
+        BorrowingRecord returned = pipeline.returnBook(record.getId());
+        assertNotNull(returned.getReturnDate());
+        assertThrows(IllegalStateException.class, () -> pipeline.returnBook(record.getId()));
+        assertEquals(1, bookService.getBookById(book.getId()).getAvailableCopies());
+    }
+
+    @Test
+    void testCallerRunsCommandTheWorkerNeverStarted() {
+        Book book = bookService.addBook(new Book("Pipeline Timeout", "Author", "9780024007032", 2020, 1, 1));
+        User user = userRepository.save(new User("pipeline_waiter", "waiter@example.com"));
+        // Never started, so nothing takes the queued command
+        BorrowCommandPipeline idle = new BorrowCommandPipeline(bookService, transactionManager, new SimpleMeterRegistry(),
+                4, 50, 10, 100);
+
+        BorrowingRecord record = idle.borrowBook(book.getId(), user.getId());
+        assertTrue(borrowingRecordRepository.existsById(record.getId()));
+        assertEquals(0, bookService.getBookById(book.getId()).getAvailableCopies());
+    }
+}
@@ -1,8 +1,12 @@
 package com.org.booklibrary.service;
 
+import com.org.booklibrary.dto.BorrowingRecordFilter;
+import com.org.booklibrary.dto.BorrowingRecordView;
+import com.org.booklibrary.dto.KeysetPage;
 import com.org.booklibrary.entity.Book;
 import com.org.booklibrary.entity.BorrowingRecord;
 import com.org.booklibrary.entity.User;
+import com.org.booklibrary.exception.ResourceNotFoundException;
 import com.org.booklibrary.repository.BookRepository;
 import com.org.booklibrary.repository.BorrowingRecordRepository;
 import com.org.booklibrary.repository.UserRepository;
@@ -12,13 +16,16 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Limit;
+
 import java.time.LocalDate;
 import java.util.Arrays;
 import java.util.List;
-import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.Mockito.*;
 @ExtendWith(MockitoExtension.class)
 public class BorrowingRecordServiceTest {
@@ -56,35 +63,72 @@ public class BorrowingRecordServiceTest {
         record2.setId(1002L);
     }
 
+    private static BorrowingRecordView view(BorrowingRecord record) {
+        return new BorrowingRecordView(record.getId(), record.getBook().getId(), record.getBook().getTitle(),
+                record.getUser().getId(), record.getUser().getUsername(), record.getBorrowDate(), record.getReturnDate());
+    }
+
     @Test
     void testGetAllBorrowingRecords() {
-        when(borrowingRecordRepository.findAll()).thenReturn(Arrays.asList(record1, record2));
-        List<BorrowingRecord> records = borrowingRecordService.getAllBorrowingRecords();
+        when(borrowingRecordRepository.findAllViews()).thenReturn(Arrays.asList(view(record1), view(record2)));
+        List<BorrowingRecordView> records = borrowingRecordService.getAllBorrowingRecords();
         assertNotNull(records);
         assertEquals(2, records.size());
-        verify(borrowingRecordRepository, times(1)).findAll();
+        verify(borrowingRecordRepository, times(1)).findAllViews();
     }
 
     @Test
     void testGetBorrowingRecordsByUserFound() {
-        when(userRepository.findById(101L)).thenReturn(Optional.of(user1));
-        when(borrowingRecordRepository.findByUser(user1)).thenReturn(Arrays.asList(record1, record2));
-        List<BorrowingRecord> records = borrowingRecordService.getBorrowingRecordsByUser(101L);
+        when(userRepository.existsById(101L)).thenReturn(true);
+        when(borrowingRecordRepository.findViewsByUserId(101L)).thenReturn(Arrays.asList(view(record1), view(record2)));
+        List<BorrowingRecordView> records = borrowingRecordService.getBorrowingRecordsByUser(101L);
         assertNotNull(records);
         assertEquals(2, records.size());
-        verify(userRepository, times(1)).findById(101L);
-        verify(borrowingRecordRepository, times(1)).findByUser(user1);
+        assertEquals("user1", records.get(0).username());
+        verify(userRepository, times(1)).existsById(101L);
+        verify(userRepository, never()).findById(anyLong());
+        verify(borrowingRecordRepository, times(1)).findViewsByUserId(101L);
+    }
+
+    @Test
+    void testGetBorrowingRecordsByUserNotFound() {
+        when(userRepository.existsById(999L)).thenReturn(false);
+        assertThrows(ResourceNotFoundException.class, () -> borrowingRecordService.getBorrowingRecordsByUser(999L));
+        verifyNoInteractions(borrowingRecordRepository);
     }
 
     @Test
     void testGetBorrowingRecordsByBookFound() {
-        when(bookRepository.findById(1L)).thenReturn(Optional.of(book1));
-        when(borrowingRecordRepository.findByBook(book1)).thenReturn(Arrays.asList(record1, record2));
-        List<BorrowingRecord> records = borrowingRecordService.getBorrowingRecordsByBook(1L);
+        when(bookRepository.existsById(1L)).thenReturn(true);
+        when(borrowingRecordRepository.findViewsByBookId(1L)).thenReturn(Arrays.asList(view(record1), view(record2)));
+        List<BorrowingRecordView> records = borrowingRecordService.getBorrowingRecordsByBook(1L);
         assertNotNull(records);
         assertEquals(2, records.size());
-        verify(bookRepository, times(1)).findById(1L);
-        verify(borrowingRecordRepository, times(1)).findByBook(book1);
+        assertEquals("Title A", records.get(1).bookTitle());
+        verify(bookRepository, times(1)).existsById(1L);
+        verify(borrowingRecordRepository, times(1)).findViewsByBookId(1L);
     }
 
+    @Test
+    void testGetBorrowingRecordsPageReturnsCursorWhenMoreRowsExist() {
+        BorrowingRecordFilter filter = new BorrowingRecordFilter(101L, null, null, null, null, null);
+        when(borrowingRecordRepository.findViewsAfter(0L, filter, Limit.of(2)))
+                .thenReturn(Arrays.asList(view(record1), view(record2)));
+
+        KeysetPage<BorrowingRecordView> page = borrowingRecordService.getBorrowingRecordsPage(filter, null, 1);
+
+        assertEquals(List.of(view(record1)), page.items());
+        assertEquals(1001L, page.nextCursor());
+    }
+
+    @Test
+    void testGetBorrowingRecordsPageCapsLimit() {
+        when(borrowingRecordRepository.findViewsAfter(1001L, BorrowingRecordFilter.NONE, Limit.of(KeysetPage.MAX_SIZE + 1)))
+                .thenReturn(List.of(view(record2)));
+
+        KeysetPage<BorrowingRecordView> page = borrowingRecordService.getBorrowingRecordsPage(BorrowingRecordFilter.NONE, 1001L, 100_000);
+
+        assertEquals(1, page.items().size());
+        assertNull(page.nextCursor());
+    }
 }
@@ -1,6 +1,7 @@
 package com.org.booklibrary.service;
 
 import com.org.booklibrary.entity.User;
+import com.org.booklibrary.event.UserChangedEvent;
 import com.org.booklibrary.repository.UserRepository;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -8,6 +9,7 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
 
 import java.util.Arrays;
 import java.util.List;
@@ -23,6 +25,9 @@ public class UserServiceTest {
     @Mock
     private UserRepository userRepository;
 
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
     @InjectMocks
     private UserService userService;
 
@@ -63,5 +68,6 @@ public class UserServiceTest {
         assertNotNull(addedUser);
         assertEquals("new_user", addedUser.getUsername());
         verify(userRepository, times(1)).save(any(User.class));
+        verify(eventPublisher).publishEvent(UserChangedEvent.added(addedUser));
     }
 }
@@ -0,0 +1,113 @@
+package com.org.booklibrary.stats;
+
+import com.org.booklibrary.dto.AuthorStats;
+import com.org.booklibrary.dto.DailyLoans;
+import com.org.booklibrary.dto.LibraryStats;
+import com.org.booklibrary.entity.Book;
+import com.org.booklibrary.entity.BorrowingRecord;
+import com.org.booklibrary.entity.User;
+import com.org.booklibrary.repository.BookRepository;
+import com.org.booklibrary.repository.BorrowingRecordRepository;
+import com.org.booklibrary.repository.UserRepository;
+import com.org.booklibrary.service.BookService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+public class LibraryStatsTrackerTest {
+
+    @Autowired
+    private LibraryStatsTracker tracker;
+
+    @Autowired
+    private BookService bookService;
+
+    @Autowired
+    private BookRepository bookRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private BorrowingRecordRepository borrowingRecordRepository;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Test
+    void testFiguresFollowBookAndLoanChanges() {
+        Book first = bookService.addBook(new Book("Stats One", "Stats Author", "9780024008015", 2001, 2, 2));
+        Book second = bookService.addBook(new Book("Stats Two", "Stats Author", "9780024008022", 2002, 1, 1));
+        User user = userRepository.save(new User("stats_user", "stats@example.com"));
+        assertEquals(new AuthorStats("Stats Author", 2, 3, 3), tracker.author("Stats Author").orElseThrow());
+
+        LibraryStats before = tracker.summary();
+        BorrowingRecord record = bookService.borrowBook(first.getId(), user.getId());
+        assertEquals(new AuthorStats("Stats Author", 2, 3, 2), tracker.author("Stats Author").orElseThrow());
+        assertEquals(1, tracker.loansForBook(first.getId()).loans());
+        assertEquals(1, tracker.loansForUser(user.getId()).loans());
+        LibraryStats during = tracker.summary();
+        assertEquals(before.loans() + 1, during.loans());
+        assertEquals(before.openLoans() + 1, during.openLoans());
+        assertEquals(before.availableCopies() - 1, during.availableCopies());
+
+        bookService.returnBook(record.getId());
+        assertEquals(new AuthorStats("Stats Author", 2, 3, 3), tracker.author("Stats Author").orElseThrow());
+        assertEquals(before.openLoans(), tracker.summary().openLoans());
+        assertEquals(1, tracker.loansForBook(first.getId()).loans());
+
+        bookService.updateBook(second.getId(), new Book("Stats Two", "Other Stats Author", "9780024008022", 2002, 4, 4));
+        assertEquals(new AuthorStats("Stats Author", 1, 2, 2), tracker.author("Stats Author").orElseThrow());
+        assertEquals(new AuthorStats("Other Stats Author", 1, 4, 4), tracker.author("Other Stats Author").orElseThrow());
+
+        bookService.deleteBook(second.getId());
+        assertTrue(tracker.author("Other Stats Author").isEmpty());
+    }
+
+    @Test
+    void testReconcilePicksUpRowsWrittenAroundTheService() {
+        LocalDate day = LocalDate.of(2001, 2, 3);
+        // Written straight to the repositories: only a reconcile can know about these.
+        Book book = bookRepository.save(new Book("Unseen", "Unseen Author", "9780024008039", 2003, 5, 5));
+        User user = userRepository.save(new User("stats_unseen", "unseen@example.com"));
+        BorrowingRecord old = new BorrowingRecord(book, user, day);
+        old.setReturnDate(day.plusDays(7));
+        borrowingRecordRepository.save(old);
+        assertTrue(tracker.author("Unseen Author").isEmpty());
+
+        tracker.reconcile();
+
+        assertEquals(new AuthorStats("Unseen Author", 1, 5, 5), tracker.author("Unseen Author").orElseThrow());
+        assertEquals(1, tracker.loansForUser(user.getId()).loans());
+        List<DailyLoans> days = tracker.loansPerDay(day.minusDays(1), day.plusDays(1));
+        assertEquals(List.of(day.minusDays(1), day, day.plusDays(1)), days.stream().map(DailyLoans::day).toList());
+        assertTrue(days.get(1).loans() >= 1);
+        assertEquals(bookRepository.count(), tracker.summary().books());
+        assertEquals(borrowingRecordRepository.count(), tracker.summary().loans());
+    }
+
+    @Test
+    void testDailyLoansRejectsInvalidRanges() throws Exception {
+        mockMvc.perform(get("/api/v1/stats/loans/daily?from=2024-01-01&to=2024-01-03"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(3));
+        mockMvc.perform(get("/api/v1/stats/loans/daily?from=2024-01-03&to=2024-01-01"))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(get("/api/v1/stats/loans/daily?from=2020-01-01&to=2024-01-01"))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(get("/api/v1/stats/authors/Nobody Writes This"))
+                .andExpect(status().isNotFound());
+    }
+}